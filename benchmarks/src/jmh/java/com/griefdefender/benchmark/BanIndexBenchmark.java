@@ -0,0 +1,89 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.benchmark;
+
+import com.griefdefender.configuration.category.BanCategory;
+import com.griefdefender.permission.BanIndex;
+import net.kyori.text.TextComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BanIndexBenchmark {
+
+    @Param({"10", "300", "1000"})
+    public int banCount;
+
+    private BanCategory banCategory;
+    private BanIndex banIndex;
+    private String[] ids;
+    private int index;
+
+    @Setup
+    public void setup() {
+        final BanCategory banCategory = new BanCategory();
+        for (int i = 0; i < this.banCount; i++) {
+            // Mix of exact modded ids and mod wide wildcard bans
+            if (i % 10 == 0) {
+                banCategory.addBlockBan("mod" + i + ":*", TextComponent.empty());
+            } else {
+                banCategory.addBlockBan("mod" + (i % 50) + ":block_" + i, TextComponent.empty());
+            }
+        }
+        banCategory.addBlockBan("*:nuke", TextComponent.empty());
+        this.banCategory = banCategory;
+        this.banIndex = new BanIndex(banCategory);
+        this.ids = new String[1024];
+        for (int i = 0; i < this.ids.length; i++) {
+            this.ids[i] = "mod" + (i % 60) + ":block_" + i;
+        }
+    }
+
+    @Benchmark
+    public String lookup() {
+        final String id = this.ids[this.index++ & (this.ids.length - 1)];
+        return this.banIndex.getBlockBan(id);
+    }
+
+    @Benchmark
+    public String notBanned() {
+        return this.banIndex.getBlockBan("minecraft:stone");
+    }
+
+    @Benchmark
+    public BanIndex rebuild() {
+        return new BanIndex(this.banCategory);
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.reflect.TypeToken;
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.api.claim.ClaimType;
+import com.griefdefender.claim.GDClaimManager;
+import com.griefdefender.configuration.GriefDefenderConfig;
+import com.griefdefender.configuration.serializer.ClaimTypeSerializer;
+import com.griefdefender.configuration.serializer.ComponentConfigSerializer;
+import com.griefdefender.configuration.type.GlobalConfig;
+import com.griefdefender.permission.GDPermissionHolder;
+import com.griefdefender.provider.LuckPermsProvider;
+import com.griefdefender.registry.ClaimTypeRegistryModule;
+import com.griefdefender.registry.FlagRegistryModule;
+import com.griefdefender.registry.OptionRegistryModule;
+import com.griefdefender.registry.TrustTypeRegistryModule;
+import com.griefdefender.storage.BaseStorage;
+import com.griefdefender.storage.FileStorage;
+import me.lucko.luckperms.api.Group;
+import me.lucko.luckperms.api.LuckPermsApi;
+import me.lucko.luckperms.api.Node;
+import me.lucko.luckperms.api.context.ContextManager;
+import me.lucko.luckperms.api.context.ImmutableContextSet;
+import me.lucko.luckperms.api.event.EventBus;
+import net.kyori.text.Component;
+import ninja.leaping.configurate.objectmapping.serialize.TypeSerializers;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Boots the parts of GD needed by the claim, permission and storage
+ * benchmarks without a running server.
+ *
+ * <p>Bukkit is replaced by a proxied server with a single world and
+ * LuckPerms by a proxied API whose default group holds the nodes passed to
+ * {@link #setDefaultGroupNodes(List)}. Data is written to a temporary
+ * folder.</p>
+ */
+final class BenchmarkEnvironment {
+
+    private static final UUID WORLD_UNIQUE_ID = UUID.fromString("7b3f1c2e-4d5a-4c1b-9f0e-8a6d2b1c3e4f");
+    private static BenchmarkEnvironment instance;
+
+    private final World world;
+    private final LuckPermsProvider permissionProvider;
+    private volatile List<Node> defaultGroupNodes = Collections.emptyList();
+
+    private BenchmarkEnvironment() throws Exception {
+        final Path rootPath = Files.createTempDirectory("gd-benchmark");
+        this.world = stub(World.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUID":
+                    return WORLD_UNIQUE_ID;
+                case "getName":
+                    return "benchmark";
+                case "getEnvironment":
+                    return World.Environment.NORMAL;
+                case "getMaxHeight":
+                    return 256;
+                default:
+                    return defaultValue(proxy, method.getReturnType(), method.getName(), args);
+            }
+        });
+
+        final LuckPermsApi luckPermsApi = this.createLuckPermsApi();
+        final ServicesManager servicesManager = stub(ServicesManager.class, (proxy, method, args) -> {
+            if (method.getName().equals("getRegistration") && args[0] == LuckPermsApi.class) {
+                return new RegisteredServiceProvider<>(LuckPermsApi.class, luckPermsApi, ServicePriority.Normal, null);
+            }
+            return defaultValue(proxy, method.getReturnType(), method.getName(), args);
+        });
+        final PluginManager pluginManager = stub(PluginManager.class, (proxy, method, args) -> defaultValue(proxy, method.getReturnType(), method.getName(), args));
+        final Logger logger = Logger.getLogger("GriefDefenderBenchmark");
+        final Server server = stub(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getLogger":
+                    return logger;
+                case "getName":
+                case "getVersion":
+                case "getBukkitVersion":
+                    return "benchmark";
+                case "getWorld":
+                    return args[0].equals(WORLD_UNIQUE_ID) || args[0].equals("benchmark") ? this.world : null;
+                case "getWorlds":
+                    return ImmutableList.of(this.world);
+                case "getServicesManager":
+                    return servicesManager;
+                case "getPluginManager":
+                    return pluginManager;
+                case "isPrimaryThread":
+                    return true;
+                default:
+                    return defaultValue(proxy, method.getReturnType(), method.getName(), args);
+            }
+        });
+        Bukkit.setServer(server);
+
+        // Must be set before BaseStorage reads the config path
+        final GriefDefenderPlugin plugin = GriefDefenderPlugin.getInstance();
+        setField(plugin, "configPath", rootPath);
+        this.permissionProvider = new LuckPermsProvider();
+        setField(plugin, "permissionProvider", this.permissionProvider);
+        GriefDefenderPlugin.DEFAULT_HOLDER = new GDPermissionHolder("default");
+
+        ClaimTypeRegistryModule.getInstance().registerDefaults();
+        TrustTypeRegistryModule.getInstance().registerDefaults();
+        FlagRegistryModule.getInstance().registerDefaults();
+        OptionRegistryModule.getInstance().registerDefaults();
+        TypeSerializers.getDefaultSerializers().registerType(TypeToken.of(Component.class), new ComponentConfigSerializer());
+        TypeSerializers.getDefaultSerializers().registerType(TypeToken.of(ClaimType.class), new ClaimTypeSerializer());
+        BaseStorage.globalConfig = new GriefDefenderConfig<>(GlobalConfig.class, rootPath.resolve("global.conf"), null);
+
+        final FileStorage dataStore = new FileStorage();
+        plugin.dataStore = dataStore;
+        // initialize() is skipped as it writes default flags through LuckPerms
+        dataStore.registerWorld(this.world);
+    }
+
+    static synchronized BenchmarkEnvironment getInstance() throws Exception {
+        if (instance == null) {
+            instance = new BenchmarkEnvironment();
+        }
+        return instance;
+    }
+
+    World getWorld() {
+        return this.world;
+    }
+
+    GDClaimManager getClaimManager() {
+        return GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(WORLD_UNIQUE_ID);
+    }
+
+    LuckPermsProvider getPermissionProvider() {
+        return this.permissionProvider;
+    }
+
+    /**
+     * Replaces the permanent nodes of the LuckPerms default group.
+     *
+     * <p>Compiled permissions are not invalidated.</p>
+     *
+     * @param nodes The nodes
+     */
+    void setDefaultGroupNodes(List<Node> nodes) {
+        this.defaultGroupNodes = ImmutableList.copyOf(nodes);
+    }
+
+    static Node createNode(String permission, boolean value, Map<String, String> contexts) {
+        final List<Map.Entry<String, String>> entries = new ArrayList<>();
+        for (Map.Entry<String, String> entry : contexts.entrySet()) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+        final ImmutableContextSet contextSet = ImmutableContextSet.fromEntries(entries);
+        return stub(Node.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPermission":
+                    return permission;
+                case "getValue":
+                    return value;
+                case "isMeta":
+                    return false;
+                case "getContexts":
+                case "getFullContexts":
+                    return contextSet;
+                case "getServer":
+                case "getWorld":
+                    return Optional.empty();
+                default:
+                    return defaultValue(proxy, method.getReturnType(), method.getName(), args);
+            }
+        });
+    }
+
+    private LuckPermsApi createLuckPermsApi() {
+        final Group defaultGroup = stub(Group.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return "default";
+                case "getObjectName":
+                    return "group.default";
+                case "getNodes":
+                    final ImmutableSetMultimap.Builder<ImmutableContextSet, Node> nodes = ImmutableSetMultimap.builder();
+                    for (Node node : this.defaultGroupNodes) {
+                        nodes.put(node.getContexts(), node);
+                    }
+                    return nodes.build();
+                case "getTransientPermissions":
+                    return ImmutableSet.of();
+                default:
+                    return defaultValue(proxy, method.getReturnType(), method.getName(), args);
+            }
+        });
+        final ContextManager contextManager = stub(ContextManager.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getStaticContext":
+                    return ImmutableContextSet.empty();
+                case "lookupApplicableContext":
+                    return Optional.of(ImmutableContextSet.empty());
+                default:
+                    return defaultValue(proxy, method.getReturnType(), method.getName(), args);
+            }
+        });
+        final EventBus eventBus = stub(EventBus.class, (proxy, method, args) -> defaultValue(proxy, method.getReturnType(), method.getName(), args));
+        return stub(LuckPermsApi.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getGroup":
+                    return "default".equals(args[0]) ? defaultGroup : null;
+                case "getContextManager":
+                    return contextManager;
+                case "getEventBus":
+                    return eventBus;
+                default:
+                    return defaultValue(proxy, method.getReturnType(), method.getName(), args);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(BenchmarkEnvironment.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object defaultValue(Object proxy, Class<?> returnType, String methodName, Object[] args) {
+        switch (methodName) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Stub" + Integer.toHexString(System.identityHashCode(proxy));
+            default:
+                break;
+        }
+        if (returnType.isPrimitive()) {
+            return returnType == void.class ? null : Array.get(Array.newInstance(returnType, 1), 0);
+        }
+        if (returnType == Optional.class) {
+            return Optional.empty();
+        }
+        if (returnType == List.class || returnType == Collection.class) {
+            return Collections.emptyList();
+        }
+        if (returnType == Set.class) {
+            return Collections.emptySet();
+        }
+        if (returnType == Map.class) {
+            return Collections.emptyMap();
+        }
+        return null;
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        final Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
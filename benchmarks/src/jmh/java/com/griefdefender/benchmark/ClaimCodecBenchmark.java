@@ -0,0 +1,118 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.benchmark;
+
+import com.griefdefender.storage.ClaimBinaryCodec;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.ConfigurationOptions;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.hocon.HoconConfigurationLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClaimCodecBenchmark {
+
+    @Param({"0", "50"})
+    public int trustedCount;
+
+    private CommentedConfigurationNode root;
+    private String hocon;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws IOException {
+        this.root = CommentedConfigurationNode.root();
+        final ConfigurationNode claim = this.root.getNode("GriefDefender");
+        claim.getNode("world-uuid").setValue(UUID.randomUUID().toString());
+        claim.getNode("owner-uuid").setValue(UUID.randomUUID().toString());
+        claim.getNode("claim-type").setValue("griefdefender:basic");
+        claim.getNode("cuboid").setValue(false);
+        claim.getNode("resizable").setValue(true);
+        claim.getNode("pvp").setValue("UNDEFINED");
+        claim.getNode("date-created").setValue(Instant.now().toString());
+        claim.getNode("date-last-active").setValue(Instant.now().toString());
+        claim.getNode("lesser-boundary-corner").setValue("-1200;0;340");
+        claim.getNode("greater-boundary-corner").setValue("-1100;255;420");
+        claim.getNode("claim-name").setValue("&6Spawn Town");
+        for (int i = 0; i < this.trustedCount; i++) {
+            claim.getNode(i % 2 == 0 ? "builders" : "accessors").getAppendedNode().setValue(UUID.randomUUID().toString());
+        }
+        claim.getNode("economyData", "for-sale").setValue(false);
+        claim.getNode("economyData", "sale-price").setValue(0.0);
+        claim.getNode("economyData", "tax-balance").setValue(12.5);
+
+        this.hocon = this.writeHocon();
+        this.binary = this.writeBinary();
+    }
+
+    @Benchmark
+    public CommentedConfigurationNode readHocon() throws IOException {
+        return HoconConfigurationLoader.builder()
+                .setSource(() -> new BufferedReader(new StringReader(this.hocon)))
+                .build()
+                .load();
+    }
+
+    @Benchmark
+    public CommentedConfigurationNode readBinary() throws IOException {
+        return ClaimBinaryCodec.read(new DataInputStream(new ByteArrayInputStream(this.binary)), ConfigurationOptions.defaults());
+    }
+
+    @Benchmark
+    public String writeHocon() throws IOException {
+        final StringWriter writer = new StringWriter();
+        HoconConfigurationLoader.builder().setSink(() -> new BufferedWriter(writer)).build().save(this.root);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public byte[] writeBinary() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ClaimBinaryCodec.write(this.root, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.benchmark;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.claim.GDClaim;
+import com.griefdefender.claim.GDClaimManager;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(jvmArgsAppend = "-Xmx8G")
+public class ClaimLookupBenchmark {
+
+    // Each cell holds a claim with a child and a grandchild
+    private static final int CELL_SIZE = 64;
+    private static final int CLAIMS_PER_CELL = 3;
+
+    @Param({"1000", "100000", "1000000"})
+    public int claimCount;
+
+    private GDClaimManager claimManager;
+    private Vector3i[] positions;
+    private int index;
+
+    @Setup
+    public void setup() throws Exception {
+        final BenchmarkEnvironment environment = BenchmarkEnvironment.getInstance();
+        final World world = environment.getWorld();
+        this.claimManager = environment.getClaimManager();
+
+        final int cells = this.claimCount / CLAIMS_PER_CELL;
+        final int gridSize = (int) Math.ceil(Math.sqrt(cells));
+        for (int i = 0; i < cells; i++) {
+            final int x = (i % gridSize) * CELL_SIZE;
+            final int z = (i / gridSize) * CELL_SIZE;
+            final GDClaim claim = this.addClaim(world, x, z, 48, null);
+            final GDClaim child = this.addClaim(world, x + 8, z + 8, 24, claim);
+            this.addClaim(world, x + 16, z + 16, 8, child);
+        }
+
+        // Spread over the whole grid so lookups hit every depth and the wilderness between cells
+        final Random random = new Random(42);
+        this.positions = new Vector3i[4096];
+        for (int i = 0; i < this.positions.length; i++) {
+            this.positions[i] = new Vector3i(random.nextInt(gridSize * CELL_SIZE), 64, random.nextInt(gridSize * CELL_SIZE));
+        }
+    }
+
+    private GDClaim addClaim(World world, int x, int z, int size, GDClaim parent) {
+        final GDClaim claim = new GDClaim(world, new Vector3i(x, 0, z), new Vector3i(x + size - 1, 255, z + size - 1), ClaimTypes.ADMIN, null, false, parent);
+        this.claimManager.addClaim(claim, false);
+        return claim;
+    }
+
+    @Benchmark
+    public Claim getClaimAt() {
+        return this.claimManager.getClaimAt(this.positions[this.index++ & (this.positions.length - 1)]);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.benchmark;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.claim.GDClaim;
+import com.griefdefender.configuration.ClaimStorageData;
+import com.griefdefender.configuration.IClaimData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClaimStorageBenchmark {
+
+    @Param({"hocon", "binary"})
+    public String claimFormat;
+
+    @Param({"0", "50"})
+    public int trustedCount;
+
+    private ClaimStorageData claimStorage;
+    private UUID worldUniqueId;
+
+    @Setup
+    public void setup() throws Exception {
+        final BenchmarkEnvironment environment = BenchmarkEnvironment.getInstance();
+        GriefDefenderPlugin.getGlobalConfig().getConfig().storage.claimFormat = this.claimFormat;
+        final GDClaim claim = new GDClaim(environment.getWorld(), new Vector3i(-1200, 0, 340), new Vector3i(-1100, 255, 420), ClaimTypes.ADMIN, null, false, null);
+        claim.initializeClaimData(null);
+        final IClaimData claimData = claim.getInternalClaimData();
+        for (int i = 0; i < this.trustedCount; i++) {
+            (i % 2 == 0 ? claimData.getBuilders() : claimData.getAccessors()).add(UUID.randomUUID());
+        }
+        this.claimStorage = claim.getClaimStorage();
+        this.worldUniqueId = environment.getWorld().getUID();
+        // The save queue is not started so this writes the file directly
+        this.claimStorage.save();
+    }
+
+    @Benchmark
+    public ClaimStorageData load() {
+        return new ClaimStorageData(this.claimStorage.filePath, this.worldUniqueId);
+    }
+
+    @Benchmark
+    public ClaimStorageData save() {
+        this.claimStorage.save();
+        return this.claimStorage;
+    }
+}
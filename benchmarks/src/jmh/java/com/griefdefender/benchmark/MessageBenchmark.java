@@ -0,0 +1,83 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import com.griefdefender.configuration.MessageDataConfig;
+import net.kyori.text.Component;
+import net.kyori.text.TextComponent;
+import net.kyori.text.format.TextColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageBenchmark {
+
+    private MessageDataConfig messageData;
+    private Map<String, Object> denyParams;
+    private Map<String, Object> listParams;
+
+    @Setup
+    public void setup() {
+        this.messageData = new MessageDataConfig();
+        this.messageData.messageMap.put("permission-plain", "&cYou don't have permission to use this command.");
+        this.messageData.messageMap.put("permission-deny", "&cYou don't have &6{player}&c's permission to &l{flag}&r&c here in &b{claim}&c.");
+        this.messageData.messageMap.put("claim-list", "&aName&f : {name}&7, &aOwner&f : &6{owner}&7, &aType&f : {type}&7, &aSize&f : {size}");
+        this.denyParams = ImmutableMap.of(
+                "player", "bloodmc",
+                "flag", "block-break",
+                "claim", TextComponent.of("Spawn", TextColor.GOLD));
+        this.listParams = ImmutableMap.of(
+                "name", TextComponent.of("My Base", TextColor.GREEN),
+                "owner", "bloodmc",
+                "type", TextComponent.of("BASIC", TextColor.YELLOW),
+                "size", 12345);
+    }
+
+    @Benchmark
+    public Component plainMessage() {
+        return this.messageData.getMessage("permission-plain");
+    }
+
+    @Benchmark
+    public Component denyMessage() {
+        return this.messageData.getMessage("permission-deny", this.denyParams);
+    }
+
+    @Benchmark
+    public Component claimListMessage() {
+        return this.messageData.getMessage("claim-list", this.listParams);
+    }
+}
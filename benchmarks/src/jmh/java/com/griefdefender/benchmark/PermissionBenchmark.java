@@ -0,0 +1,122 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.benchmark;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.collect.ImmutableMap;
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.GDClaim;
+import com.griefdefender.claim.GDClaimManager;
+import com.griefdefender.permission.GDPermissionManager;
+import me.lucko.luckperms.api.Node;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PermissionBenchmark {
+
+    private static final String FLAG_PERMISSION = "griefdefender.flag.block-break";
+
+    @Param({"100", "10000"})
+    public int nodeCount;
+
+    private GDClaim claim;
+
+    @Setup
+    public void setup() throws Exception {
+        final BenchmarkEnvironment environment = BenchmarkEnvironment.getInstance();
+        final GDClaimManager claimManager = environment.getClaimManager();
+        final GDClaim parent = new GDClaim(environment.getWorld(), new Vector3i(0, 0, 0), new Vector3i(99, 255, 99), ClaimTypes.ADMIN, null, false, null);
+        claimManager.addClaim(parent, false);
+        this.claim = new GDClaim(environment.getWorld(), new Vector3i(10, 0, 10), new Vector3i(49, 255, 49), ClaimTypes.ADMIN, null, false, parent);
+        claimManager.addClaim(this.claim, false);
+
+        // Flags set on other claims fill the default group, only the last node matches
+        final List<Node> nodes = new ArrayList<>();
+        for (int i = 1; i < this.nodeCount; i++) {
+            nodes.add(BenchmarkEnvironment.createNode(FLAG_PERMISSION, i % 2 == 0, ImmutableMap.of("gd_claim", UUID.randomUUID().toString())));
+        }
+        nodes.add(BenchmarkEnvironment.createNode(FLAG_PERMISSION, false, ImmutableMap.of("gd_claim", this.claim.getUniqueId().toString())));
+        environment.setDefaultGroupNodes(nodes);
+        environment.getPermissionProvider().invalidateAllCompiledPermissions();
+        PermissionHolderCache.getInstance().invalidateAllPermissionCache();
+    }
+
+    @State(Scope.Thread)
+    public static class ResultCacheMiss {
+
+        @Setup(Level.Invocation)
+        public void invalidate() {
+            PermissionHolderCache.getInstance().invalidateAllPermissionCache();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cold {
+
+        @Setup(Level.Invocation)
+        public void invalidate() throws Exception {
+            BenchmarkEnvironment.getInstance().getPermissionProvider().invalidateAllCompiledPermissions();
+            PermissionHolderCache.getInstance().invalidateAllPermissionCache();
+        }
+    }
+
+    @Benchmark
+    public Tristate hot() {
+        return this.getFinalPermission();
+    }
+
+    @Benchmark
+    public Tristate resultCacheMiss(ResultCacheMiss state) {
+        return this.getFinalPermission();
+    }
+
+    @Benchmark
+    public Tristate cold(Cold state) {
+        return this.getFinalPermission();
+    }
+
+    private Tristate getFinalPermission() {
+        return GDPermissionManager.getInstance().getFinalPermission(null, null, this.claim, FLAG_PERMISSION, "minecraft:player", "minecraft:stone",
+                GriefDefenderPlugin.DEFAULT_HOLDER, null, false);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.benchmark;
+
+import com.google.common.collect.ImmutableSet;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.ContextKeys;
+import com.griefdefender.provider.luckperms.CompiledPermissionTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PermissionTreeBenchmark {
+
+    @Param({"100", "10000"})
+    public int claimCount;
+
+    private CompiledPermissionTree tree;
+    private Set<Context> hitContexts;
+    private Set<Context> missContexts;
+
+    @Setup
+    public void setup() {
+        this.tree = new CompiledPermissionTree();
+        final Context source = new Context(ContextKeys.SOURCE, "minecraft:player");
+        Context lastClaim = null;
+        for (int i = 0; i < this.claimCount; i++) {
+            lastClaim = new Context(ContextKeys.CLAIM, UUID.randomUUID().toString());
+            this.tree.put(ImmutableSet.of(lastClaim), "griefdefender.flag.block-break", false);
+            this.tree.put(ImmutableSet.of(lastClaim, source), "griefdefender.flag.interact-block-secondary.minecraft.*", true);
+        }
+        this.tree.put(ImmutableSet.of(new Context(ContextKeys.CLAIM_DEFAULT, "basic")), "griefdefender.flag.block-place", true);
+        this.hitContexts = ImmutableSet.of(lastClaim, source, new Context(ContextKeys.CLAIM_DEFAULT, "basic"));
+        this.missContexts = ImmutableSet.of(new Context(ContextKeys.CLAIM, UUID.randomUUID().toString()), source);
+    }
+
+    @Benchmark
+    public Boolean exactHit() {
+        return this.tree.getValue("griefdefender.flag.block-break", this.hitContexts);
+    }
+
+    @Benchmark
+    public Boolean wildcardHit() {
+        return this.tree.getValue("griefdefender.flag.interact-block-secondary.minecraft.chest", this.hitContexts);
+    }
+
+    @Benchmark
+    public Boolean miss() {
+        return this.tree.getValue("griefdefender.flag.block-break", this.missContexts);
+    }
+}
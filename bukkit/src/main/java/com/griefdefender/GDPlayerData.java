@@ -55,17 +55,18 @@
 import com.griefdefender.cache.EventResultCache;
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ClaimSafeBox;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.configuration.GriefDefenderConfig;
 import com.griefdefender.configuration.MessageStorage;
 import com.griefdefender.configuration.PlayerStorageData;
 import com.griefdefender.internal.block.BlockSnapshot;
 import com.griefdefender.internal.block.BlockTransaction;
-import com.griefdefender.internal.util.NMSUtil;
 import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.permission.GDPermissionUser;
 import com.griefdefender.permission.GDPermissions;
 import com.griefdefender.provider.VaultProvider;
+import com.griefdefender.task.ClaimVisualTransport;
 import com.griefdefender.util.PermissionUtil;
 
 import net.kyori.text.Component;
@@ -88,6 +89,7 @@ public class GDPlayerData implements PlayerData {
     public GDClaim claimSubdividing;
 
     public List<BlockTransaction> visualBlocks = new ArrayList<>();
+    public final ClaimVisualTransport visualTransport = new ClaimVisualTransport();
     public UUID visualClaimId;
     public UUID petRecipientUniqueId;
     public BukkitTask visualRevertTask;
@@ -97,6 +99,7 @@ public class GDPlayerData implements PlayerData {
 
     public boolean debugClaimPermissions = false;
     public WeakReference<GDClaim> lastClaim = new WeakReference<>(null);
+    public ClaimSafeBox claimSafeBox;
 
     public boolean inTown = false;
     public boolean townChat = false;
@@ -151,6 +154,7 @@ public GDPlayerData(UUID worldUniqueId, UUID playerUniqueId, PlayerStorageData p
         this.worldUniqueId = worldUniqueId;
         this.playerID = playerUniqueId;
         this.playerStorage = playerStorage;
+        this.playerStorage.track(worldUniqueId, playerUniqueId);
         this.claimList = claims;
         this.refreshPlayerOptions();
     }
@@ -223,7 +227,12 @@ public void revertActiveVisual(Player player) {
             }
         }
         this.visualClaimId = null;
-        if (this.visualBlocks.isEmpty()|| !player.getWorld().equals(this.visualBlocks.get(0).getFinal().getLocation().getWorld())) {
+        if (this.visualBlocks.isEmpty()) {
+            return;
+        }
+        if (!player.getWorld().equals(this.visualBlocks.get(0).getFinal().getLocation().getWorld())) {
+            // Client no longer has the visual's chunks loaded
+            this.visualTransport.clear();
             return;
         }
 
@@ -234,9 +243,10 @@ public void revertActiveVisual(Player player) {
                 if (claim != null) {
                     claim.markVisualDirty = true;
                 }
+                this.visualTransport.forget(snapshot.getLocation());
                 continue;
             }
-            NMSUtil.getInstance().sendBlockChange(player, snapshot);
+            this.visualTransport.revert(player, snapshot);
         }
         this.visualBlocks.clear();
     }
@@ -686,6 +696,7 @@ public boolean inPvpCombat(World world) {
 
     public void onDisconnect() {
         this.visualBlocks.clear();
+        this.visualTransport.clear();
         this.claimMode = false;
         this.lastShovelLocation = null;
         this.eventResultCache = null;
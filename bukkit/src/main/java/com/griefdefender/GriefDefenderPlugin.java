@@ -42,7 +42,6 @@
 
 import com.griefdefender.provider.permissionsex.PermissionsExProvider;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.LocaleUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -72,8 +71,12 @@
 import com.griefdefender.api.permission.option.type.CreateModeType;
 import com.griefdefender.api.permission.option.type.GameModeType;
 import com.griefdefender.api.permission.option.type.WeatherType;
+import com.griefdefender.cache.BlacklistCache;
+import com.griefdefender.cache.BlacklistCache.IdMatcher;
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ChunkTrackingManager;
+import com.griefdefender.claim.ClaimExpiryQueue;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.claim.GDClaimManager;
 import com.griefdefender.command.CommandAdjustBonusClaimBlocks;
@@ -125,7 +128,9 @@
 import com.griefdefender.command.CommandClaimUnban;
 import com.griefdefender.command.CommandClaimWorldEdit;
 import com.griefdefender.command.CommandDebug;
+import com.griefdefender.command.CommandGDMetrics;
 import com.griefdefender.command.CommandGDReload;
+import com.griefdefender.command.CommandGDStorage;
 import com.griefdefender.command.CommandGDVersion;
 import com.griefdefender.command.CommandGiveBlocks;
 import com.griefdefender.command.CommandGivePet;
@@ -151,7 +156,6 @@
 import com.griefdefender.configuration.GriefDefenderConfig;
 import com.griefdefender.configuration.MessageDataConfig;
 import com.griefdefender.configuration.MessageStorage;
-import com.griefdefender.configuration.category.BlacklistCategory;
 import com.griefdefender.configuration.serializer.ClaimTypeSerializer;
 import com.griefdefender.configuration.serializer.ComponentConfigSerializer;
 import com.griefdefender.configuration.serializer.CreateModeTypeSerializer;
@@ -177,8 +181,12 @@
 import com.griefdefender.listener.BlockEventTracker;
 import com.griefdefender.listener.CommandEventHandler;
 import com.griefdefender.listener.EntityEventHandler;
+import com.griefdefender.listener.LuckPermsEventHandler;
 import com.griefdefender.listener.PlayerEventHandler;
 import com.griefdefender.listener.WorldEventHandler;
+import com.griefdefender.metrics.GDMetrics;
+import com.griefdefender.metrics.MetricsTiming;
+import com.griefdefender.metrics.PrometheusExporter;
 import com.griefdefender.permission.ContextGroupKeys;
 import com.griefdefender.permission.GDPermissionHolder;
 import com.griefdefender.permission.GDPermissionManager;
@@ -200,6 +208,8 @@
 import com.griefdefender.registry.TrustTypeRegistryModule;
 import com.griefdefender.registry.WeatherTypeRegistryModule;
 import com.griefdefender.storage.BaseStorage;
+import com.griefdefender.storage.ClaimSaveQueue;
+import com.griefdefender.storage.DatabaseStorage;
 import com.griefdefender.storage.FileStorage;
 import com.griefdefender.task.ClaimBlockTask;
 import com.griefdefender.task.ClaimCleanupTask;
@@ -287,7 +297,7 @@ public Path getConfigPath() {
     }
 
     public static void addEventLogEntry(Event event, Location location, String sourceId, String targetId, GDPermissionHolder permissionSubject, String permission, String trust, Tristate result) {
-        final String eventName = event.getClass().getSimpleName().replace('$', '.').replace(".Impl", "");
+        final String eventName = event == null ? "none" : event.getClass().getSimpleName().replace('$', '.').replace(".Impl", "");
         final String eventLocation = location == null ? "none" : VecHelper.toVector3i(location).toString();
         for (GDDebugData debugEntry : GriefDefenderPlugin.getInstance().getDebugUserMap().values()) {
             final CommandSender debugSource = debugEntry.getSource();
@@ -392,7 +402,9 @@ public void onEnable() {
         this.getLogger().info("GriefDefender boot start.");
         Plugin permissionPlugin = Bukkit.getPluginManager().getPlugin("LuckPerms");
         if (permissionPlugin != null) {
-            this.permissionProvider = new LuckPermsProvider();
+            final LuckPermsProvider luckPermsProvider = new LuckPermsProvider();
+            new LuckPermsEventHandler(luckPermsProvider);
+            this.permissionProvider = luckPermsProvider;
         } else {
             permissionPlugin = Bukkit.getPluginManager().getPlugin("PermissionsEx");
             if (permissionPlugin != null) {
@@ -424,6 +436,7 @@ public void onEnable() {
         this.loadConfig();
 
         this.executor = Executors.newFixedThreadPool(GriefDefenderPlugin.getGlobalConfig().getConfig().thread.numExecutorThreads);
+        ClaimSaveQueue.getInstance().start();
 
         if (Bukkit.getPluginManager().getPlugin("Vault") != null) {
             this.vaultProvider = new VaultProvider();
@@ -455,7 +468,11 @@ public void onEnable() {
         }
         if (this.dataStore == null) {
             try {
-                this.dataStore = new FileStorage();
+                if ("sqlite".equalsIgnoreCase(GriefDefenderPlugin.getGlobalConfig().getConfig().storage.type)) {
+                    this.dataStore = new DatabaseStorage();
+                } else {
+                    this.dataStore = new FileStorage();
+                }
                 this.dataStore.initialize();
             } catch (Exception e) {
                 this.getLogger().info("Unable to initialize file storage.");
@@ -554,6 +571,12 @@ public void onDisable() {
             claimWorldManager.save();
             claimWorldManager.playerIndexStorage.savePlayerDatData();
         }
+        ClaimSaveQueue.getInstance().shutdown();
+        ChunkTrackingManager.shutdown();
+        if (this.dataStore instanceof DatabaseStorage) {
+            ((DatabaseStorage) this.dataStore).close();
+        }
+        PrometheusExporter.getInstance().stopHttpServer();
     }
 
     public void registerBaseCommands() {
@@ -612,6 +635,8 @@ public void registerBaseCommands() {
         manager.registerCommand(new CommandContainerTrust());
         manager.registerCommand(new CommandDebug());
         manager.registerCommand(new CommandGDReload());
+        manager.registerCommand(new CommandGDMetrics());
+        manager.registerCommand(new CommandGDStorage());
         manager.registerCommand(new CommandGDVersion());
         manager.registerCommand(new CommandGiveBlocks());
         manager.registerCommand(new CommandGivePet());
@@ -844,7 +869,12 @@ public void loadConfig() {
             BaseStorage.globalConfig.save();
             BaseStorage.USE_GLOBAL_PLAYER_STORAGE = BaseStorage.globalConfig.getConfig().playerdata.useGlobalPlayerDataStorage;
             GDFlags.populateFlagStatus();
-            PermissionHolderCache.getInstance().getOrCreatePermissionCache(GriefDefenderPlugin.DEFAULT_HOLDER).invalidateAll();
+            PermissionHolderCache.getInstance().clearPermissionCache();
+            BlacklistCache.getInstance().clear();
+            GDPermissionManager.getInstance().rebuildBanIndex();
+            ClaimExpiryQueue.getInstance().requestRescan();
+            GDMetrics.setEnabled(BaseStorage.globalConfig.getConfig().metrics.enabled);
+            PrometheusExporter.getInstance().startHttpServer(BaseStorage.globalConfig.getConfig().metrics.httpPort);
             CLAIM_BLOCK_SYSTEM = BaseStorage.globalConfig.getConfig().playerdata.claimBlockSystem;
             final GDBlockType defaultCreateVisualBlock = BlockTypeRegistryModule.getInstance().getById("minecraft:diamond_block").orElse(null);
             this.createVisualBlock = BlockTypeRegistryModule.getInstance().getById(BaseStorage.globalConfig.getConfig().visual.claimCreateStartBlock).orElse(defaultCreateVisualBlock);
@@ -975,89 +1005,29 @@ public static GDPermissionUser getOrCreateUser(UUID uuid) {
     }
 
     public static boolean isSourceIdBlacklisted(String flag, Object source, UUID worldUniqueId) {
-        final List<String> flagList = GriefDefenderPlugin.getGlobalConfig().getConfig().blacklist.flagIdBlacklist.get(flag);
-        final boolean checkFlag = flagList != null && !flagList.isEmpty();
-        final boolean checkGlobal = !GriefDefenderPlugin.getGlobalConfig().getConfig().blacklist.globalSourceBlacklist.isEmpty();
-        if (!checkFlag && !checkGlobal) {
+        final IdMatcher matcher = BlacklistCache.getInstance().getSourceMatcher(flag, worldUniqueId);
+        if (matcher.isEmpty()) {
             return false;
         }
 
-        final GriefDefenderConfig<?> activeConfig = GriefDefenderPlugin.getActiveConfig(worldUniqueId);
         final String id = GDPermissionManager.getInstance().getPermissionIdentifier(source);
-        final String idNoMeta = GDPermissionManager.getInstance().getIdentifierWithoutMeta(id);
-
-        // Check global
-        if (checkGlobal) {
-            final BlacklistCategory blacklistCategory = activeConfig.getConfig().blacklist;
-            final List<String> globalSourceBlacklist = blacklistCategory.getGlobalSourceBlacklist();
-            if (globalSourceBlacklist == null) {
-                return false;
-            }
-            for (String str : globalSourceBlacklist) {
-                if (FilenameUtils.wildcardMatch(id, str)) {
-                    return true;
-                }
-                if (FilenameUtils.wildcardMatch(idNoMeta, str)) {
-                    return true;
-                }
-            }
-        }
-        // Check flag
-        if (checkFlag) {
-            for (String str : flagList) {
-                if (FilenameUtils.wildcardMatch(id, str)) {
-                    return true;
-                }
-                if (FilenameUtils.wildcardMatch(idNoMeta, str)) {
-                    return true;
-                }
-            }
+        if (matcher.matches(id)) {
+            return true;
         }
-
-        return false;
+        return matcher.matches(GDPermissionManager.getInstance().getIdentifierWithoutMeta(id));
     }
 
     public static boolean isTargetIdBlacklisted(String flag, Object target, UUID worldUniqueId) {
-        final List<String> flagList = GriefDefenderPlugin.getGlobalConfig().getConfig().blacklist.flagIdBlacklist.get(flag);
-        final boolean checkFlag = flagList != null && !flagList.isEmpty();
-        final boolean checkGlobal = !GriefDefenderPlugin.getGlobalConfig().getConfig().blacklist.globalTargetBlacklist.isEmpty();
-        if (!checkFlag && !checkGlobal) {
+        final IdMatcher matcher = BlacklistCache.getInstance().getTargetMatcher(flag, worldUniqueId);
+        if (matcher.isEmpty()) {
             return false;
         }
 
-        final GriefDefenderConfig<?> activeConfig = GriefDefenderPlugin.getActiveConfig(worldUniqueId);
         final String id = GDPermissionManager.getInstance().getPermissionIdentifier(target);
-        final String idNoMeta = GDPermissionManager.getInstance().getIdentifierWithoutMeta(id);
-
-        // Check global
-        if (checkGlobal) {
-            final BlacklistCategory blacklistCategory = activeConfig.getConfig().blacklist;
-            final List<String> globalTargetBlacklist = blacklistCategory.getGlobalTargetBlacklist();
-            if (globalTargetBlacklist == null) {
-                return false;
-            }
-            for (String str : globalTargetBlacklist) {
-                if (FilenameUtils.wildcardMatch(id, str)) {
-                    return true;
-                }
-                if (FilenameUtils.wildcardMatch(idNoMeta, str)) {
-                    return true;
-                }
-            }
-        }
-        // Check flag
-        if (checkFlag) {
-            for (String str : flagList) {
-                if (FilenameUtils.wildcardMatch(id, str)) {
-                    return true;
-                }
-                if (FilenameUtils.wildcardMatch(idNoMeta, str)) {
-                    return true;
-                }
-            }
+        if (matcher.matches(id)) {
+            return true;
         }
-
-        return false;
+        return matcher.matches(GDPermissionManager.getInstance().getIdentifierWithoutMeta(id));
     }
 
     public boolean isEconomyModeEnabled() {
@@ -1095,6 +1065,6 @@ public PermissionProvider getPermissionProvider() {
     }
 
     public static MCTiming timing(String name) {
-        return timingManager.of(name);
+        return new MetricsTiming(name, timingManager.of(name));
     }
 }
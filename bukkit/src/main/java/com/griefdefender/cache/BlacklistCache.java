@@ -0,0 +1,172 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.cache;
+
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.configuration.category.BlacklistCategory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Holds compiled blacklist matchers per world and flag.
+ *
+ * <p>Matchers are built from the blacklist config on first use and dropped
+ * on config reload.</p>
+ */
+public class BlacklistCache {
+
+    private static BlacklistCache instance;
+
+    private final Map<UUID, Map<String, IdMatcher>> sourceMatchers = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<String, IdMatcher>> targetMatchers = new ConcurrentHashMap<>();
+
+    public static BlacklistCache getInstance() {
+        return instance;
+    }
+
+    static {
+        instance = new BlacklistCache();
+    }
+
+    public IdMatcher getSourceMatcher(String flag, UUID worldUniqueId) {
+        return this.sourceMatchers.computeIfAbsent(worldUniqueId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(flag, k -> compile(flag, worldUniqueId, true));
+    }
+
+    public IdMatcher getTargetMatcher(String flag, UUID worldUniqueId) {
+        return this.targetMatchers.computeIfAbsent(worldUniqueId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(flag, k -> compile(flag, worldUniqueId, false));
+    }
+
+    public void clear() {
+        this.sourceMatchers.clear();
+        this.targetMatchers.clear();
+    }
+
+    private static IdMatcher compile(String flag, UUID worldUniqueId, boolean isSource) {
+        final BlacklistCategory globalBlacklist = GriefDefenderPlugin.getGlobalConfig().getConfig().blacklist;
+        final List<String> patterns = new ArrayList<>();
+        final List<String> flagList = globalBlacklist.flagIdBlacklist.get(flag);
+        if (flagList != null) {
+            patterns.addAll(flagList);
+        }
+
+        // Global lists are only used if enabled in global config
+        final List<String> globalList = isSource ? globalBlacklist.globalSourceBlacklist : globalBlacklist.globalTargetBlacklist;
+        if (!globalList.isEmpty()) {
+            final BlacklistCategory activeBlacklist = GriefDefenderPlugin.getActiveConfig(worldUniqueId).getConfig().blacklist;
+            final List<String> activeList = isSource ? activeBlacklist.getGlobalSourceBlacklist() : activeBlacklist.getGlobalTargetBlacklist();
+            if (activeList != null) {
+                patterns.addAll(activeList);
+            }
+        }
+        return new IdMatcher(patterns);
+    }
+
+    /**
+     * Matches ids against a list of exact ids and wildcard patterns.
+     * 
+     * <p>Exact ids are kept in a set and all wildcard patterns are combined into
+     * a single regex. Results are memoized per id.</p>
+     */
+    public static class IdMatcher {
+
+        // Bounds the memoized results in case ids are unbounded
+        private static final int MAX_RESULTS = 4096;
+
+        private final Set<String> exactIds = new HashSet<>();
+        private final Pattern wildcardPattern;
+        private final Map<String, Boolean> results = new ConcurrentHashMap<>();
+
+        IdMatcher(List<String> patterns) {
+            final StringBuilder builder = new StringBuilder();
+            for (String pattern : patterns) {
+                if (pattern == null || pattern.isEmpty()) {
+                    continue;
+                }
+                if (pattern.indexOf('*') == -1 && pattern.indexOf('?') == -1) {
+                    this.exactIds.add(pattern);
+                    continue;
+                }
+                if (builder.length() > 0) {
+                    builder.append('|');
+                }
+                builder.append("(?:").append(toRegex(pattern)).append(')');
+            }
+            this.wildcardPattern = builder.length() == 0 ? null : Pattern.compile(builder.toString());
+        }
+
+        public boolean isEmpty() {
+            return this.exactIds.isEmpty() && this.wildcardPattern == null;
+        }
+
+        public boolean matches(String id) {
+            if (id == null || this.isEmpty()) {
+                return false;
+            }
+
+            final Boolean result = this.results.get(id);
+            if (result != null) {
+                return result;
+            }
+
+            final boolean matches = this.exactIds.contains(id) || (this.wildcardPattern != null && this.wildcardPattern.matcher(id).matches());
+            if (this.results.size() >= MAX_RESULTS) {
+                this.results.clear();
+            }
+            this.results.put(id, matches);
+            return matches;
+        }
+
+        // Same semantics as FilenameUtils#wildcardMatch
+        private static String toRegex(String pattern) {
+            final StringBuilder regex = new StringBuilder();
+            final StringBuilder literal = new StringBuilder();
+            for (int i = 0; i < pattern.length(); i++) {
+                final char c = pattern.charAt(i);
+                if (c == '*' || c == '?') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(c == '*' ? ".*" : ".");
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            return regex.toString();
+        }
+    }
+}
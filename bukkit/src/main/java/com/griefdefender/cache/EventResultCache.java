@@ -32,6 +32,7 @@
 import com.griefdefender.api.permission.flag.Flag;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.internal.util.NMSUtil;
+import com.griefdefender.metrics.GDMetrics;
 
 public class EventResultCache {
 
@@ -52,6 +53,12 @@ public Tristate checkEventResultCache(GDClaim claim) {
     }
 
     public Tristate checkEventResultCache(GDClaim claim, String flag) {
+        final Tristate result = this.getCachedResult(claim, flag);
+        GDMetrics.recordCacheResult("event-result", result != Tristate.UNDEFINED);
+        return result;
+    }
+
+    private Tristate getCachedResult(GDClaim claim, String flag) {
         if (NMSUtil.getInstance().getRunningServerTicks() > this.lastTickCounter) {
             return Tristate.UNDEFINED;
         }
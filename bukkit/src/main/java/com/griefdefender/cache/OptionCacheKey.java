@@ -0,0 +1,87 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.cache;
+
+import com.google.common.collect.ImmutableSet;
+import com.griefdefender.api.claim.ClaimType;
+import com.griefdefender.api.permission.Context;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An immutable key for resolved option values of a single holder.
+ */
+public final class OptionCacheKey {
+
+    private final Class<?> valueType;
+    private final String option;
+    private final UUID claimUniqueId;
+    private final ClaimType claimType;
+    private final Set<Context> contexts;
+    private final int hashCode;
+
+    public OptionCacheKey(Class<?> valueType, String option, UUID claimUniqueId, ClaimType claimType, Set<Context> contexts) {
+        this.valueType = valueType;
+        this.option = option;
+        this.claimUniqueId = claimUniqueId;
+        this.claimType = claimType;
+        this.contexts = ImmutableSet.copyOf(contexts);
+        int result = valueType.hashCode();
+        result = 31 * result + option.hashCode();
+        result = 31 * result + (claimUniqueId == null ? 0 : claimUniqueId.hashCode());
+        result = 31 * result + (claimType == null ? 0 : claimType.hashCode());
+        result = 31 * result + this.contexts.hashCode();
+        this.hashCode = result;
+    }
+
+    public UUID getClaimUniqueId() {
+        return this.claimUniqueId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OptionCacheKey)) {
+            return false;
+        }
+
+        final OptionCacheKey that = (OptionCacheKey) o;
+        return this.hashCode == that.hashCode
+                && this.valueType == that.valueType
+                && this.option.equals(that.option)
+                && Objects.equals(this.claimUniqueId, that.claimUniqueId)
+                && Objects.equals(this.claimType, that.claimType)
+                && this.contexts.equals(that.contexts);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.cache;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.griefdefender.api.permission.Context;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * An immutable key for cached permission results of a single holder.
+ */
+public final class PermissionCacheKey {
+
+    private static final Interner<String> PERMISSION_INTERNER = Interners.newWeakInterner();
+
+    private final UUID claimUniqueId;
+    private final String permission;
+    private final Set<Context> contexts;
+    private final int hashCode;
+
+    public PermissionCacheKey(UUID claimUniqueId, String permission, Set<Context> contexts) {
+        this.claimUniqueId = claimUniqueId;
+        this.permission = PERMISSION_INTERNER.intern(permission);
+        this.contexts = ImmutableSet.copyOf(contexts);
+        int result = claimUniqueId == null ? 0 : claimUniqueId.hashCode();
+        result = 31 * result + this.permission.hashCode();
+        result = 31 * result + this.contexts.hashCode();
+        this.hashCode = result;
+    }
+
+    public UUID getClaimUniqueId() {
+        return this.claimUniqueId;
+    }
+
+    public String getPermission() {
+        return this.permission;
+    }
+
+    public Set<Context> getContexts() {
+        return this.contexts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermissionCacheKey)) {
+            return false;
+        }
+
+        final PermissionCacheKey that = (PermissionCacheKey) o;
+        if (this.hashCode != that.hashCode) {
+            return false;
+        }
+        // permissions are interned
+        if (this.permission != that.permission) {
+            return false;
+        }
+        if (this.claimUniqueId == null ? that.claimUniqueId != null : !this.claimUniqueId.equals(that.claimUniqueId)) {
+            return false;
+        }
+        return this.contexts.equals(that.contexts);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+}
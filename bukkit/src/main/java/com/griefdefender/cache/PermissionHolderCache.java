@@ -26,6 +26,7 @@
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.griefdefender.GriefDefenderPlugin;
 import com.griefdefender.api.Tristate;
 import com.griefdefender.permission.GDPermissionGroup;
@@ -44,10 +45,16 @@ public class PermissionHolderCache {
 
     private static PermissionHolderCache instance;
     private final Cache<UUID, GDPermissionUser> userCache = Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES)
+            .recordStats()
             .build();
     private final Cache<String, GDPermissionGroup> groupCache = Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES)
+            .recordStats()
             .build();
-    private final ConcurrentHashMap<GDPermissionHolder, Cache<Integer, Tristate>> permissionCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<GDPermissionHolder, Cache<PermissionCacheKey, Tristate>> permissionCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<GDPermissionHolder, Cache<OptionCacheKey, Object>> optionCache = new ConcurrentHashMap<>();
+    // stats of holder caches dropped on reload, kept so exported counters never go backwards
+    private CacheStats retiredPermissionStats = CacheStats.empty();
+    private CacheStats retiredOptionStats = CacheStats.empty();
 
     public GDPermissionUser getOrCreateUser(OfflinePlayer user) {
         if (user == null) {
@@ -124,21 +131,81 @@ public GDPermissionHolder getOrCreateHolder(String identifier) {
         return this.getOrCreateUser(uuid);
     }
 
-    public Cache<Integer, Tristate> getOrCreatePermissionCache(GDPermissionHolder holder) {
-        Cache<Integer, Tristate> cache = this.permissionCache.get(holder);
+    public Cache<PermissionCacheKey, Tristate> getOrCreatePermissionCache(GDPermissionHolder holder) {
+        Cache<PermissionCacheKey, Tristate> cache = this.permissionCache.get(holder);
         if (cache == null) {
-            cache = Caffeine.newBuilder().expireAfterAccess(10, TimeUnit.MINUTES).build();
+            cache = Caffeine.newBuilder()
+                    .maximumSize(GriefDefenderPlugin.getGlobalConfig().getConfig().cache.permissionCacheSize)
+                    .expireAfterAccess(10, TimeUnit.MINUTES)
+                    .recordStats()
+                    .build();
             this.permissionCache.put(holder, cache);
         }
         return cache;
     }
 
     public void invalidateAllPermissionCache() {
-        for (Cache<Integer, Tristate> cache : this.permissionCache.values()) {
+        for (Cache<PermissionCacheKey, Tristate> cache : this.permissionCache.values()) {
             cache.invalidateAll();
         }
     }
 
+    public Cache<OptionCacheKey, Object> getOrCreateOptionCache(GDPermissionHolder holder) {
+        Cache<OptionCacheKey, Object> cache = this.optionCache.get(holder);
+        if (cache == null) {
+            cache = Caffeine.newBuilder()
+                    .maximumSize(GriefDefenderPlugin.getGlobalConfig().getConfig().cache.optionCacheSize)
+                    .expireAfterAccess(10, TimeUnit.MINUTES)
+                    .recordStats()
+                    .build();
+            this.optionCache.put(holder, cache);
+        }
+        return cache;
+    }
+
+    public void invalidateAllOptionCache() {
+        for (Cache<OptionCacheKey, Object> cache : this.optionCache.values()) {
+            cache.invalidateAll();
+        }
+    }
+
+    // Drops only the option values resolved against a single claim
+    public void invalidateOptionCache(UUID claimUniqueId) {
+        for (Cache<OptionCacheKey, Object> cache : this.optionCache.values()) {
+            cache.asMap().keySet().removeIf(key -> claimUniqueId.equals(key.getClaimUniqueId()));
+        }
+    }
+
+    public CacheStats getHolderCacheStats() {
+        return this.userCache.stats().plus(this.groupCache.stats());
+    }
+
+    public synchronized CacheStats getPermissionCacheStats() {
+        CacheStats stats = this.retiredPermissionStats;
+        for (Cache<PermissionCacheKey, Tristate> cache : this.permissionCache.values()) {
+            stats = stats.plus(cache.stats());
+        }
+        return stats;
+    }
+
+    public synchronized CacheStats getOptionCacheStats() {
+        CacheStats stats = this.retiredOptionStats;
+        for (Cache<OptionCacheKey, Object> cache : this.optionCache.values()) {
+            stats = stats.plus(cache.stats());
+        }
+        return stats;
+    }
+
+    // Drops all holder caches so they are rebuilt with the current config
+    public synchronized void clearPermissionCache() {
+        this.retiredPermissionStats = this.getPermissionCacheStats();
+        this.retiredOptionStats = this.getOptionCacheStats();
+        this.invalidateAllPermissionCache();
+        this.invalidateAllOptionCache();
+        this.permissionCache.clear();
+        this.optionCache.clear();
+    }
+
     static {
         instance = new PermissionHolderCache();
     }
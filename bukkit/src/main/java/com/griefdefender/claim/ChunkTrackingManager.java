@@ -0,0 +1,253 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.claim;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.griefdefender.GDBootstrap;
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.internal.tracking.chunk.GDChunk;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Loads and saves block tracking data of a world's chunks off the main thread.
+ *
+ * <p>Tracking data is read on a dedicated I/O executor when a chunk loads.
+ * Updates made before the read completes are buffered and applied on the
+ * main thread on top of the stored data once it is read. Lookups made before
+ * then wait for the read, so they never see partial data. Saves on unload
+ * are chained after any read of the same chunk, and a chunk that reloads
+ * before its save finishes reads only after the save is done.</p>
+ */
+public class ChunkTrackingManager {
+
+    private static ExecutorService ioExecutor;
+    // Reads and saves of all worlds that have not finished yet
+    private static final Set<CompletableFuture<Void>> outstandingIo = ConcurrentHashMap.newKeySet();
+
+    private final Long2ObjectOpenHashMap<TrackedChunk> chunks = new Long2ObjectOpenHashMap<>(4096);
+    // Saves of unloaded chunks that have not finished yet
+    private final ConcurrentHashMap<Long, CompletableFuture<Void>> pendingSaves = new ConcurrentHashMap<>();
+
+    private static final class TrackedChunk {
+
+        private final GDChunk chunk;
+        private CompletableFuture<Void> io;
+        // Main thread only, null once loaded and merged
+        private List<Consumer<GDChunk>> buffered;
+
+        private TrackedChunk(GDChunk chunk) {
+            this.chunk = chunk;
+            this.io = CompletableFuture.completedFuture(null);
+        }
+
+        /**
+         * Waits for the read and merges updates made while it was in flight.
+         * Must be called on the main thread.
+         */
+        private void completeLoad() {
+            if (this.buffered == null) {
+                return;
+            }
+            this.io.join();
+            final List<Consumer<GDChunk>> updates = this.buffered;
+            this.buffered = null;
+            for (Consumer<GDChunk> update : updates) {
+                update.accept(this.chunk);
+            }
+        }
+    }
+
+    /**
+     * Starts reading the tracking data of a chunk that was just loaded.
+     *
+     * @param chunk The chunk
+     */
+    public void loadChunk(Chunk chunk) {
+        final long key = getChunkKey(chunk);
+        TrackedChunk tracked = this.chunks.get(key);
+        if (tracked != null) {
+            return;
+        }
+
+        tracked = new TrackedChunk(new GDChunk(chunk));
+        tracked.buffered = new ArrayList<>();
+        this.chunks.put(key, tracked);
+        final TrackedChunk loading = tracked;
+        final CompletableFuture<Void> previousSave = this.pendingSaves.getOrDefault(key, CompletableFuture.completedFuture(null));
+        tracked.io = track(previousSave.thenRunAsync(() -> {
+            try {
+                loading.chunk.loadChunkTrackingData();
+            } catch (Throwable t) {
+                GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to load tracking data for chunk " + chunk.getX() + ", " + chunk.getZ(), t);
+            }
+        }, getExecutor()));
+        tracked.io.thenRun(() -> {
+            // Buffered updates may reference world state so they are merged on the main thread
+            if (GDBootstrap.getInstance().isEnabled()) {
+                Bukkit.getServer().getScheduler().runTask(GDBootstrap.getInstance(), loading::completeLoad);
+            }
+        });
+    }
+
+    /**
+     * Gets the tracking data of a chunk, waiting for a pending read.
+     *
+     * @param chunk The chunk
+     * @return The chunk tracking data
+     */
+    public GDChunk getChunk(Chunk chunk) {
+        final TrackedChunk tracked = this.getOrCreate(chunk);
+        tracked.completeLoad();
+        return tracked.chunk;
+    }
+
+    /**
+     * Applies an update to the tracking data of a chunk. If the data is still
+     * being read the update is buffered and applied after the read.
+     *
+     * @param chunk The chunk
+     * @param update The update
+     */
+    public void updateChunk(Chunk chunk, Consumer<GDChunk> update) {
+        final TrackedChunk tracked = this.getOrCreate(chunk);
+        if (tracked.buffered != null) {
+            if (!tracked.io.isDone()) {
+                tracked.buffered.add(update);
+                return;
+            }
+            tracked.completeLoad();
+        }
+        update.accept(tracked.chunk);
+    }
+
+    /**
+     * Removes a chunk and saves its tracking data asynchronously.
+     *
+     * @param chunk The chunk
+     */
+    public void unloadChunk(Chunk chunk) {
+        final long key = getChunkKey(chunk);
+        final TrackedChunk tracked = this.chunks.remove(key);
+        if (tracked == null) {
+            return;
+        }
+
+        // Merge buffered updates here, the chunk is owned by the I/O thread once handed off
+        tracked.completeLoad();
+        final CompletableFuture<Void> save = track(tracked.io.thenRunAsync(() -> {
+            if (tracked.chunk.getTrackedShortPlayerPositions().size() > 0) {
+                tracked.chunk.saveChunkTrackingData();
+            }
+        }, getExecutor()));
+        this.pendingSaves.put(key, save);
+        save.whenComplete((result, t) -> {
+            if (t != null) {
+                GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to save tracking data for chunk " + chunk.getX() + ", " + chunk.getZ(), t);
+            }
+            this.pendingSaves.remove(key, save);
+        });
+    }
+
+    private TrackedChunk getOrCreate(Chunk chunk) {
+        final long key = getChunkKey(chunk);
+        TrackedChunk tracked = this.chunks.get(key);
+        if (tracked == null) {
+            // Chunk loaded before tracking started, there is no stored data to read
+            tracked = new TrackedChunk(new GDChunk(chunk));
+            this.chunks.put(key, tracked);
+        }
+        return tracked;
+    }
+
+    private static CompletableFuture<Void> track(CompletableFuture<Void> io) {
+        outstandingIo.add(io);
+        io.whenComplete((result, t) -> outstandingIo.remove(io));
+        return io;
+    }
+
+    private static long getChunkKey(Chunk chunk) {
+        return (long) chunk.getX() & 0xffffffffL | ((long) chunk.getZ() & 0xffffffffL) << 32;
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (ioExecutor == null) {
+            final int threads = Math.max(1, GriefDefenderPlugin.getGlobalConfig().getConfig().thread.chunkIoThreads);
+            ioExecutor = Executors.newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder().setNameFormat("GriefDefender Chunk I/O-%d").setDaemon(true).build());
+        }
+        return ioExecutor;
+    }
+
+    /**
+     * Waits for pending reads and saves to finish and stops the I/O executor.
+     */
+    public static synchronized void shutdown() {
+        if (ioExecutor == null) {
+            return;
+        }
+
+        // Saves are chained onto earlier reads and saves, so the executor must
+        // stay open until every chain has finished or the saves are rejected
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!outstandingIo.isEmpty() && System.currentTimeMillis() < deadline) {
+            final CompletableFuture<?>[] pending = outstandingIo.toArray(new CompletableFuture<?>[0]);
+            try {
+                CompletableFuture.allOf(pending).get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                // Failures are logged by each stage, keep waiting for the rest
+                for (CompletableFuture<?> io : pending) {
+                    if (io.isDone()) {
+                        outstandingIo.remove(io);
+                    }
+                }
+            }
+        }
+        ioExecutor.shutdown();
+        try {
+            ioExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ioExecutor = null;
+    }
+}
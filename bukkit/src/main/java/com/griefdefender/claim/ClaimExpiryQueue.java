@@ -0,0 +1,286 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.claim;
+
+import com.google.common.reflect.TypeToken;
+import com.griefdefender.GDPlayerData;
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.api.permission.option.Options;
+import com.griefdefender.configuration.GriefDefenderConfig;
+import com.griefdefender.permission.GDPermissionManager;
+import com.griefdefender.permission.GDPermissionUser;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders expirable claims by the instant they become eligible for cleanup.
+ *
+ * <p>Claims are recomputed lazily. Callers {@link #schedule(GDClaim)} a claim
+ * whenever something its expiry depends on changes, and the cleanup task
+ * drains those requests under its tick budget. Entries replaced by a newer
+ * computation are left in the heap and skipped when they reach the head.</p>
+ */
+public class ClaimExpiryQueue {
+
+    // Owner data is loaded lazily, so claims without it are checked again later
+    private static final Duration UNINITIALIZED_RECHECK = Duration.ofMinutes(5);
+
+    private static ClaimExpiryQueue instance;
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparing(entry -> entry.expiry));
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final ArrayDeque<GDClaim> pending = new ArrayDeque<>();
+    private final Set<UUID> pendingIds = new HashSet<>();
+    private final Set<UUID> rescanOwners = ConcurrentHashMap.newKeySet();
+    private volatile boolean rescanRequested = true;
+
+    private static final class Entry {
+
+        private final GDClaim claim;
+        private final Instant expiry;
+
+        private Entry(GDClaim claim, Instant expiry) {
+            this.claim = claim;
+            this.expiry = expiry;
+        }
+    }
+
+    public static ClaimExpiryQueue getInstance() {
+        return instance;
+    }
+
+    static {
+        instance = new ClaimExpiryQueue();
+    }
+
+    public synchronized void schedule(GDClaim claim) {
+        if (this.pendingIds.add(claim.getUniqueId())) {
+            this.pending.add(claim);
+        }
+    }
+
+    public synchronized void remove(GDClaim claim) {
+        this.entries.remove(claim.getUniqueId());
+    }
+
+    /**
+     * Requests that every loaded claim is recomputed on the next tick. Safe to
+     * call from any thread, such as permission plugin event handlers.
+     */
+    public void requestRescan() {
+        this.rescanRequested = true;
+    }
+
+    /**
+     * Requests that the claims owned by a player are recomputed on the next
+     * tick. Safe to call from any thread.
+     *
+     * @param ownerUniqueId The owner's UUID
+     */
+    public void requestRescan(UUID ownerUniqueId) {
+        this.rescanOwners.add(ownerUniqueId);
+    }
+
+    public synchronized int getPendingCount() {
+        return this.pending.size();
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Recomputes scheduled claims until the deadline passes. At least one
+     * claim is processed per call so a spent budget cannot stall the queue.
+     *
+     * @param deadline The {@link System#nanoTime()} deadline
+     * @return Whether all scheduled claims were processed
+     */
+    public synchronized boolean processPending(long deadline) {
+        if (this.rescanRequested) {
+            this.rescanRequested = false;
+            for (World world : Bukkit.getServer().getWorlds()) {
+                final GDClaimManager claimManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(world.getUID());
+                for (Claim claim : claimManager.getWorldClaims()) {
+                    this.schedule((GDClaim) claim);
+                }
+            }
+            this.rescanOwners.clear();
+        } else if (!this.rescanOwners.isEmpty()) {
+            final Iterator<UUID> iterator = this.rescanOwners.iterator();
+            while (iterator.hasNext()) {
+                final UUID ownerUniqueId = iterator.next();
+                iterator.remove();
+                for (World world : Bukkit.getServer().getWorlds()) {
+                    final GDClaimManager claimManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(world.getUID());
+                    for (Claim claim : claimManager.getInternalPlayerClaims(ownerUniqueId)) {
+                        this.schedule((GDClaim) claim);
+                    }
+                }
+            }
+        }
+
+        GDClaim claim;
+        while ((claim = this.pending.poll()) != null) {
+            this.pendingIds.remove(claim.getUniqueId());
+            this.update(claim, Instant.now());
+            if (System.nanoTime() > deadline) {
+                return this.pending.isEmpty();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the next claim whose expiry has passed. The head is
+     * recomputed first so owner activity since it was queued is honored.
+     *
+     * @param now The current instant
+     * @return The expired claim, or null if none are due
+     */
+    public synchronized @Nullable GDClaim pollExpired(Instant now) {
+        Entry head;
+        while ((head = this.queue.peek()) != null) {
+            if (this.entries.get(head.claim.getUniqueId()) != head) {
+                // Superseded or removed
+                this.queue.poll();
+                continue;
+            }
+            if (head.expiry.isAfter(now)) {
+                return null;
+            }
+
+            this.queue.poll();
+            this.entries.remove(head.claim.getUniqueId());
+            final Instant expiry = computeExpiry(head.claim, now);
+            if (expiry == null) {
+                continue;
+            }
+            if (expiry.isAfter(now)) {
+                this.put(head.claim, expiry);
+                continue;
+            }
+            return head.claim;
+        }
+        return null;
+    }
+
+    private void update(GDClaim claim, Instant now) {
+        final Instant expiry = computeExpiry(claim, now);
+        if (expiry == null) {
+            this.entries.remove(claim.getUniqueId());
+            return;
+        }
+        final Entry current = this.entries.get(claim.getUniqueId());
+        if (current == null || !current.expiry.equals(expiry)) {
+            this.put(claim, expiry);
+        }
+    }
+
+    private void put(GDClaim claim, Instant expiry) {
+        final Entry entry = new Entry(claim, expiry);
+        this.entries.put(claim.getUniqueId(), entry);
+        this.queue.add(entry);
+    }
+
+    /**
+     * Computes when a claim becomes eligible for cleanup.
+     *
+     * @param claim The claim
+     * @param now The current instant
+     * @return The expiry instant, or null if the claim never expires
+     */
+    public static @Nullable Instant computeExpiry(GDClaim claim, Instant now) {
+        if (claim.parent != null || claim.isWilderness() || claim.isAdminClaim() || !claim.getInternalClaimData().allowExpiration()) {
+            return null;
+        }
+        final World world = Bukkit.getServer().getWorld(claim.getWorldUniqueId());
+        if (world == null) {
+            return null;
+        }
+        final GDClaimManager claimManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(world.getUID());
+        if (!claimManager.getClaimByUUID(claim.getUniqueId()).isPresent()) {
+            return null;
+        }
+
+        final GDPlayerData playerData = claim.getOwnerPlayerData();
+        if (playerData == null) {
+            return null;
+        }
+        if (!playerData.dataInitialized) {
+            return now.plus(UNINITIALIZED_RECHECK);
+        }
+
+        final GriefDefenderConfig<?> activeConfig = GriefDefenderPlugin.getActiveConfig(world);
+        int areaOfDefaultClaim = 0;
+        if (activeConfig.getConfig().claim.autoChestClaimBlockRadius >= 0) {
+            areaOfDefaultClaim = (int) Math.pow(activeConfig.getConfig().claim.autoChestClaimBlockRadius * 2 + 1, 2);
+        }
+
+        final GDPermissionUser subject = playerData.getSubject();
+        final Instant claimLastActive = claim.getInternalClaimData().getDateLastActive();
+        final int claimExpirationChest = playerData.getChestClaimExpiration();
+        if (claim.getArea() <= areaOfDefaultClaim && claimExpirationChest > 0) {
+            return claimLastActive.plus(Duration.ofDays(claimExpirationChest));
+        }
+
+        if (!claim.isBasicClaim()) {
+            return null;
+        }
+        final int optionClaimExpirationBasic = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Integer.class), subject, Options.EXPIRATION, claim);
+        if (optionClaimExpirationBasic <= 0) {
+            return null;
+        }
+
+        Instant expiry = claimLastActive.plus(Duration.ofDays(optionClaimExpirationBasic));
+        if (activeConfig.getConfig().claim.bankTaxSystem && claim.getData().isExpired()) {
+            final Instant taxPastDueDate = claim.getEconomyData().getTaxPastDueDate().orElse(null);
+            if (taxPastDueDate != null) {
+                final int taxExpirationDays = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Integer.class), subject, Options.TAX_EXPIRATION, claim).intValue();
+                final int expireDaysToKeep = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Integer.class), subject, Options.TAX_EXPIRATION_DAYS_KEEP, claim).intValue();
+                final Instant taxExpiry = taxPastDueDate.plus(Duration.ofDays(taxExpirationDays + expireDaysToKeep));
+                if (taxExpiry.isBefore(expiry)) {
+                    expiry = taxExpiry;
+                }
+            }
+        }
+        return expiry;
+    }
+}
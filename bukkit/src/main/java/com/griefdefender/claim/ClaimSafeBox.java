@@ -0,0 +1,70 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.claim;
+
+import com.flowpowered.math.vector.Vector3i;
+
+/**
+ * A box of blocks that all resolve to the same claim.
+ *
+ * <p>Used to skip claim lookups for movement that stays within the box. A box
+ * is only valid while the claim index it was built from is unchanged.</p>
+ */
+public class ClaimSafeBox {
+
+    private final GDClaim claim;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+    private final int indexVersion;
+
+    ClaimSafeBox(GDClaim claim, int[] bounds, int indexVersion) {
+        this.claim = claim;
+        this.minX = bounds[0];
+        this.minY = bounds[1];
+        this.minZ = bounds[2];
+        this.maxX = bounds[3];
+        this.maxY = bounds[4];
+        this.maxZ = bounds[5];
+        this.indexVersion = indexVersion;
+    }
+
+    public GDClaim getClaim() {
+        return this.claim;
+    }
+
+    public boolean contains(Vector3i pos) {
+        return pos.getX() >= this.minX && pos.getX() <= this.maxX
+                && pos.getZ() >= this.minZ && pos.getZ() <= this.maxZ
+                && pos.getY() >= this.minY && pos.getY() <= this.maxY;
+    }
+
+    public boolean isValid(GDClaimManager claimManager) {
+        return this.claim.getWorldUniqueId().equals(claimManager.getWorldId()) && this.indexVersion == claimManager.getClaimIndexVersion();
+    }
+}
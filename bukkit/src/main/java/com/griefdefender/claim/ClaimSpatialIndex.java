@@ -0,0 +1,346 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.claim;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.internal.util.BlockUtil;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the innermost claim at a position without walking claim children.
+ *
+ * <p>For every chunk that contains at least one claim, a flattened node is built
+ * lazily from the top level claims in the chunk and all of their descendants.
+ * Each descendant's bounds are clipped to its parent so a single pass over the
+ * node, ordered from deepest to shallowest, yields the same result as the
+ * recursive child walk.</p>
+ */
+public class ClaimSpatialIndex {
+
+    private static final int BOUNDS_SIZE = 6;
+
+    private final Map<Long, Set<Claim>> chunksToClaimsMap;
+    private final Long2ObjectOpenHashMap<ChunkNode> chunkNodes = new Long2ObjectOpenHashMap<>(4096);
+    // Bumped on every invalidation so safe boxes built from older nodes can be discarded
+    private int version = 0;
+
+    public ClaimSpatialIndex(Map<Long, Set<Claim>> chunksToClaimsMap) {
+        this.chunksToClaimsMap = chunksToClaimsMap;
+    }
+
+    /**
+     * Gets the innermost claim containing the position.
+     *
+     * @param x The block x
+     * @param y The block y
+     * @param z The block z
+     * @return The claim, or null if no claim contains the position
+     */
+    public GDClaim getClaimAt(int x, int y, int z) {
+        final int chunkX = x >> 4;
+        final int chunkZ = z >> 4;
+        final long chunkKey = BlockUtil.getInstance().asLong(chunkX, chunkZ);
+        ChunkNode node = this.chunkNodes.get(chunkKey);
+        if (node == null) {
+            final Set<Claim> claimsInChunk = this.chunksToClaimsMap.get(chunkKey);
+            // Wilderness chunks are never cached to keep the index bounded by claimed chunks
+            if (claimsInChunk == null || claimsInChunk.isEmpty()) {
+                return null;
+            }
+            node = new ChunkNode(chunkX, chunkZ, claimsInChunk);
+            this.chunkNodes.put(chunkKey, node);
+        }
+
+        return node.find(x, y, z);
+    }
+
+    /**
+     * Builds the largest box around the position, within its chunk, that
+     * resolves to the same claim as the position.
+     *
+     * @param x The block x
+     * @param y The block y
+     * @param z The block z
+     * @param wilderness The wilderness claim to use if no claim contains the position
+     * @return The safe box, or null if one could not be built
+     */
+    public ClaimSafeBox getSafeBox(int x, int y, int z, GDClaim wilderness) {
+        final int chunkX = x >> 4;
+        final int chunkZ = z >> 4;
+        final int[] box = new int[] {chunkX << 4, Integer.MIN_VALUE, chunkZ << 4, (chunkX << 4) + 15, Integer.MAX_VALUE, (chunkZ << 4) + 15};
+        // Builds the chunk node if the chunk has claims
+        this.getClaimAt(x, y, z);
+        final ChunkNode node = this.chunkNodes.get(BlockUtil.getInstance().asLong(chunkX, chunkZ));
+        if (node == null) {
+            return new ClaimSafeBox(wilderness, box, this.version);
+        }
+
+        final GDClaim claim = node.shrinkToClaim(x, y, z, box);
+        if (box[0] > box[3]) {
+            return null;
+        }
+        return new ClaimSafeBox(claim == null ? wilderness : claim, box, this.version);
+    }
+
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Invalidates all nodes affected by a claim and its top level claim.
+     *
+     * @param claim The claim that changed
+     */
+    public void invalidate(GDClaim claim) {
+        if (claim.isWilderness()) {
+            return;
+        }
+
+        GDClaim topLevelClaim = claim;
+        while (topLevelClaim.parent != null) {
+            topLevelClaim = topLevelClaim.parent;
+        }
+        this.invalidate(claim.lesserBoundaryCorner, claim.greaterBoundaryCorner);
+        if (topLevelClaim != claim) {
+            this.invalidate(topLevelClaim.lesserBoundaryCorner, topLevelClaim.greaterBoundaryCorner);
+        }
+    }
+
+    /**
+     * Invalidates all nodes within the block area.
+     *
+     * @param lesserCorner The lesser corner
+     * @param greaterCorner The greater corner
+     */
+    public void invalidate(Vector3i lesserCorner, Vector3i greaterCorner) {
+        this.version++;
+        if (this.chunkNodes.isEmpty()) {
+            return;
+        }
+
+        final int minChunkX = lesserCorner.getX() >> 4;
+        final int minChunkZ = lesserCorner.getZ() >> 4;
+        final int maxChunkX = greaterCorner.getX() >> 4;
+        final int maxChunkZ = greaterCorner.getZ() >> 4;
+        final long area = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+        if (area > this.chunkNodes.size()) {
+            // Large claims cover more chunks than are cached so scan the cache instead
+            final ObjectIterator<Long2ObjectMap.Entry<ChunkNode>> iterator = this.chunkNodes.long2ObjectEntrySet().iterator();
+            while (iterator.hasNext()) {
+                final ChunkNode node = iterator.next().getValue();
+                if (node.chunkX >= minChunkX && node.chunkX <= maxChunkX && node.chunkZ >= minChunkZ && node.chunkZ <= maxChunkZ) {
+                    iterator.remove();
+                }
+            }
+            return;
+        }
+
+        for (int x = minChunkX; x <= maxChunkX; x++) {
+            for (int z = minChunkZ; z <= maxChunkZ; z++) {
+                this.chunkNodes.remove(BlockUtil.getInstance().asLong(x, z));
+            }
+        }
+    }
+
+    public void clear() {
+        this.version++;
+        this.chunkNodes.clear();
+    }
+
+    private static final class ChunkNode {
+
+        private final int chunkX;
+        private final int chunkZ;
+        // Ordered from deepest to shallowest claim
+        private final GDClaim[] claims;
+        // minX, minY, minZ, maxX, maxY, maxZ per claim
+        private final int[] bounds;
+
+        ChunkNode(int chunkX, int chunkZ, Set<Claim> topLevelClaims) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            final List<List<Entry>> levels = new ArrayList<>();
+            final int minX = chunkX << 4;
+            final int minZ = chunkZ << 4;
+            for (Claim claim : topLevelClaims) {
+                final GDClaim topLevelClaim = (GDClaim) claim;
+                collect(levels, 0, topLevelClaim, new int[] {
+                        Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE,
+                        Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE}, minX, minZ, minX + 15, minZ + 15);
+            }
+
+            int size = 0;
+            for (List<Entry> level : levels) {
+                size += level.size();
+            }
+            this.claims = new GDClaim[size];
+            this.bounds = new int[size * BOUNDS_SIZE];
+            int index = 0;
+            for (int depth = levels.size() - 1; depth >= 0; depth--) {
+                for (Entry entry : levels.get(depth)) {
+                    this.claims[index] = entry.claim;
+                    System.arraycopy(entry.bounds, 0, this.bounds, index * BOUNDS_SIZE, BOUNDS_SIZE);
+                    index++;
+                }
+            }
+        }
+
+        private static void collect(List<List<Entry>> levels, int depth, GDClaim claim, int[] parentBounds, int chunkMinX, int chunkMinZ, int chunkMaxX, int chunkMaxZ) {
+            // A claim is only reachable through its parent so clip it to the parent bounds
+            final int[] bounds = new int[] {
+                    Math.max(claim.lesserBoundaryCorner.getX(), parentBounds[0]),
+                    Math.max(claim.lesserBoundaryCorner.getY(), parentBounds[1]),
+                    Math.max(claim.lesserBoundaryCorner.getZ(), parentBounds[2]),
+                    Math.min(claim.greaterBoundaryCorner.getX(), parentBounds[3]),
+                    Math.min(claim.greaterBoundaryCorner.getY(), parentBounds[4]),
+                    Math.min(claim.greaterBoundaryCorner.getZ(), parentBounds[5])};
+            if (bounds[0] > bounds[3] || bounds[1] > bounds[4] || bounds[2] > bounds[5]) {
+                return;
+            }
+            if (bounds[0] > chunkMaxX || bounds[3] < chunkMinX || bounds[2] > chunkMaxZ || bounds[5] < chunkMinZ) {
+                return;
+            }
+
+            while (levels.size() <= depth) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(depth).add(new Entry(claim, bounds));
+            for (Claim child : claim.children) {
+                collect(levels, depth + 1, (GDClaim) child, bounds, chunkMinX, chunkMinZ, chunkMaxX, chunkMaxZ);
+            }
+        }
+
+        /**
+         * Shrinks the box so every position in it resolves to the same claim as the position.
+         * 
+         * <p>The box is clipped to the matching claim and cut around every claim
+         * checked before it. On failure the box is left empty.</p>
+         */
+        GDClaim shrinkToClaim(int x, int y, int z, int[] box) {
+            final int[] bounds = this.bounds;
+            final int found = this.indexOf(x, y, z);
+            final int end = found == -1 ? this.claims.length : found;
+            if (found != -1) {
+                final int offset = found * BOUNDS_SIZE;
+                for (int i = 0; i < 3; i++) {
+                    box[i] = Math.max(box[i], bounds[offset + i]);
+                    box[i + 3] = Math.min(box[i + 3], bounds[offset + i + 3]);
+                }
+            }
+
+            for (int i = 0, offset = 0; i < end; i++, offset += BOUNDS_SIZE) {
+                if (!intersects(box, bounds, offset)) {
+                    continue;
+                }
+                // Cut along the axis that keeps the most of the box
+                int bestAxis = -1;
+                boolean bestLower = false;
+                long bestVolume = -1;
+                for (int axis = 0; axis < 3; axis++) {
+                    final int pos = axis == 0 ? x : axis == 1 ? y : z;
+                    if (bounds[offset + axis + 3] < pos) {
+                        final long volume = volume(box, axis, bounds[offset + axis + 3] + 1, box[axis + 3]);
+                        if (volume > bestVolume) {
+                            bestVolume = volume;
+                            bestAxis = axis;
+                            bestLower = true;
+                        }
+                    }
+                    if (bounds[offset + axis] > pos) {
+                        final long volume = volume(box, axis, box[axis], bounds[offset + axis] - 1);
+                        if (volume > bestVolume) {
+                            bestVolume = volume;
+                            bestAxis = axis;
+                            bestLower = false;
+                        }
+                    }
+                }
+                if (bestAxis == -1) {
+                    box[0] = 1;
+                    box[3] = 0;
+                    return null;
+                }
+                if (bestLower) {
+                    box[bestAxis] = bounds[offset + bestAxis + 3] + 1;
+                } else {
+                    box[bestAxis + 3] = bounds[offset + bestAxis] - 1;
+                }
+            }
+            return found == -1 ? null : this.claims[found];
+        }
+
+        private static boolean intersects(int[] box, int[] bounds, int offset) {
+            return box[0] <= bounds[offset + 3] && box[3] >= bounds[offset]
+                    && box[1] <= bounds[offset + 4] && box[4] >= bounds[offset + 1]
+                    && box[2] <= bounds[offset + 5] && box[5] >= bounds[offset + 2];
+        }
+
+        private static long volume(int[] box, int axis, int min, int max) {
+            long volume = 1;
+            for (int i = 0; i < 3; i++) {
+                final long extent = i == axis ? (long) max - min + 1 : (long) box[i + 3] - box[i] + 1;
+                volume *= extent;
+            }
+            return volume;
+        }
+
+        private int indexOf(int x, int y, int z) {
+            final int[] bounds = this.bounds;
+            for (int i = 0, offset = 0; i < this.claims.length; i++, offset += BOUNDS_SIZE) {
+                if (x >= bounds[offset] && x <= bounds[offset + 3]
+                        && z >= bounds[offset + 2] && z <= bounds[offset + 5]
+                        && y >= bounds[offset + 1] && y <= bounds[offset + 4]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        GDClaim find(int x, int y, int z) {
+            final int index = this.indexOf(x, y, z);
+            return index == -1 ? null : this.claims[index];
+        }
+    }
+
+    private static final class Entry {
+
+        private final GDClaim claim;
+        private final int[] bounds;
+
+        Entry(GDClaim claim, int[] bounds) {
+            this.claim = claim;
+            this.bounds = bounds;
+        }
+    }
+}
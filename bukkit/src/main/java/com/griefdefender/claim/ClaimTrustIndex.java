@@ -0,0 +1,168 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.claim;
+
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.api.claim.TrustType;
+import com.griefdefender.api.claim.TrustTypes;
+import com.griefdefender.configuration.IClaimData;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves the highest trust a user or group holds in a claim without
+ * scanning the claim's trust lists.
+ *
+ * <p>Each index is rebuilt lazily from the claim data. Any change to trust
+ * lists, parents, inheritance or expiry bumps a shared generation through
+ * {@link #invalidateAll()}, since a change in one claim also affects the
+ * effective trust of every child that inherits from it.</p>
+ */
+public class ClaimTrustIndex {
+
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    private final GDClaim claim;
+    private volatile Snapshot snapshot;
+
+    private static final class Snapshot {
+
+        private final int generation;
+        private final Object2IntMap<UUID> userTrust;
+        private final Object2IntMap<String> groupTrust;
+        // Own user trust merged with every inherited parent
+        private final Object2IntMap<UUID> effectiveUserTrust;
+
+        private Snapshot(int generation, Object2IntMap<UUID> userTrust, Object2IntMap<String> groupTrust, Object2IntMap<UUID> effectiveUserTrust) {
+            this.generation = generation;
+            this.userTrust = userTrust;
+            this.groupTrust = groupTrust;
+            this.effectiveUserTrust = effectiveUserTrust;
+        }
+    }
+
+    public ClaimTrustIndex(GDClaim claim) {
+        this.claim = claim;
+    }
+
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Checks if the user, or the public, holds the trust type in this claim
+     * or any parent it inherits from.
+     *
+     * @param uuid The user unique id
+     * @param type The trust type
+     * @return Whether the trust type is held
+     */
+    public boolean isUserTrusted(UUID uuid, TrustType type) {
+        final int required = getTrustLevel(type);
+        if (required == 0) {
+            return false;
+        }
+        final Object2IntMap<UUID> trust = this.getSnapshot().effectiveUserTrust;
+        return trust.getInt(uuid) >= required || trust.getInt(GriefDefenderPlugin.PUBLIC_UUID) >= required;
+    }
+
+    public boolean isGroupTrusted(String group, TrustType type) {
+        final int required = getTrustLevel(type);
+        return required > 0 && this.getSnapshot().groupTrust.getInt(group) >= required;
+    }
+
+    private Snapshot getSnapshot() {
+        final int generation = GENERATION.get();
+        Snapshot snapshot = this.snapshot;
+        if (snapshot == null || snapshot.generation != generation) {
+            snapshot = this.build(generation);
+            this.snapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    private Snapshot build(int generation) {
+        final IClaimData data = this.claim.getInternalClaimData();
+        final Object2IntOpenHashMap<UUID> userTrust = new Object2IntOpenHashMap<>();
+        final Object2IntOpenHashMap<String> groupTrust = new Object2IntOpenHashMap<>();
+        if (data != null) {
+            putTrust(userTrust, data.getAccessors(), TrustTypes.ACCESSOR);
+            putTrust(userTrust, data.getContainers(), TrustTypes.CONTAINER);
+            putTrust(userTrust, data.getBuilders(), TrustTypes.BUILDER);
+            putTrust(userTrust, data.getManagers(), TrustTypes.MANAGER);
+            putTrust(groupTrust, data.getAccessorGroups(), TrustTypes.ACCESSOR);
+            putTrust(groupTrust, data.getContainerGroups(), TrustTypes.CONTAINER);
+            putTrust(groupTrust, data.getBuilderGroups(), TrustTypes.BUILDER);
+            putTrust(groupTrust, data.getManagerGroups(), TrustTypes.MANAGER);
+        }
+
+        Object2IntMap<UUID> effectiveUserTrust = userTrust;
+        final GDClaim parent = this.claim.parent;
+        // Expired parents grant no trust, same as GDClaim#isUserTrusted stopping at them
+        if (parent != null && data != null && data.doesInheritParent() && !parent.getInternalClaimData().isExpired()) {
+            final Object2IntMap<UUID> parentTrust = parent.getTrustIndex().getSnapshot().effectiveUserTrust;
+            if (!parentTrust.isEmpty()) {
+                final Object2IntOpenHashMap<UUID> merged = new Object2IntOpenHashMap<>(parentTrust);
+                for (Object2IntMap.Entry<UUID> entry : userTrust.object2IntEntrySet()) {
+                    if (entry.getIntValue() > merged.getInt(entry.getKey())) {
+                        merged.put(entry.getKey(), entry.getIntValue());
+                    }
+                }
+                effectiveUserTrust = merged;
+            }
+        }
+        return new Snapshot(generation, userTrust, groupTrust, effectiveUserTrust);
+    }
+
+    private static <T> void putTrust(Object2IntOpenHashMap<T> trust, List<T> entries, TrustType type) {
+        final int level = getTrustLevel(type);
+        for (T entry : entries) {
+            if (level > trust.getInt(entry)) {
+                trust.put(entry, level);
+            }
+        }
+    }
+
+    // Each trust type implies every type with a lower level
+    private static int getTrustLevel(TrustType type) {
+        if (type == TrustTypes.MANAGER) {
+            return 4;
+        }
+        if (type == TrustTypes.BUILDER) {
+            return 3;
+        }
+        if (type == TrustTypes.CONTAINER) {
+            return 2;
+        }
+        if (type == TrustTypes.ACCESSOR) {
+            return 1;
+        }
+        return 0;
+    }
+}
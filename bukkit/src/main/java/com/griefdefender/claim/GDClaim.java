@@ -78,6 +78,7 @@
 import com.griefdefender.provider.VaultProvider;
 import com.griefdefender.registry.TrustTypeRegistryModule;
 import com.griefdefender.storage.BaseStorage;
+import com.griefdefender.storage.DocumentStore;
 import com.griefdefender.util.EconomyUtil;
 import com.griefdefender.util.PermissionUtil;
 
@@ -121,6 +122,7 @@ public class GDClaim implements Claim {
     private final int hashCode;
     private final GDClaimManager worldClaimManager;
     private final Claim wildernessClaim;
+    private final ClaimTrustIndex trustIndex = new ClaimTrustIndex(this);
     private final VaultProvider vaultProvider = GriefDefenderPlugin.getInstance().getVaultProvider();
 
     // Permission Context
@@ -245,6 +247,11 @@ public void setType(ClaimType type) {
         if (this.claimData != null) {
             this.claimData.setType(type);
         }
+        ClaimExpiryQueue.getInstance().schedule(this);
+    }
+
+    public ClaimTrustIndex getTrustIndex() {
+        return this.trustIndex;
     }
 
     public ClaimVisual getVisualizer() {
@@ -918,6 +925,8 @@ public ClaimResult transferOwner(UUID newOwnerID, boolean checkEconomy, boolean
         }
 
         this.ownerPlayerData = newOwnerData;
+        this.worldClaimManager.updateOwnerIndex(this);
+        ClaimExpiryQueue.getInstance().schedule(this);
         this.getClaimStorage().save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
     }
@@ -1319,6 +1328,8 @@ public ClaimResult resize(int x1, int x2, int y1, int y2, int z1, int z2) {
                 claimsInChunk.add(this);
             }
         }
+        claimWorldManager.invalidateClaimIndex(currentLesserCorner, currentGreaterCorner);
+        claimWorldManager.invalidateClaimIndex(this);
 
         this.claimData.setLesserBoundaryCorner(BlockUtil.getInstance().posToString(this.lesserBoundaryCorner));
         this.claimData.setGreaterBoundaryCorner(BlockUtil.getInstance().posToString(this.greaterBoundaryCorner));
@@ -1447,6 +1458,8 @@ public ClaimResult resizeCuboid(Player player, int smallX, int smallY, int small
                 claimsInChunk.add(this);
             }
         }
+        claimWorldManager.invalidateClaimIndex(currentLesserCorner, currentGreaterCorner);
+        claimWorldManager.invalidateClaimIndex(this);
 
         this.claimData.setLesserBoundaryCorner(BlockUtil.getInstance().posToString(this.lesserBoundaryCorner));
         this.claimData.setGreaterBoundaryCorner(BlockUtil.getInstance().posToString(this.greaterBoundaryCorner));
@@ -1869,10 +1882,7 @@ public ClaimResult changeType(ClaimType type, Optional<UUID> ownerUniqueId, Comm
         final String fileName = this.getClaimStorage().filePath.getFileName().toString();
         final Path newPath = this.getClaimStorage().folderPath.getParent().resolve(type.getName().toLowerCase()).resolve(fileName);
         try {
-            if (Files.notExists(newPath.getParent())) {
-                Files.createDirectories(newPath.getParent());
-            }
-            Files.move(this.getClaimStorage().filePath, newPath);
+            DocumentStore.move(this.getClaimStorage().filePath, newPath);
             if (type == ClaimTypes.TOWN) {
                 this.setClaimStorage(new TownStorageData(newPath, this.getWorldUniqueId(), newOwnerUUID, this.cuboid));
             } else {
@@ -1920,6 +1930,8 @@ public ClaimResult changeType(ClaimType type, Optional<UUID> ownerUniqueId, Comm
             this.setOwnerUniqueId(newOwnerUUID);
         }
         this.setType(type);
+        claimWorldManager.updateOwnerIndex(this);
+        PermissionHolderCache.getInstance().invalidateOptionCache(this.getUniqueId());
         this.claimVisual = null;
         this.getInternalClaimData().setRequiresSave(true);
         this.getClaimStorage().save();
@@ -2070,46 +2082,11 @@ public boolean isUserTrusted(GDPermissionUser user, TrustType type, Set<Context>
         if (type == null) {
             return true;
         }
-        if (this.isPublicTrusted(type)) {
+        // Covers public trust and trust lists inherited from parents
+        if (this.trustIndex.isUserTrusted(user.getUniqueId(), type)) {
             return true;
         }
 
-        if (type == TrustTypes.ACCESSOR) {
-            if (this.claimData.getAccessors().contains(user.getUniqueId())) {
-                return true;
-            }
-            if (this.claimData.getBuilders().contains(user.getUniqueId())) {
-                return true;
-            }
-            if (this.claimData.getContainers().contains(user.getUniqueId())) {
-                return true;
-            }
-            if (this.claimData.getManagers().contains(user.getUniqueId())) {
-                return true;
-            }
-        } else if (type == TrustTypes.BUILDER) {
-            if (this.claimData.getBuilders().contains(user.getUniqueId())) {
-                return true;
-            }
-            if (this.claimData.getManagers().contains(user.getUniqueId())) {
-                return true;
-            }
-        } else if (type == TrustTypes.CONTAINER) {
-            if (this.claimData.getContainers().contains(user.getUniqueId())) {
-                return true;
-            }
-            if (this.claimData.getBuilders().contains(user.getUniqueId())) {
-                return true;
-            }
-            if (this.claimData.getManagers().contains(user.getUniqueId())) {
-                return true;
-            }
-        } else if (type == TrustTypes.MANAGER) {
-            if (this.claimData.getManagers().contains(user.getUniqueId())) {
-                return true;
-            }
-        }
-
         if (contexts == null) {
             contexts = new HashSet<>();
             contexts.add(this.getContext());
@@ -2127,46 +2104,6 @@ public boolean isUserTrusted(GDPermissionUser user, TrustType type, Set<Context>
         return false;
     }
 
-    private boolean isPublicTrusted(TrustType type) {
-        if (type == TrustTypes.ACCESSOR) {
-            if (this.claimData.getAccessors().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-            if (this.claimData.getBuilders().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-            if (this.claimData.getContainers().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-            if (this.claimData.getManagers().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-        } else if (type == TrustTypes.BUILDER) {
-            if (this.claimData.getBuilders().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-            if (this.claimData.getManagers().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-        } else if (type == TrustTypes.CONTAINER) {
-            if (this.claimData.getContainers().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-            if (this.claimData.getBuilders().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-            if (this.claimData.getManagers().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-        } else if (type == TrustTypes.MANAGER) {
-            if (this.claimData.getManagers().contains(GriefDefenderPlugin.PUBLIC_UUID)) {
-                return true;
-            }
-        }
-
-        return false;
-    }
-
     @Override
     public boolean isGroupTrusted(String name, TrustType type) {
         if (name == null) {
@@ -2176,6 +2113,9 @@ public boolean isGroupTrusted(String name, TrustType type) {
         if (!PermissionUtil.getInstance().hasGroupSubject(name)) {
             return false;
         }
+        if (this.trustIndex.isGroupTrusted(name, type)) {
+            return true;
+        }
 
         final GDPermissionHolder holder = PermissionHolderCache.getInstance().getOrCreateHolder(name);
         Set<Context> contexts = new HashSet<>();
@@ -2197,6 +2137,7 @@ public ClaimResult addUserTrust(UUID uuid, TrustType type) {
             userList.add(uuid);
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2217,6 +2158,7 @@ public ClaimResult addUserTrusts(List<UUID> uuids, TrustType type) {
             }
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2232,12 +2174,14 @@ public ClaimResult removeUserTrust(UUID uuid, TrustType type) {
 
         if (type == TrustTypes.NONE) {
             final ClaimResult result = this.removeAllTrustsFromUser(uuid);
+            ClaimTrustIndex.invalidateAll();
             this.claimData.setRequiresSave(true);
             this.claimData.save();
             return result;
         }
 
         this.getUserTrustList(type).remove(uuid);
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2256,6 +2200,7 @@ public ClaimResult removeUserTrusts(List<UUID> uuids, TrustType type) {
                 this.removeAllTrustsFromUser(uuid);
             }
 
+            ClaimTrustIndex.invalidateAll();
             this.claimData.setRequiresSave(true);
             this.claimData.save();
             return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2268,6 +2213,7 @@ public ClaimResult removeUserTrusts(List<UUID> uuids, TrustType type) {
             }
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2286,6 +2232,7 @@ public ClaimResult addGroupTrust(String group, TrustType type) {
             groupList.add(group);
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2306,6 +2253,7 @@ public ClaimResult addGroupTrusts(List<String> groups, TrustType type) {
             }
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2321,12 +2269,14 @@ public ClaimResult removeGroupTrust(String group, TrustType type) {
 
         if (type == TrustTypes.NONE) {
             final ClaimResult result = this.removeAllTrustsFromGroup(group);
+            ClaimTrustIndex.invalidateAll();
             this.claimData.setRequiresSave(true);
             this.claimData.save();
             return result;
         }
 
         this.getGroupTrustList(type).remove(group);
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2345,6 +2295,7 @@ public ClaimResult removeGroupTrusts(List<String> groups, TrustType type) {
                 this.removeAllTrustsFromGroup(group);
             }
 
+            ClaimTrustIndex.invalidateAll();
             this.claimData.setRequiresSave(true);
             this.claimData.save();
             return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2357,6 +2308,7 @@ public ClaimResult removeGroupTrusts(List<String> groups, TrustType type) {
             }
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2386,6 +2338,7 @@ public ClaimResult removeAllTrusts() {
             this.getGroupTrustList(type).clear();
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2404,6 +2357,7 @@ public ClaimResult removeAllUserTrusts() {
             this.getUserTrustList(type).clear();
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2422,6 +2376,7 @@ public ClaimResult removeAllGroupTrusts() {
             this.getGroupTrustList(type).clear();
         }
 
+        ClaimTrustIndex.invalidateAll();
         this.claimData.setRequiresSave(true);
         this.claimData.save();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
@@ -2432,6 +2387,7 @@ public ClaimResult removeAllTrustsFromUser(UUID userUniqueId) {
             this.getUserTrustList(type).remove(userUniqueId);
         }
 
+        ClaimTrustIndex.invalidateAll();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
     }
 
@@ -2440,6 +2396,7 @@ public ClaimResult removeAllTrustsFromGroup(String group) {
             this.getGroupTrustList(type).remove(group);
         }
 
+        ClaimTrustIndex.invalidateAll();
         return new GDClaimResult(this, ClaimResultType.SUCCESS);
     }
 
@@ -2964,11 +2921,8 @@ public void moveChildToParent(GDClaim parentClaim, GDClaim childClaim) {
         String fileName = childClaim.getClaimStorage().filePath.getFileName().toString();
         Path newPath = parentClaim.getClaimStorage().folderPath.resolve(childClaim.getType().getName().toLowerCase()).resolve(fileName);
         try {
-            if (Files.notExists(newPath.getParent())) {
-                Files.createDirectories(newPath.getParent());
-            }
-            Files.move(childClaim.getClaimStorage().filePath, newPath);
-            if (childClaim.getClaimStorage().folderPath.toFile().listFiles().length == 0) {
+            DocumentStore.move(childClaim.getClaimStorage().filePath, newPath);
+            if (DocumentStore.getDatabase() == null && childClaim.getClaimStorage().folderPath.toFile().listFiles().length == 0) {
                 Files.delete(childClaim.getClaimStorage().folderPath);
             }
             childClaim.setClaimStorage(new ClaimStorageData(newPath, this.getWorldUniqueId(), (ClaimDataConfig) childClaim.getInternalClaimData()));
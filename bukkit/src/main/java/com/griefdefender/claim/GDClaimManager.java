@@ -39,6 +39,7 @@
 import com.griefdefender.api.claim.ClaimResultType;
 import com.griefdefender.api.claim.ClaimTypes;
 import com.griefdefender.api.permission.option.Options;
+import com.griefdefender.cache.PermissionHolderCache;
 import com.griefdefender.configuration.ClaimDataConfig;
 import com.griefdefender.configuration.ClaimStorageData;
 import com.griefdefender.configuration.GriefDefenderConfig;
@@ -48,8 +49,10 @@
 import com.griefdefender.internal.tracking.chunk.GDChunk;
 import com.griefdefender.internal.util.BlockUtil;
 import com.griefdefender.internal.util.VecHelper;
+import com.griefdefender.metrics.GDMetrics;
 import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.storage.BaseStorage;
+import com.griefdefender.storage.DocumentStore;
 import com.griefdefender.util.Direction;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
@@ -69,12 +72,16 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class GDClaimManager implements ClaimManager {
 
@@ -88,11 +95,20 @@ public class GDClaimManager implements ClaimManager {
     private Set<Claim> worldClaims = new HashSet<>();
     // Claim UUID -> Claim
     private Map<UUID, Claim> claimUniqueIdMap = Maps.newHashMap();
+    // Owner UUID -> top level claims
+    private Map<UUID, Set<Claim>> ownerToClaimsMap = Maps.newHashMap();
+    // Claim UUID -> indexed owner UUID
+    private Map<UUID, UUID> claimToOwnerMap = Maps.newHashMap();
     // String -> Claim
     private Map<Long, Set<Claim>> chunksToClaimsMap = new Long2ObjectOpenHashMap<>(4096);
+    // Innermost claim lookups
+    private final ClaimSpatialIndex claimIndex = new ClaimSpatialIndex(this.chunksToClaimsMap);
     // Entity Index
     public PlayerIndexStorage playerIndexStorage;
-    private Map<Long, GDChunk> chunksToGpChunks = new Long2ObjectOpenHashMap<>(4096);
+    private final ChunkTrackingManager chunkTracking = new ChunkTrackingManager();
+    // Claims and players changed since the last save
+    private final Set<UUID> dirtyClaims = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
 
     private GDClaim theWildernessClaim;
 
@@ -119,7 +135,10 @@ private GDPlayerData createPlayerData(UUID playerUniqueId) {
             playerFilePath = BaseStorage.worldConfigMap.get(this.worldUniqueId).getPath().getParent().resolve("PlayerData").resolve(playerUniqueId.toString());
         }
 
-        PlayerStorageData playerStorage = new PlayerStorageData(playerFilePath);
+        PlayerStorageData playerStorage = DATASTORE.takePrefetchedPlayerStorage(playerFilePath);
+        if (playerStorage == null) {
+            playerStorage = new PlayerStorageData(playerFilePath);
+        }
         Set<Claim> claimList = this.createPlayerClaimList(playerUniqueId);
         GDPlayerData playerData = new GDPlayerData(this.worldUniqueId, playerUniqueId, playerStorage, this.activeConfig, claimList);
         this.getPlayerDataMap().put(playerUniqueId, playerData);
@@ -131,41 +150,54 @@ private Set<Claim> createPlayerClaimList(UUID playerUniqueId) {
         if (BaseStorage.USE_GLOBAL_PLAYER_STORAGE) {
             for (World world : Bukkit.getServer().getWorlds()) {
                 GDClaimManager claimmanager = DATASTORE.getClaimWorldManager(world.getUID());
-                for (Claim claim : claimmanager.worldClaims) {
-                    GDClaim gpClaim = (GDClaim) claim;
-                    if (gpClaim.isAdminClaim()) {
-                        continue;
-                    }
-                    if (gpClaim.parent != null) {
-                       if (gpClaim.parent.getOwnerUniqueId().equals(playerUniqueId)) {
-                           claimList.add(claim);
-                       }
-                    } else {
-                        if (gpClaim.getOwnerUniqueId().equals(playerUniqueId)) {
-                            claimList.add(claim);
-                        }
-                    }
-                }
+                claimList.addAll(claimmanager.getOwnerClaims(playerUniqueId));
             }
         } else {
-            for (Claim claim : this.worldClaims) {
-                GDClaim gpClaim = (GDClaim) claim;
-                if (gpClaim.isAdminClaim()) {
-                    continue;
-                }
-                if (gpClaim.parent != null) {
-                   if (gpClaim.parent.getOwnerUniqueId().equals(playerUniqueId)) {
-                       claimList.add(claim);
-                   }
-                } else {
-                    if (gpClaim.getOwnerUniqueId().equals(playerUniqueId)) {
-                        claimList.add(claim);
-                    }
+            claimList.addAll(this.getOwnerClaims(playerUniqueId));
+        }
+
+        return claimList;
+    }
+
+    /**
+     * Gets the top level non-admin claims in this world owned by a player.
+     *
+     * @param ownerUniqueId The owner UUID
+     * @return An unmodifiable view of the owned claims
+     */
+    public Set<Claim> getOwnerClaims(UUID ownerUniqueId) {
+        final Set<Claim> claims = this.ownerToClaimsMap.get(ownerUniqueId);
+        if (claims == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(claims);
+    }
+
+    // Must be called whenever a claim's owner, type, or top level state changes
+    public void updateOwnerIndex(GDClaim claim) {
+        final UUID previousOwner = this.claimToOwnerMap.remove(claim.getUniqueId());
+        if (previousOwner != null) {
+            final Set<Claim> claims = this.ownerToClaimsMap.get(previousOwner);
+            if (claims != null) {
+                claims.remove(claim);
+                if (claims.isEmpty()) {
+                    this.ownerToClaimsMap.remove(previousOwner);
                 }
             }
         }
 
-        return claimList;
+        if (claim.isAdminClaim() || claim.isWilderness() || !this.worldClaims.contains(claim)) {
+            return;
+        }
+
+        final UUID ownerUniqueId = claim.getOwnerUniqueId();
+        Set<Claim> claims = this.ownerToClaimsMap.get(ownerUniqueId);
+        if (claims == null) {
+            claims = new HashSet<>();
+            this.ownerToClaimsMap.put(ownerUniqueId, claims);
+        }
+        claims.add(claim);
+        this.claimToOwnerMap.put(claim.getUniqueId(), ownerUniqueId);
     }
 
     public void removePlayer(UUID playerUniqueId) {
@@ -204,6 +236,8 @@ public void addClaim(Claim claimToAdd, boolean writeToStorage) {
             DATASTORE.writeClaimToStorage(claim);
         }
 
+        this.claimIndex.invalidate(claim);
+        ClaimTrustIndex.invalidateAll();
         // We need to keep track of all claims so they can be referenced by children during server startup
         this.claimUniqueIdMap.put(claim.getUniqueId(), claim);
 
@@ -215,6 +249,7 @@ public void addClaim(Claim claimToAdd, boolean writeToStorage) {
         if (claim.parent != null) {
             claim.parent.children.add(claim);
             this.worldClaims.remove(claim);
+            this.updateOwnerIndex(claim);
             this.deleteChunkHashes((GDClaim) claim);
             if (!claim.isAdminClaim() && (!claim.isInTown() || !claim.getTownClaim().getOwnerUniqueId().equals(claim.getOwnerUniqueId()))) {
                 final GDPlayerData playerData = this.getPlayerDataMap().get(claim.getOwnerUniqueId());
@@ -229,6 +264,7 @@ public void addClaim(Claim claimToAdd, boolean writeToStorage) {
         if (!this.worldClaims.contains(claim)) {
             this.worldClaims.add(claim);
         }
+        this.updateOwnerIndex(claim);
         final UUID ownerId = claim.getOwnerUniqueId();
         final GDPlayerData playerData = this.getPlayerDataMap().get(ownerId);
         if (playerData != null) {
@@ -241,6 +277,7 @@ public void addClaim(Claim claimToAdd, boolean writeToStorage) {
         }
 
         this.updateChunkHashes(claim);
+        ClaimExpiryQueue.getInstance().schedule(claim);
         return;
     }
 
@@ -256,11 +293,48 @@ public void updateChunkHashes(GDClaim claim) {
 
             claimsInChunk.add(claim);
         }
+        this.claimIndex.invalidate(claim);
+    }
+
+    /**
+     * Invalidates cached claim lookups within an area.
+     * 
+     * Note: This must be called whenever claim bounds change outside
+     * of the claim manager.
+     *
+     * @param lesserCorner The lesser corner
+     * @param greaterCorner The greater corner
+     */
+    public void invalidateClaimIndex(Vector3i lesserCorner, Vector3i greaterCorner) {
+        this.claimIndex.invalidate(lesserCorner, greaterCorner);
+    }
+
+    public void invalidateClaimIndex(GDClaim claim) {
+        this.claimIndex.invalidate(claim);
+    }
+
+    public int getClaimIndexVersion() {
+        return this.claimIndex.getVersion();
+    }
+
+    /**
+     * Gets the box around a position where every block resolves to the same claim.
+     *
+     * @param pos The position
+     * @return The safe box, or null if none could be built
+     */
+    @Nullable
+    public ClaimSafeBox getClaimSafeBox(Vector3i pos) {
+        if (this.theWildernessClaim == null) {
+            return null;
+        }
+        return this.claimIndex.getSafeBox(pos.getX(), pos.getY(), pos.getZ(), this.theWildernessClaim);
     }
 
     // Used when parent claims becomes children
     public void removeClaimData(Claim claim) {
         this.worldClaims.remove(claim);
+        this.updateOwnerIndex((GDClaim) claim);
         this.deleteChunkHashes((GDClaim) claim);
     }
 
@@ -295,6 +369,9 @@ public ClaimResult deleteClaimInternal(Claim claim, boolean deleteChildren) {
         }
 
         resetPlayerClaimVisuals(claim);
+        this.claimIndex.invalidate(gpClaim);
+        ClaimExpiryQueue.getInstance().remove(gpClaim);
+        PermissionHolderCache.getInstance().invalidateOptionCache(claim.getUniqueId());
         // transfer bank balance to owner
         final UUID bankAccount = claim.getEconomyAccountId().orElse(null);
         if (bankAccount != null) {
@@ -310,6 +387,7 @@ public ClaimResult deleteClaimInternal(Claim claim, boolean deleteChildren) {
             economy.deleteBank(claim.getUniqueId().toString());
         }
         this.worldClaims.remove(claim);
+        this.updateOwnerIndex(gpClaim);
         this.claimUniqueIdMap.remove(claim.getUniqueId());
         this.deleteChunkHashes((GDClaim) claim);
         if (gpClaim.parent != null) {
@@ -337,11 +415,8 @@ private void migrateChildToNewParent(GDClaim parentClaim, GDClaim childClaim) {
         }
 
         try {
-            if (Files.notExists(newPath.getParent())) {
-                Files.createDirectories(newPath.getParent());
-            }
-            Files.move(childClaim.getClaimStorage().filePath, newPath);
-            if (childClaim.getClaimStorage().folderPath.toFile().listFiles().length == 0) {
+            DocumentStore.move(childClaim.getClaimStorage().filePath, newPath);
+            if (DocumentStore.getDatabase() == null && childClaim.getClaimStorage().folderPath.toFile().listFiles().length == 0) {
                 Files.delete(childClaim.getClaimStorage().folderPath);
             }
             childClaim.setClaimStorage(new ClaimStorageData(newPath, this.worldUniqueId, (ClaimDataConfig) childClaim.getInternalClaimData()));
@@ -386,6 +461,7 @@ private void resetPlayerClaimVisuals(Claim claim) {
     }
 
     private void deleteChunkHashes(GDClaim claim) {
+        this.claimIndex.invalidate(claim);
         Set<Long> chunkHashes = claim.getChunkHashes(false);
         if (chunkHashes == null) {
             return;
@@ -418,7 +494,7 @@ public Set<Claim> getPlayerClaims(UUID playerUniqueId) {
         if (playerData == null) {
             return ImmutableSet.of();
         }
-        return ImmutableSet.copyOf(this.getPlayerDataMap().get(playerUniqueId).getInternalClaims());
+        return ImmutableSet.copyOf(playerData.getInternalClaims());
     }
 
     public void createWildernessClaim(World world) {
@@ -480,15 +556,41 @@ public Map<Long, Set<Claim>> getInternalChunksToClaimsMap() {
         return this.chunksToClaimsMap;
     }
 
+    public void markClaimDirty(UUID claimUniqueId) {
+        this.dirtyClaims.add(claimUniqueId);
+    }
+
+    public void markPlayerDirty(UUID playerUniqueId) {
+        this.getDirtyPlayers().add(playerUniqueId);
+    }
+
+    private Set<UUID> getDirtyPlayers() {
+        if (BaseStorage.USE_GLOBAL_PLAYER_STORAGE) {
+            return BaseStorage.GLOBAL_DIRTY_PLAYERS;
+        }
+        return this.dirtyPlayers;
+    }
+
     public void save() {
-        for (Claim claim : this.worldClaims) {
-            GDClaim gpClaim = (GDClaim) claim;
-            gpClaim.save();
+        // Only claims and players changed since the last save are written
+        final Iterator<UUID> claimIterator = this.dirtyClaims.iterator();
+        while (claimIterator.hasNext()) {
+            final UUID claimUniqueId = claimIterator.next();
+            claimIterator.remove();
+            final GDClaim claim = (GDClaim) this.claimUniqueIdMap.get(claimUniqueId);
+            if (claim != null) {
+                claim.save();
+            }
         }
-        this.getWildernessClaim().save();
 
-        for (GDPlayerData playerData : this.getPlayerDataMap().values()) {
-            playerData.getStorageData().save();
+        final Iterator<UUID> playerIterator = this.getDirtyPlayers().iterator();
+        while (playerIterator.hasNext()) {
+            final UUID playerUniqueId = playerIterator.next();
+            playerIterator.remove();
+            final GDPlayerData playerData = this.getPlayerDataMap().get(playerUniqueId);
+            if (playerData != null) {
+                playerData.getStorageData().save();
+            }
         }
     }
 
@@ -496,7 +598,12 @@ public void unload() {
         this.playerDataList.clear();
         this.worldClaims.clear();
         this.claimUniqueIdMap.clear();
+        this.ownerToClaimsMap.clear();
+        this.claimToOwnerMap.clear();
         this.chunksToClaimsMap.clear();
+        this.claimIndex.clear();
+        this.dirtyClaims.clear();
+        this.dirtyPlayers.clear();
         if (this.theWildernessClaim != null) {
             this.theWildernessClaim.unload();
             this.theWildernessClaim = null;
@@ -522,27 +629,48 @@ public Claim getClaimAt(Vector3i pos) {
     }
 
     public Claim getClaimAt(Vector3i pos, GDClaim cachedClaim, GDPlayerData playerData, boolean useBorderBlockRadius) {
+        if (!GDMetrics.isEnabled()) {
+            return this.findClaimAt(pos, cachedClaim, playerData, useBorderBlockRadius);
+        }
+
+        final long start = System.nanoTime();
+        final Claim claim = this.findClaimAt(pos, cachedClaim, playerData, useBorderBlockRadius);
+        GDMetrics.recordClaimLookup(System.nanoTime() - start);
+        return claim;
+    }
+
+    private Claim findClaimAt(Vector3i pos, GDClaim cachedClaim, GDPlayerData playerData, boolean useBorderBlockRadius) {
         if (cachedClaim != null && !cachedClaim.isWilderness() && cachedClaim.contains(pos, true)) {
             return cachedClaim;
         }
 
-        Set<Claim> claimsInChunk = this.getInternalChunksToClaimsMap().get(BlockUtil.getInstance().asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        int borderBlockRadius = 0;
         if (useBorderBlockRadius && (playerData != null && !playerData.bypassBorderCheck)) {
-            final int borderBlockRadius = GriefDefenderPlugin.getActiveConfig(this.worldUniqueId).getConfig().claim.borderBlockRadius;
-            // if borderBlockRadius > 0, check surrounding chunks
-            if (borderBlockRadius > 0) {
-                for (Direction direction : BlockUtil.getInstance().ORDINAL_SET) {
-                    Vector3i currentPos = pos;
-                    for (int i = 0; i < borderBlockRadius; i++) { // Handle depth
-                        currentPos = BlockUtil.getInstance().getBlockRelative(currentPos, direction); 
-                        Set<Claim> relativeClaims = this.getInternalChunksToClaimsMap().get(BlockUtil.getInstance().asLong(currentPos.getX() >> 4, currentPos.getZ() >> 4));
-                        if (relativeClaims != null) {
-                            if (claimsInChunk == null) {
-                                claimsInChunk = new HashSet<>();
-                            }
-                            claimsInChunk.addAll(relativeClaims);
-                        }
+            borderBlockRadius = GriefDefenderPlugin.getActiveConfig(this.worldUniqueId).getConfig().claim.borderBlockRadius;
+        }
+        if (borderBlockRadius <= 0) {
+            final GDClaim claim = this.claimIndex.getClaimAt(pos.getX(), pos.getY(), pos.getZ());
+            if (claim == null) {
+                return this.getWildernessClaim();
+            }
+            return claim;
+        }
+
+        // Border radius depends on the trust of each claim so it cannot use the index
+        final Set<Claim> chunkClaims = this.getInternalChunksToClaimsMap().get(BlockUtil.getInstance().asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        // copy to avoid polluting the chunk claim set with surrounding chunks
+        Set<Claim> claimsInChunk = chunkClaims == null ? null : new HashSet<>(chunkClaims);
+        // check surrounding chunks
+        for (Direction direction : BlockUtil.getInstance().ORDINAL_SET) {
+            Vector3i currentPos = pos;
+            for (int i = 0; i < borderBlockRadius; i++) { // Handle depth
+                currentPos = BlockUtil.getInstance().getBlockRelative(currentPos, direction); 
+                Set<Claim> relativeClaims = this.getInternalChunksToClaimsMap().get(BlockUtil.getInstance().asLong(currentPos.getX() >> 4, currentPos.getZ() >> 4));
+                if (relativeClaims != null) {
+                    if (claimsInChunk == null) {
+                        claimsInChunk = new HashSet<>();
                     }
+                    claimsInChunk.addAll(relativeClaims);
                 }
             }
         }
@@ -660,19 +788,18 @@ public UUID getWorldId() {
     }
 
     public GDChunk getChunk(Chunk chunk) {
-        GDChunk gpChunk = this.chunksToGpChunks.get(getChunkKey(chunk));
-        if (gpChunk == null) {
-            gpChunk = new GDChunk(chunk);
-            this.chunksToGpChunks.put(getChunkKey(chunk), gpChunk);
-        }
-        return gpChunk;
+        return this.chunkTracking.getChunk(chunk);
+    }
+
+    public void updateChunk(Chunk chunk, Consumer<GDChunk> update) {
+        this.chunkTracking.updateChunk(chunk, update);
     }
 
-    public void removeChunk(Chunk chunk) {
-        this.chunksToGpChunks.remove(getChunkKey(chunk));
+    public void loadChunk(Chunk chunk) {
+        this.chunkTracking.loadChunk(chunk);
     }
 
-    private long getChunkKey(Chunk chunk) {
-        return (long) chunk.getX() & 0xffffffffL | ((long) chunk.getZ() & 0xffffffffL) << 32;
+    public void unloadChunk(Chunk chunk) {
+        this.chunkTracking.unloadChunk(chunk);
     }
 }
\ No newline at end of file
@@ -44,6 +44,7 @@
 import com.griefdefender.internal.registry.BlockTypeRegistryModule;
 import com.griefdefender.internal.registry.EntityTypeRegistryModule;
 import com.griefdefender.internal.registry.ItemTypeRegistryModule;
+import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.permission.GDPermissions;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -71,6 +72,7 @@ public void execute(Player player, String type, @Optional String id, @Optional S
                 component = LegacyComponentSerializer.legacy().deserialize(message, '&');
             }
             GriefDefenderPlugin.getGlobalConfig().getConfig().bans.addBlockBan(id, component);
+            GDPermissionManager.getInstance().rebuildBanIndex();
             GriefDefenderPlugin.getGlobalConfig().save();
             TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.COMMAND_CLAIMBAN_SUCCESS_BLOCK,
                     ImmutableMap.of("id", TextComponent.of(id, TextColor.LIGHT_PURPLE))));
@@ -86,6 +88,7 @@ public void execute(Player player, String type, @Optional String id, @Optional S
                 component = LegacyComponentSerializer.legacy().deserialize(message, '&');
             }
             GriefDefenderPlugin.getGlobalConfig().getConfig().bans.addEntityBan(id, component);
+            GDPermissionManager.getInstance().rebuildBanIndex();
             GriefDefenderPlugin.getGlobalConfig().save();
             TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.COMMAND_CLAIMBAN_SUCCESS_ENTITY,
                     ImmutableMap.of("id", TextComponent.of(id, TextColor.LIGHT_PURPLE))));
@@ -101,6 +104,7 @@ public void execute(Player player, String type, @Optional String id, @Optional S
                 component = LegacyComponentSerializer.legacy().deserialize(message, '&');
             }
             GriefDefenderPlugin.getGlobalConfig().getConfig().bans.addItemBan(id, component);
+            GDPermissionManager.getInstance().rebuildBanIndex();
             GriefDefenderPlugin.getGlobalConfig().save();
             TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.COMMAND_CLAIMBAN_SUCCESS_ITEM,
                     ImmutableMap.of("id", TextComponent.of(id, TextColor.LIGHT_PURPLE))));
@@ -113,6 +117,7 @@ public void execute(Player player, String type, @Optional String id, @Optional S
                 component = LegacyComponentSerializer.legacy().deserialize(message, '&');
             }
             GriefDefenderPlugin.getGlobalConfig().getConfig().bans.addItemBan(handItemId, component);
+            GDPermissionManager.getInstance().rebuildBanIndex();
             GriefDefenderPlugin.getGlobalConfig().save();
             TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.COMMAND_CLAIMBAN_SUCCESS_ITEM,
                     ImmutableMap.of("id", TextComponent.of(handItemId, TextColor.LIGHT_PURPLE))));
@@ -43,6 +43,7 @@
 import com.griefdefender.internal.registry.EntityTypeRegistryModule;
 import com.griefdefender.internal.registry.ItemTypeRegistryModule;
 import com.griefdefender.internal.util.NMSUtil;
+import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.permission.GDPermissions;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -64,6 +65,7 @@ public void execute(Player player, String type, @Optional String id) {
                 return;
             }
             GriefDefenderPlugin.getGlobalConfig().getConfig().bans.removeBlockBan(id);
+            GDPermissionManager.getInstance().rebuildBanIndex();
             GriefDefenderPlugin.getGlobalConfig().save();
             TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.COMMAND_CLAIMUNBAN_SUCCESS_BLOCK,
                     ImmutableMap.of("id", id)));
@@ -75,6 +77,7 @@ public void execute(Player player, String type, @Optional String id) {
             }
 
             GriefDefenderPlugin.getGlobalConfig().getConfig().bans.removeEntityBan(id);
+            GDPermissionManager.getInstance().rebuildBanIndex();
             GriefDefenderPlugin.getGlobalConfig().save();
             TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.COMMAND_CLAIMUNBAN_SUCCESS_ENTITY,
                     ImmutableMap.of("id", TextComponent.of(id, TextColor.LIGHT_PURPLE))));
@@ -86,6 +89,7 @@ public void execute(Player player, String type, @Optional String id) {
             }
 
             GriefDefenderPlugin.getGlobalConfig().getConfig().bans.removeItemBan(id);
+            GDPermissionManager.getInstance().rebuildBanIndex();
             GriefDefenderPlugin.getGlobalConfig().save();
             TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.COMMAND_CLAIMUNBAN_SUCCESS_ITEM,
                     ImmutableMap.of("id", TextComponent.of(id, TextColor.LIGHT_PURPLE))));
@@ -93,6 +97,7 @@ public void execute(Player player, String type, @Optional String id) {
             final ItemStack itemInHand = player.getItemInHand();
             final String handItemId = ItemTypeRegistryModule.getInstance().getNMSKey(itemInHand);
             GriefDefenderPlugin.getGlobalConfig().getConfig().bans.removeItemBan(handItemId);
+            GDPermissionManager.getInstance().rebuildBanIndex();
             GriefDefenderPlugin.getGlobalConfig().save();
             TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.COMMAND_CLAIMUNBAN_SUCCESS_ITEM,
                     ImmutableMap.of("id", TextComponent.of(handItemId, TextColor.LIGHT_PURPLE))));
@@ -0,0 +1,148 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.command;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import com.google.common.collect.ImmutableMap;
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.configuration.MessageStorage;
+import com.griefdefender.metrics.GDMetrics;
+import com.griefdefender.metrics.LatencyHistogram;
+import com.griefdefender.metrics.PrometheusExporter;
+import com.griefdefender.permission.GDPermissions;
+import net.kyori.text.Component;
+import net.kyori.text.TextComponent;
+import net.kyori.text.format.TextColor;
+import org.bukkit.command.CommandSender;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+@CommandAlias("%griefdefender")
+@CommandPermission(GDPermissions.COMMAND_METRICS)
+public class CommandGDMetrics extends BaseCommand {
+
+    private static final int TOP_ENTRIES = 5;
+
+    @CommandAlias("gdmetrics")
+    @Description("Displays a summary of GriefDefender's metrics.")
+    @Subcommand("metrics")
+    public void execute(CommandSender src) {
+        if (!GDMetrics.isEnabled()) {
+            GriefDefenderPlugin.sendMessage(src, GriefDefenderPlugin.getInstance().messageData.getMessage(MessageStorage.METRICS_DISABLED));
+            return;
+        }
+
+        final TextComponent.Builder builder = TextComponent.builder("")
+                .append(GriefDefenderPlugin.GD_TEXT)
+                .append("Metrics", TextColor.AQUA)
+                .append("\n")
+                .append(latencyLine("Claim lookups", GDMetrics.CLAIM_LOOKUP_LATENCY))
+                .append("\n")
+                .append(latencyLine("Permission checks", GDMetrics.PERMISSION_CHECK_LATENCY));
+
+        final List<Map.Entry<String, LongAdder>> flags = new ArrayList<>(GDMetrics.PERMISSION_CHECKS.getCounters().entrySet());
+        flags.sort((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()));
+        for (int i = 0; i < flags.size() && i < TOP_ENTRIES; i++) {
+            builder.append("\n  ")
+                    .append(flags.get(i).getKey(), TextColor.GRAY)
+                    .append(" : ")
+                    .append(String.valueOf(flags.get(i).getValue().sum()), TextColor.GREEN);
+        }
+
+        for (Map.Entry<String, long[]> entry : GDMetrics.getCacheResults().entrySet()) {
+            final long hits = entry.getValue()[0];
+            final long total = hits + entry.getValue()[1];
+            builder.append("\n")
+                    .append("Cache " + entry.getKey(), TextColor.YELLOW)
+                    .append(" : ")
+                    .append(total == 0 ? "-" : String.format("%.1f%%", hits * 100.0 / total), TextColor.GREEN)
+                    .append(" of " + total + " hits");
+        }
+
+        builder.append("\n")
+                .append("Storage saves", TextColor.YELLOW)
+                .append(" : ")
+                .append(String.valueOf(GDMetrics.STORAGE_SAVES.getTotal()), TextColor.GREEN);
+        for (Map.Entry<String, Long> entry : GDMetrics.getQueueDepths().entrySet()) {
+            builder.append("\n")
+                    .append("Queue " + entry.getKey(), TextColor.YELLOW)
+                    .append(" : ")
+                    .append(String.valueOf(entry.getValue()), TextColor.GREEN);
+        }
+
+        final List<Map.Entry<String, LatencyHistogram>> handlers = new ArrayList<>(GDMetrics.getEventLatencies().entrySet());
+        handlers.sort((a, b) -> Long.compare(b.getValue().getSumNanos(), a.getValue().getSumNanos()));
+        for (int i = 0; i < handlers.size() && i < TOP_ENTRIES; i++) {
+            builder.append("\n").append(latencyLine(handlers.get(i).getKey(), handlers.get(i).getValue()));
+        }
+        GriefDefenderPlugin.sendMessage(src, builder.build());
+    }
+
+    @Description("Writes GriefDefender's metrics to the configured export file in Prometheus text format.")
+    @Subcommand("metrics export")
+    public void export(CommandSender src) {
+        final Path path = GriefDefenderPlugin.getInstance().getConfigPath().resolve(GriefDefenderPlugin.getGlobalConfig().getConfig().metrics.exportFile);
+        try {
+            PrometheusExporter.getInstance().exportToFile(path);
+        } catch (IOException e) {
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to export metrics to " + path, e);
+            GriefDefenderPlugin.sendMessage(src, GriefDefenderPlugin.getInstance().messageData.getMessage(MessageStorage.METRICS_EXPORT_FAILED));
+            return;
+        }
+        final Component message = GriefDefenderPlugin.getInstance().messageData.getMessage(MessageStorage.METRICS_EXPORT_COMPLETE,
+                ImmutableMap.of("path", path));
+        GriefDefenderPlugin.sendMessage(src, message);
+    }
+
+    private static Component latencyLine(String name, LatencyHistogram histogram) {
+        final long p99 = histogram.getQuantileNanos(0.99);
+        return TextComponent.builder("")
+                .append(name, TextColor.YELLOW)
+                .append(" : ")
+                .append(String.valueOf(histogram.getCount()), TextColor.GREEN)
+                .append(" avg ")
+                .append(formatNanos(histogram.getMeanNanos()), TextColor.GREEN)
+                .append(" p99 ")
+                .append(p99 < 0 ? ">100ms" : "<=" + formatNanos(p99), TextColor.GREEN)
+                .build();
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1000000) {
+            return String.format("%.2fms", nanos / 1000000.0);
+        }
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+}
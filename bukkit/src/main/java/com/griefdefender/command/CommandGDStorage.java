@@ -0,0 +1,140 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.command;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Description;
+import co.aikar.commands.annotation.Subcommand;
+import com.google.common.collect.ImmutableMap;
+import com.griefdefender.GDBootstrap;
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.api.claim.Claim;
+import com.griefdefender.claim.GDClaim;
+import com.griefdefender.claim.GDClaimManager;
+import com.griefdefender.configuration.ClaimStorageData;
+import com.griefdefender.configuration.MessageStorage;
+import com.griefdefender.permission.GDPermissions;
+import com.griefdefender.storage.ClaimDocumentLoader;
+import net.kyori.text.Component;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.objectmapping.ObjectMappingException;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+@CommandAlias("%griefdefender")
+@CommandPermission(GDPermissions.COMMAND_STORAGE)
+public class CommandGDStorage extends BaseCommand {
+
+    @Description("Rewrites all claim data in the configured claim format.")
+    @Subcommand("storage convert")
+    public void convert(CommandSender src) {
+        int count = 0;
+        for (GDClaim claim : getLoadedClaims()) {
+            claim.getClaimStorage().save();
+            count++;
+        }
+        final Component message = GriefDefenderPlugin.getInstance().messageData.getMessage(MessageStorage.STORAGE_CONVERT_QUEUED,
+                ImmutableMap.of(
+                "amount", count,
+                "format", GriefDefenderPlugin.getGlobalConfig().getConfig().storage.claimFormat));
+        GriefDefenderPlugin.sendMessage(src, message);
+    }
+
+    @Description("Writes a HOCON copy of all claim data to the export folder.")
+    @Subcommand("storage export")
+    public void export(CommandSender src) {
+        final Path rootPath = GriefDefenderPlugin.getInstance().getConfigPath().toAbsolutePath().normalize();
+        final Path exportPath = rootPath.resolve("export");
+        // Snapshot on the main thread, the files are written off thread
+        final Map<Path, CommentedConfigurationNode> snapshots = new LinkedHashMap<>();
+        for (GDClaim claim : getLoadedClaims()) {
+            final ClaimStorageData claimStorage = claim.getClaimStorage();
+            final Path filePath = claimStorage.filePath.toAbsolutePath().normalize();
+            final Path relativePath = filePath.startsWith(rootPath) ? rootPath.relativize(filePath) : filePath.getFileName();
+            try {
+                snapshots.put(exportPath.resolve(relativePath.toString() + ".conf"), claimStorage.snapshot());
+            } catch (ObjectMappingException e) {
+                GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to export claim " + claim.getUniqueId(), e);
+            }
+        }
+
+        CompletableFuture.runAsync(() -> {
+            int failed = 0;
+            for (Map.Entry<Path, CommentedConfigurationNode> entry : snapshots.entrySet()) {
+                try {
+                    Files.createDirectories(entry.getKey().getParent());
+                    new ClaimDocumentLoader(entry.getKey()).saveHocon(entry.getValue());
+                } catch (IOException e) {
+                    GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to export " + entry.getKey(), e);
+                    failed++;
+                }
+            }
+            final int exported = snapshots.size() - failed;
+            Bukkit.getServer().getScheduler().runTask(GDBootstrap.getInstance(), () -> {
+                final Component message = GriefDefenderPlugin.getInstance().messageData.getMessage(MessageStorage.STORAGE_EXPORT_COMPLETE,
+                        ImmutableMap.of(
+                        "amount", exported,
+                        "path", exportPath));
+                GriefDefenderPlugin.sendMessage(src, message);
+            });
+        }, GriefDefenderPlugin.getInstance().executor);
+    }
+
+    private static List<GDClaim> getLoadedClaims() {
+        final List<GDClaim> claims = new ArrayList<>();
+        for (World world : Bukkit.getServer().getWorlds()) {
+            if (!GriefDefenderPlugin.getInstance().claimsEnabledForWorld(world.getUID())) {
+                continue;
+            }
+            final GDClaimManager claimWorldManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(world.getUID());
+            if (claimWorldManager == null) {
+                continue;
+            }
+            if (claimWorldManager.getWildernessClaim() != null) {
+                claims.add(claimWorldManager.getWildernessClaim());
+            }
+            for (Claim claim : claimWorldManager.getWorldClaims()) {
+                claims.add((GDClaim) claim);
+                for (Claim child : ((GDClaim) claim).getChildren(true)) {
+                    claims.add((GDClaim) child);
+                }
+            }
+        }
+        return claims;
+    }
+}
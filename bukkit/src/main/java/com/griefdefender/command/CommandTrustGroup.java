@@ -43,6 +43,7 @@
 import com.griefdefender.api.permission.Context;
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ClaimTrustIndex;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.configuration.MessageStorage;
 import com.griefdefender.event.GDCauseStackManager;
@@ -125,6 +126,7 @@ public void execute(Player player, String groupName, String type) {
         final List<String> groupTrustList = claim.getGroupTrustList(trustType);
         if (!groupTrustList.contains(group.getName())) {
             groupTrustList.add(group.getName());
+            ClaimTrustIndex.invalidateAll();
         } else {
             final Component message = MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.TRUST_ALREADY_HAS,
                 ImmutableMap.of(
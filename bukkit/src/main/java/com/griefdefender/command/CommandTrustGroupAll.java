@@ -41,6 +41,7 @@
 import com.griefdefender.api.claim.TrustType;
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ClaimTrustIndex;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.configuration.MessageStorage;
 import com.griefdefender.event.GDCauseStackManager;
@@ -121,6 +122,7 @@ private void addAllGroupTrust(Claim claim, GDPermissionGroup holder, TrustType t
         List<String> trustList = gdClaim.getGroupTrustList(trustType);
         if (!trustList.contains(holder.getFriendlyName())) {
             trustList.add(holder.getFriendlyName());
+            ClaimTrustIndex.invalidateAll();
         }
 
         gdClaim.getInternalClaimData().setRequiresSave(true);
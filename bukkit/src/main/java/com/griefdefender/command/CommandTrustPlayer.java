@@ -46,6 +46,7 @@
 import com.griefdefender.api.claim.TrustTypes;
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ClaimTrustIndex;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.event.GDCauseStackManager;
 import com.griefdefender.event.GDUserTrustClaimEvent;
@@ -158,6 +159,7 @@ public void execute(Player player, String target, @Optional String type) {
         }
 
         trustList.add(user.getUniqueId());
+        ClaimTrustIndex.invalidateAll();
         claim.getInternalClaimData().setRequiresSave(true);
         claim.getInternalClaimData().save();
 
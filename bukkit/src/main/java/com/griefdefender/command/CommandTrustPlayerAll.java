@@ -43,6 +43,7 @@
 import com.griefdefender.api.claim.TrustTypes;
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ClaimTrustIndex;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.configuration.MessageStorage;
 import com.griefdefender.event.GDCauseStackManager;
@@ -140,6 +141,7 @@ private void addAllUserTrust(Claim claim, GDPermissionUser user, TrustType trust
         List<UUID> trustList = gdClaim.getUserTrustList(trustType);
         if (!trustList.contains(user.getUniqueId())) {
             trustList.add(user.getUniqueId());
+            ClaimTrustIndex.invalidateAll();
         }
 
         gdClaim.getInternalClaimData().setRequiresSave(true);
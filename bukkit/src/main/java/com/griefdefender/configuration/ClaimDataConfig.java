@@ -29,6 +29,7 @@
 import com.griefdefender.api.claim.ClaimType;
 import com.griefdefender.api.claim.ClaimTypes;
 import com.griefdefender.api.data.EconomyData;
+import com.griefdefender.claim.ClaimTrustIndex;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.configuration.category.ConfigCategory;
 import com.griefdefender.internal.util.BlockUtil;
@@ -211,7 +212,7 @@ public Optional<Vector3i> getSpawnPos() {
         if (this.spawnPos == null && this.claimSpawn != null) {
             try {
                 this.spawnPos = BlockUtil.getInstance().posFromString(this.claimSpawn);
-                this.requiresSave = true;
+                this.markDirty();
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -280,13 +281,13 @@ public List<String> getManagerGroups() {
 
     @Override
     public void setDenyMessages(boolean flag) {
-        this.requiresSave = true;
+        this.markDirty();
         this.allowDenyMessages = flag;
     }
 
     @Override
     public void setExpiration(boolean flag) {
-        this.requiresSave = true;
+        this.markDirty();
         this.allowClaimExpiration = flag;
     }
 
@@ -302,82 +303,86 @@ public void setCuboid(boolean cuboid) {
 
     @Override
     public void setPvpOverride(Tristate pvp) {
-        this.requiresSave = true;
+        this.markDirty();
         this.pvpOverride = pvp;
     }
 
     @Override
     public void setResizable(boolean resizable) {
-        this.requiresSave = true;
+        this.markDirty();
         this.isResizable = resizable;
     }
 
     @Override
     public void setType(ClaimType type) {
-        this.requiresSave = true;
+        this.markDirty();
         this.claimType = type;
     }
 
     @Override
     public void setDateLastActive(Instant date) {
-        this.requiresSave = true;
+        this.markDirty();
         this.dateLastActive = date.toString();
     }
 
     @Override
     public void setName(Component name) {
-        this.requiresSave = true;
+        this.markDirty();
         this.claimName = name;
     }
 
     @Override
     public void setGreeting(Component message) {
-        this.requiresSave = true;
+        this.markDirty();
         this.claimGreetingMessage = message;
     }
 
     @Override
     public void setFarewell(Component message) {
-        this.requiresSave = true;
+        this.markDirty();
         this.claimFarewellMessage = message;
     }
 
     @Override
     public void setLesserBoundaryCorner(String location) {
-        this.requiresSave = true;
+        this.markDirty();
         this.lesserBoundaryCornerPos = location;
         this.lesserPos = null;
     }
 
     @Override
     public void setGreaterBoundaryCorner(String location) {
-        this.requiresSave = true;
+        this.markDirty();
         this.greaterBoundaryCornerPos = location;
         this.greaterPos = null;
     }
 
     @Override
     public void setAccessors(List<UUID> accessors) {
-        this.requiresSave = true;
+        this.markDirty();
         this.accessors = accessors;
+        ClaimTrustIndex.invalidateAll();
     }
 
     @Override
     public void setBuilders(List<UUID> builders) {
-        this.requiresSave = true;
+        this.markDirty();
         this.builders = builders;
+        ClaimTrustIndex.invalidateAll();
     }
 
     @Override
     public void setContainers(List<UUID> containers) {
-        this.requiresSave = true;
+        this.markDirty();
         this.containers = containers;
+        ClaimTrustIndex.invalidateAll();
     }
 
     @Override
     public void setManagers(List<UUID> coowners) {
-        this.requiresSave = true;
+        this.markDirty();
         this.managers = coowners;
+        ClaimTrustIndex.invalidateAll();
     }
 
     public boolean requiresSave() {
@@ -386,7 +391,18 @@ public boolean requiresSave() {
 
     @Override
     public void setRequiresSave(boolean flag) {
-        this.requiresSave = flag;
+        if (flag) {
+            this.markDirty();
+        } else {
+            this.requiresSave = false;
+        }
+    }
+
+    void markDirty() {
+        this.requiresSave = true;
+        if (this.claimStorage != null) {
+            this.claimStorage.markDirty();
+        }
     }
 
     @Override
@@ -402,19 +418,20 @@ public boolean doesInheritParent() {
 
     @Override
     public void setInheritParent(boolean flag) {
-        this.requiresSave = true;
+        this.markDirty();
         this.inheritParent = flag;
+        ClaimTrustIndex.invalidateAll();
     }
 
     @Override
     public void setOwnerUniqueId(UUID newClaimOwner) {
-        this.requiresSave = true;
+        this.markDirty();
         this.ownerUniqueId = newClaimOwner;
     }
 
     @Override
     public void setWorldUniqueId(UUID uuid) {
-        this.requiresSave = true;
+        this.markDirty();
         this.worldUniqueId = uuid;
     }
 
@@ -433,7 +450,7 @@ public void setSpawnPos(Vector3i spawnPos) {
             return;
         }
 
-        this.requiresSave = true;
+        this.markDirty();
         this.spawnPos = spawnPos;
         this.claimSpawn = BlockUtil.getInstance().posToString(spawnPos);
     }
@@ -445,14 +462,15 @@ public boolean requiresClaimBlocks() {
 
     @Override
     public void setRequiresClaimBlocks(boolean requiresClaimBlocks) {
-        this.requiresSave = true;
+        this.markDirty();
         this.requiresClaimBlocks = requiresClaimBlocks;
     }
 
     @Override
     public void setParent(UUID uuid) {
-        this.requiresSave = true;
+        this.markDirty();
         this.parent = uuid;
+        ClaimTrustIndex.invalidateAll();
     }
 
     @Override
@@ -466,10 +484,14 @@ public boolean isExpired() {
 
     public void setExpired(boolean expire) {
         this.isExpired = expire;
+        ClaimTrustIndex.invalidateAll();
     }
 
     @Override
     public EconomyData getEconomyData() {
+        if (this.economyData.claimData != this) {
+            this.economyData.claimData = this;
+        }
         return this.economyData;
     }
 }
\ No newline at end of file
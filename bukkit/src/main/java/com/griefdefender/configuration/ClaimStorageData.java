@@ -28,28 +28,30 @@
 import com.griefdefender.GriefDefenderPlugin;
 import com.griefdefender.api.claim.ClaimType;
 import com.griefdefender.api.claim.ClaimTypes;
+import com.griefdefender.storage.BaseStorage;
+import com.griefdefender.storage.ClaimSaveQueue;
+import com.griefdefender.storage.DocumentStore;
 import ninja.leaping.configurate.ConfigurationOptions;
 import ninja.leaping.configurate.commented.CommentedConfigurationNode;
 import ninja.leaping.configurate.commented.SimpleCommentedConfigurationNode;
-import ninja.leaping.configurate.hocon.HoconConfigurationLoader;
+import ninja.leaping.configurate.loader.ConfigurationLoader;
 import ninja.leaping.configurate.objectmapping.ObjectMapper;
 import ninja.leaping.configurate.objectmapping.ObjectMappingException;
 import ninja.leaping.configurate.objectmapping.serialize.TypeSerializers;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.UUID;
 import java.util.logging.Level;
 
 public class ClaimStorageData {
 
-    protected HoconConfigurationLoader loader;
+    protected ConfigurationLoader<CommentedConfigurationNode> loader;
     private CommentedConfigurationNode root = SimpleCommentedConfigurationNode.root(ConfigurationOptions.defaults());
     protected ObjectMapper<ClaimDataConfig>.BoundInstance configMapper;
     protected ClaimDataConfig configBase;
     public Path filePath;
     public Path folderPath;
+    private final UUID worldUniqueId;
 
     // MAIN
     public static final String MAIN_WORLD_UUID = "world-uuid";
@@ -93,15 +95,11 @@ public class ClaimStorageData {
     public ClaimStorageData(Path path, UUID worldUniqueId, UUID ownerUniqueId, ClaimType type, boolean cuboid) {
         this.filePath = path;
         this.folderPath = path.getParent();
+        this.worldUniqueId = worldUniqueId;
         try {
-            if (Files.notExists(path.getParent())) {
-                Files.createDirectories(path.getParent());
-            }
-            if (Files.notExists(path)) {
-                Files.createFile(path);
-            }
+            DocumentStore.ensureExists(path);
 
-            this.loader = HoconConfigurationLoader.builder().setPath(path).build();
+            this.loader = DocumentStore.createClaimLoader(path);
             if (type == ClaimTypes.TOWN) {
                 this.configMapper = (ObjectMapper.BoundInstance) ObjectMapper.forClass(TownDataConfig.class).bindToNew();
             } else {
@@ -123,15 +121,11 @@ public ClaimStorageData(Path path, UUID worldUniqueId, UUID ownerUniqueId, Claim
     public ClaimStorageData(Path path, UUID worldUniqueId, ClaimDataConfig claimData) {
         this.filePath = path;
         this.folderPath = path.getParent();
+        this.worldUniqueId = worldUniqueId;
         try {
-            if (Files.notExists(path.getParent())) {
-                Files.createDirectories(path.getParent());
-            }
-            if (Files.notExists(path)) {
-                Files.createFile(path);
-            }
+            DocumentStore.ensureExists(path);
 
-            this.loader = HoconConfigurationLoader.builder().setPath(path).build();
+            this.loader = DocumentStore.createClaimLoader(path);
             this.configMapper = (ObjectMapper.BoundInstance) ObjectMapper.forClass(ClaimDataConfig.class).bind(claimData);
             this.configMapper.getInstance().setClaimStorageData(this);
             reload();
@@ -146,15 +140,11 @@ public ClaimStorageData(Path path, UUID worldUniqueId, ClaimDataConfig claimData
     public ClaimStorageData(Path path, UUID worldUniqueId) {
         this.filePath = path;
         this.folderPath = path.getParent();
+        this.worldUniqueId = worldUniqueId;
         try {
-            if (Files.notExists(path.getParent())) {
-                Files.createDirectories(path.getParent());
-            }
-            if (Files.notExists(path)) {
-                Files.createFile(path);
-            }
+            DocumentStore.ensureExists(path);
 
-            this.loader = HoconConfigurationLoader.builder().setPath(path).build();
+            this.loader = DocumentStore.createClaimLoader(path);
             if (path.getParent().endsWith("town")) {
                 this.configMapper = (ObjectMapper.BoundInstance) ObjectMapper.forClass(TownDataConfig.class).bindToNew();
             } else {
@@ -189,14 +179,37 @@ public ClaimDataConfig getConfig() {
 
     public void save() {
         try {
-            this.configMapper.serialize(this.root.getNode(GriefDefenderPlugin.MOD_ID));
-            this.loader.save(this.root);
+            // Snapshot on the calling thread, the file is written by the save queue
+            ClaimSaveQueue.getInstance().enqueue(this.filePath, this.snapshot());
             this.configBase.setRequiresSave(false);
-        } catch (IOException | ObjectMappingException e) {
+        } catch (ObjectMappingException e) {
             GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to save configuration", e);
         }
     }
 
+    void markDirty() {
+        final BaseStorage dataStore = GriefDefenderPlugin.getInstance().dataStore;
+        if (dataStore == null) {
+            return;
+        }
+        try {
+            // The file name is the claim ID
+            dataStore.markClaimDirty(this.worldUniqueId, UUID.fromString(this.filePath.getFileName().toString()));
+        } catch (IllegalArgumentException e) {
+            // not a claim file
+        }
+    }
+
+    /**
+     * Serializes the claim data and returns a detached copy of the document.
+     *
+     * @return The document
+     */
+    public CommentedConfigurationNode snapshot() throws ObjectMappingException {
+        this.configMapper.serialize(this.root.getNode(GriefDefenderPlugin.MOD_ID));
+        return this.root.copy();
+    }
+
     public void reload() {
         try {
             this.root = this.loader.load(ConfigurationOptions.defaults());
@@ -41,6 +41,7 @@
 public class EconomyDataConfig extends ConfigCategory implements EconomyData {
 
     public GriefDefenderConfig<?> activeConfig;
+    ClaimDataConfig claimData;
 
     @Setting(value = ClaimStorageData.MAIN_CLAIM_FOR_SALE)
     private boolean forSale = false;
@@ -66,6 +67,7 @@ public double getSalePrice() {
     @Override
     public void setForSale(boolean forSale) {
         this.forSale = forSale;
+        this.markDirty();
     }
 
     @Override
@@ -76,6 +78,7 @@ public double getTaxBalance() {
     @Override
     public void setTaxBalance(double balance) {
         this.taxBalance = balance;
+        this.markDirty();
     }
 
     @Override
@@ -93,11 +96,13 @@ public Optional<Instant> getTaxPastDueDate() {
     @Override
     public void setTaxPastDueDate(Instant date) {
         this.taxPastDueDate = date == null ? null : date.toString();
+        this.markDirty();
     }
 
     @Override
     public void setSalePrice(double price) {
         this.salePrice = price;
+        this.markDirty();
     }
 
     @Override
@@ -111,10 +116,18 @@ public void addBankTransaction(BankTransaction transaction) {
             this.getBankTransactionLog().remove(0);
         }
         this.getBankTransactionLog().add(new Gson().toJson(transaction));
+        this.markDirty();
     }
 
     @Override
     public void clearBankTransactionLog() {
         this.bankTransactionLog.clear();
+        this.markDirty();
+    }
+
+    private void markDirty() {
+        if (this.claimData != null) {
+            this.claimData.markDirty();
+        }
     }
 }
@@ -26,13 +26,13 @@
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.collect.ImmutableMap;
 import com.griefdefender.configuration.category.ConfigCategory;
 
 import net.kyori.text.Component;
 import net.kyori.text.TextComponent;
-import net.kyori.text.serializer.legacy.LegacyComponentSerializer;
 import ninja.leaping.configurate.objectmapping.Setting;
 import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
 
@@ -45,6 +45,9 @@ public class MessageDataConfig extends ConfigCategory {
     @Setting("messages")
     public Map<String, String> messageMap = new HashMap<>();
 
+    // Compiled on first use, recompiled if the raw message changes
+    private final Map<String, MessageTemplate> messageTemplates = new ConcurrentHashMap<>();
+
     public Component getMessage(String message) {
         return this.getMessage(message, ImmutableMap.of());
     }
@@ -55,15 +58,12 @@ public Component getMessage(String message, Map<String, Object> paramMap) {
             // Should never happen but in case it does, return empty
             return TextComponent.empty();
         }
-        for (Map.Entry<String, Object> entry : paramMap.entrySet()) {
-            final String key = entry.getKey();
-            Object value = entry.getValue();
-            if (value instanceof Component) {
-                value = LegacyComponentSerializer.legacy().serialize((Component) value, '&');
-            }
-            rawMessage = rawMessage.replace("{" + key + "}", value.toString()); 
-        }
 
-        return LegacyComponentSerializer.legacy().deserialize(rawMessage, '&');
+        MessageTemplate template = this.messageTemplates.get(message);
+        if (template == null || !template.getRawMessage().equals(rawMessage)) {
+            template = new MessageTemplate(rawMessage);
+            this.messageTemplates.put(message, template);
+        }
+        return template.render(paramMap);
     }
 }
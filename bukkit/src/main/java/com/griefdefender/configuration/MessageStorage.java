@@ -204,6 +204,9 @@ public class MessageStorage {
     public static final String FLAG_UI_CLICK_TOGGLE = "flag-ui-click-toggle";
     public static final String FLAG_UI_INHERIT_PARENT = "flag-ui-inherit-parent";
     public static final String FLAG_UI_OVERRIDE_PERMISSION = "flag-ui-override-permission";
+    public static final String METRICS_DISABLED = "metrics-disabled";
+    public static final String METRICS_EXPORT_COMPLETE = "metrics-export-complete";
+    public static final String METRICS_EXPORT_FAILED = "metrics-export-failed";
     public static final String OPTION_INVALID_CONTEXT = "option-invalid-context";
     public static final String OPTION_INVALID_TARGET = "option-invalid-target";
     public static final String OPTION_INVALID_VALUE = "option-invalid-value";
@@ -282,6 +285,8 @@ public class MessageStorage {
     public static final String SCHEMATIC_RESTORE_CONFIRMED = "schematic-restore-confirmed";
     public static final String SPAWN_SET_SUCCESS = "spawn-set-success";
     public static final String SPAWN_TELEPORT = "spawn-teleport";
+    public static final String STORAGE_CONVERT_QUEUED = "storage-convert-queued";
+    public static final String STORAGE_EXPORT_COMPLETE = "storage-export-complete";
     public static final String TAX_CLAIM_EXPIRED = "tax-claim-expired";
     public static final String TAX_CLAIM_PAID_BALANCE = "tax-claim-paid-balance";
     public static final String TAX_CLAIM_PAID_PARTIAL = "tax-claim-paid-partial";
@@ -0,0 +1,245 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.configuration;
+
+import net.kyori.text.Component;
+import net.kyori.text.TextComponent;
+import net.kyori.text.format.TextColor;
+import net.kyori.text.format.TextDecoration;
+import net.kyori.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A message compiled into literal components and parameter slots.
+ *
+ * <p>Literal text is deserialized once. Each parameter slot keeps the legacy
+ * formatting active at its position so rendering only needs to assemble
+ * the final component.</p>
+ */
+public class MessageTemplate {
+
+    private static final String LEGACY_COLORS = "0123456789abcdef";
+    private static final TextColor[] COLORS = new TextColor[] {
+            TextColor.BLACK, TextColor.DARK_BLUE, TextColor.DARK_GREEN, TextColor.DARK_AQUA,
+            TextColor.DARK_RED, TextColor.DARK_PURPLE, TextColor.GOLD, TextColor.GRAY,
+            TextColor.DARK_GRAY, TextColor.BLUE, TextColor.GREEN, TextColor.AQUA,
+            TextColor.RED, TextColor.LIGHT_PURPLE, TextColor.YELLOW, TextColor.WHITE};
+
+    private final String rawMessage;
+    // Either a literal Component or a Slot
+    private final List<Object> parts = new ArrayList<>();
+
+    public MessageTemplate(String rawMessage) {
+        this.rawMessage = rawMessage;
+        final FormatState state = new FormatState();
+        int literalStart = 0;
+        int index = 0;
+        while (index < rawMessage.length()) {
+            final int open = rawMessage.indexOf('{', index);
+            if (open == -1) {
+                break;
+            }
+            final int close = rawMessage.indexOf('}', open + 1);
+            if (close == -1) {
+                break;
+            }
+            final String key = rawMessage.substring(open + 1, close);
+            if (!isKey(key)) {
+                index = open + 1;
+                continue;
+            }
+
+            this.addLiteral(rawMessage.substring(literalStart, open), state);
+            this.parts.add(new Slot(key, state.color, state.decorations));
+            literalStart = close + 1;
+            index = literalStart;
+        }
+        this.addLiteral(rawMessage.substring(literalStart), state);
+    }
+
+    public String getRawMessage() {
+        return this.rawMessage;
+    }
+
+    public Component render(Map<String, Object> paramMap) {
+        if (this.parts.isEmpty()) {
+            return TextComponent.empty();
+        }
+        if (this.parts.size() == 1 && this.parts.get(0) instanceof Component) {
+            return (Component) this.parts.get(0);
+        }
+
+        final TextComponent.Builder builder = TextComponent.builder("");
+        for (Object part : this.parts) {
+            if (part instanceof Component) {
+                builder.append((Component) part);
+            } else {
+                builder.append(((Slot) part).render(paramMap));
+            }
+        }
+        return builder.build();
+    }
+
+    private void addLiteral(String literal, FormatState state) {
+        if (literal.isEmpty()) {
+            return;
+        }
+
+        // Carry formatting from earlier text into this segment
+        this.parts.add(LegacyComponentSerializer.legacy().deserialize(state.toLegacy() + literal, '&'));
+        state.apply(literal);
+    }
+
+    private static boolean isKey(String key) {
+        if (key.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            final char c = key.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Slot {
+
+        private final String key;
+        private final TextColor color;
+        private final Set<TextDecoration> decorations;
+
+        Slot(String key, TextColor color, Set<TextDecoration> decorations) {
+            this.key = key;
+            this.color = color;
+            this.decorations = decorations.isEmpty() ? EnumSet.noneOf(TextDecoration.class) : EnumSet.copyOf(decorations);
+        }
+
+        Component render(Map<String, Object> paramMap) {
+            final Object value = paramMap.get(this.key);
+            final Component component;
+            if (value == null) {
+                // Unknown parameters are left as is
+                component = TextComponent.of("{" + this.key + "}");
+            } else if (value instanceof Component) {
+                component = (Component) value;
+            } else {
+                final String text = value.toString();
+                component = text.indexOf('&') == -1 ? TextComponent.of(text) : LegacyComponentSerializer.legacy().deserialize(text, '&');
+            }
+            if (this.color == null && this.decorations.isEmpty()) {
+                return component;
+            }
+
+            // Parameters inherit the formatting active at the slot
+            final TextComponent.Builder builder = TextComponent.builder("").color(this.color);
+            for (TextDecoration decoration : this.decorations) {
+                builder.decoration(decoration, true);
+            }
+            return builder.append(component).build();
+        }
+    }
+
+    private static class FormatState {
+
+        private TextColor color;
+        private final Set<TextDecoration> decorations = EnumSet.noneOf(TextDecoration.class);
+        private String legacy = "";
+
+        void apply(String text) {
+            for (int i = 0; i < text.length() - 1; i++) {
+                if (text.charAt(i) != '&') {
+                    continue;
+                }
+                final char code = Character.toLowerCase(text.charAt(i + 1));
+                final int colorIndex = LEGACY_COLORS.indexOf(code);
+                if (colorIndex != -1) {
+                    this.color = COLORS[colorIndex];
+                    this.decorations.clear();
+                } else if (code == 'k') {
+                    this.decorations.add(TextDecoration.OBFUSCATED);
+                } else if (code == 'l') {
+                    this.decorations.add(TextDecoration.BOLD);
+                } else if (code == 'm') {
+                    this.decorations.add(TextDecoration.STRIKETHROUGH);
+                } else if (code == 'n') {
+                    this.decorations.add(TextDecoration.UNDERLINED);
+                } else if (code == 'o') {
+                    this.decorations.add(TextDecoration.ITALIC);
+                } else if (code == 'r') {
+                    this.color = null;
+                    this.decorations.clear();
+                } else {
+                    continue;
+                }
+                i++;
+            }
+            this.legacy = this.buildLegacy();
+        }
+
+        String toLegacy() {
+            return this.legacy;
+        }
+
+        private String buildLegacy() {
+            final StringBuilder builder = new StringBuilder();
+            if (this.color != null) {
+                for (int i = 0; i < COLORS.length; i++) {
+                    if (COLORS[i] == this.color) {
+                        builder.append('&').append(LEGACY_COLORS.charAt(i));
+                        break;
+                    }
+                }
+            }
+            for (TextDecoration decoration : this.decorations) {
+                switch (decoration) {
+                    case OBFUSCATED:
+                        builder.append("&k");
+                        break;
+                    case BOLD:
+                        builder.append("&l");
+                        break;
+                    case STRIKETHROUGH:
+                        builder.append("&m");
+                        break;
+                    case UNDERLINED:
+                        builder.append("&n");
+                        break;
+                    case ITALIC:
+                        builder.append("&o");
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
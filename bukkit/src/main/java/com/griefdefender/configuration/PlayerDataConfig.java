@@ -32,6 +32,7 @@
 public class PlayerDataConfig extends ConfigCategory {
 
     private boolean requiresSave = true;
+    private PlayerStorageData playerStorage;
 
     @Setting(value = "accrued-claim-blocks", comment = "How many claim blocks the player has earned in world via play time.")
     private int accruedClaimBlocks;
@@ -50,12 +51,12 @@ public int getBonusClaimBlocks() {
     }
 
     public void setAccruedClaimBlocks(int blocks) {
-        this.requiresSave = true;
+        this.markDirty();
         this.accruedClaimBlocks = blocks;
     }
 
     public void setBonusClaimBlocks(int blocks) {
-        this.requiresSave = true;
+        this.markDirty();
         this.bonusClaimBlocks = blocks;
     }
 
@@ -64,7 +65,22 @@ public boolean requiresSave() {
     }
 
     public void setRequiresSave(boolean flag) {
-        this.requiresSave = flag;
+        if (flag) {
+            this.markDirty();
+        } else {
+            this.requiresSave = false;
+        }
+    }
+
+    public void setPlayerStorageData(PlayerStorageData playerStorage) {
+        this.playerStorage = playerStorage;
+    }
+
+    private void markDirty() {
+        this.requiresSave = true;
+        if (this.playerStorage != null) {
+            this.playerStorage.markDirty();
+        }
     }
 
     // Remove after 4.0
@@ -25,6 +25,8 @@
 package com.griefdefender.configuration;
 
 import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.metrics.GDMetrics;
+import com.griefdefender.storage.DocumentStore;
 import ninja.leaping.configurate.ConfigurationOptions;
 import ninja.leaping.configurate.commented.CommentedConfigurationNode;
 import ninja.leaping.configurate.commented.SimpleCommentedConfigurationNode;
@@ -33,8 +35,8 @@
 import ninja.leaping.configurate.objectmapping.ObjectMappingException;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.UUID;
 import java.util.logging.Level;
 
 public class PlayerStorageData {
@@ -43,19 +45,16 @@ public class PlayerStorageData {
     private CommentedConfigurationNode root = SimpleCommentedConfigurationNode.root(ConfigurationOptions.defaults());
     private ObjectMapper<PlayerDataConfig>.BoundInstance configMapper;
     private PlayerDataConfig configBase;
+    private UUID worldUniqueId;
+    private UUID playerUniqueId;
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     public PlayerStorageData(Path path) {
 
         try {
-            if (Files.notExists(path.getParent())) {
-                Files.createDirectories(path.getParent());
-            }
-            if (Files.notExists(path)) {
-                Files.createFile(path);
-            }
+            DocumentStore.ensureExists(path);
 
-            this.loader = HoconConfigurationLoader.builder().setPath(path).build();
+            this.loader = DocumentStore.createLoader(path);
             this.configMapper = (ObjectMapper.BoundInstance) ObjectMapper.forClass(PlayerDataConfig.class).bindToNew();
 
             if (reload()) {
@@ -77,6 +76,7 @@ public void save() {
                     this.configMapper.serialize(this.root.getNode(GriefDefenderPlugin.MOD_ID));
                     this.loader.save(this.root);
                     this.configBase.setRequiresSave(false);
+                    GDMetrics.recordStorageSave("player");
                 }
             }
         } catch (IOException | ObjectMappingException e) {
@@ -88,6 +88,7 @@ public boolean reload() {
         try {
             this.root = this.loader.load(ConfigurationOptions.defaults());
             this.configBase = this.configMapper.populate(this.root.getNode(GriefDefenderPlugin.MOD_ID));
+            this.configBase.setPlayerStorageData(this);
         } catch (Exception e) {
             GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to load configuration", e);
             return false;
@@ -95,6 +96,28 @@ public boolean reload() {
         return true;
     }
 
+    /**
+     * Binds this storage to the player data using it. Changes made after are
+     * written on the next save of the world.
+     *
+     * @param worldUniqueId The world uuid
+     * @param playerUniqueId The player uuid
+     */
+    public void track(UUID worldUniqueId, UUID playerUniqueId) {
+        this.worldUniqueId = worldUniqueId;
+        this.playerUniqueId = playerUniqueId;
+        if (this.configBase != null && this.configBase.requiresSave()) {
+            this.markDirty();
+        }
+    }
+
+    void markDirty() {
+        if (this.worldUniqueId == null || GriefDefenderPlugin.getInstance().dataStore == null) {
+            return;
+        }
+        GriefDefenderPlugin.getInstance().dataStore.markPlayerDirty(this.worldUniqueId, this.playerUniqueId);
+    }
+
     public CommentedConfigurationNode getRootNode() {
         return this.root.getNode(GriefDefenderPlugin.MOD_ID);
     }
@@ -0,0 +1,45 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.configuration.category;
+
+import ninja.leaping.configurate.objectmapping.Setting;
+import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
+
+@ConfigSerializable
+public class StorageCategory extends ConfigCategory {
+
+    @Setting(value = "type", comment = "The storage used for claim and player data. Accepts 'file' or 'sqlite'."
+            + "\nWhen switching to 'sqlite', existing claim and player files are imported on first load and left in place."
+            + "\nNote: Requires a server restart. (Default: file)")
+    public String type = "file";
+    @Setting(value = "database-file", comment = "The SQLite database file, relative to the GD config folder. (Default: griefdefender.db)")
+    public String databaseFile = "griefdefender.db";
+    @Setting(value = "batch-size", comment = "The maximum number of queued claim saves written in a single database transaction. (Default: 256)")
+    public int batchSize = 256;
+    @Setting(value = "claim-format", comment = "The format used when writing claim files. Accepts 'hocon' or 'binary'."
+            + "\nBoth formats are always readable so claims are converted as they are saved. Use '/gd storage convert' to rewrite all claims."
+            + "\nNote: Only applies to 'file' storage. (Default: hocon)")
+    public String claimFormat = "hocon";
+}
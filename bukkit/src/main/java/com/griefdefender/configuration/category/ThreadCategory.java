@@ -32,4 +32,20 @@ public class ThreadCategory extends ConfigCategory {
 
     @Setting(value = "executor-threads", comment = "The number of threads to use for GD's executor. (Default: 1)")
     public int numExecutorThreads = 1;
+    @Setting(value = "load-threads", comment = "The number of threads used to read claim files during world load. Set to 0 to use one thread per available processor. (Default: 0)")
+    public int numLoadThreads = 0;
+    @Setting(value = "save-queue-limit", comment = "The maximum number of claim saves waiting to be written to disk before saving blocks until the queue catches up."
+            + "\nSet to 0 to disable the limit. (Default: 10000)")
+    public int saveQueueLimit = 10000;
+    @Setting(value = "chunk-io-threads", comment = "The number of threads used to read and write chunk block tracking data. (Default: 1)")
+    public int chunkIoThreads = 1;
+    @Setting(value = "player-tick-budget", comment = "The maximum time in microseconds the player tick task may spend per server tick."
+            + "\nPlayers not processed within the budget are carried over to the next tick. (Default: 500)")
+    public int playerTickBudget = 500;
+    @Setting(value = "cleanup-tick-budget", comment = "The maximum time in microseconds the claim cleanup task may spend per server tick."
+            + "\nExpired claims not removed within the budget are removed on the following ticks. (Default: 200)")
+    public int cleanupTickBudget = 200;
+    @Setting(value = "tax-tick-budget", comment = "The maximum time in microseconds the tax task may spend applying economy transactions per server tick."
+            + "\nAt least one claim is charged per tick. (Default: 1000)")
+    public int taxTickBudget = 1000;
 }
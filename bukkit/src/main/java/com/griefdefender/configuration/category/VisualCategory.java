@@ -36,6 +36,9 @@ public class VisualCategory extends ConfigCategory {
     public boolean hideBorders = false;
     @Setting(value = "hide-wecui-drag-visuals-2d", comment = "Whether drag visuals should be shown while creating a claim in 2D mode.")
     public boolean hideDrag2d = true;
+    @Setting(value = "blocks-per-tick", comment = "The maximum number of visual block changes sent to a player per tick. Remaining changes are sent on the following ticks."
+            + "\nSet to 0 to disable the limit. (Default: 1024)")
+    public int blocksPerTick = 1024;
 
     @Setting(value = "claim-create-block", comment = "The visual block used during claim creation. (Default: minecraft:diamond_block)")
     public String claimCreateStartBlock = "minecraft:diamond_block";
@@ -24,13 +24,16 @@
  */
 package com.griefdefender.configuration.type;
 
+import com.griefdefender.configuration.category.CacheCategory;
 import com.griefdefender.configuration.category.CustomFlagGroupDefinitionCategory;
 import com.griefdefender.configuration.category.DefaultPermissionCategory;
 import com.griefdefender.configuration.category.EconomyCategory;
 import com.griefdefender.configuration.category.MessageCategory;
+import com.griefdefender.configuration.category.MetricsCategory;
 import com.griefdefender.configuration.category.MigratorCategory;
 import com.griefdefender.configuration.category.ModuleCategory;
 import com.griefdefender.configuration.category.PlayerDataCategory;
+import com.griefdefender.configuration.category.StorageCategory;
 import com.griefdefender.configuration.category.ThreadCategory;
 import com.griefdefender.configuration.category.TownCategory;
 import ninja.leaping.configurate.objectmapping.Setting;
@@ -64,11 +67,17 @@ public class GlobalConfig extends ConfigBase {
                     + "\nThese contexts may change, See https://github.com/bloodmc/GriefDefender/wiki for latest information.")
     public CustomFlagGroupDefinitionCategory customFlags = new CustomFlagGroupDefinitionCategory();
     @Setting
+    public CacheCategory cache = new CacheCategory();
+    @Setting
     public EconomyCategory economy = new EconomyCategory();
     @Setting
     public PlayerDataCategory playerdata = new PlayerDataCategory();
     @Setting
     public MessageCategory message = new MessageCategory();
+    @Setting
+    public MetricsCategory metrics = new MetricsCategory();
+    @Setting
+    public StorageCategory storage = new StorageCategory();
     @Setting(comment = 
             "List of migrators that convert old or other protection data into the current GD claim data format." + 
             "\nNote: It is recommended to backup data before using.")
@@ -37,29 +37,39 @@
 import org.bukkit.OfflinePlayer;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * Tracks the causes of the event currently being handled.
+ *
+ * <p>Each thread has its own stack so causes pushed by async listeners or
+ * worker threads never leak into checks made on the main thread.</p>
+ */
 public final class GDCauseStackManager {
 
-    private int tick_stored;
-
     private static GDCauseStackManager instance;
 
-    private final Deque<Object> cause = Queues.newArrayDeque();
+    private final ThreadLocal<CauseStack> stack = ThreadLocal.withInitial(CauseStack::new);
 
-    @Nullable private EventCause cached_cause;
+    private static final class CauseStack {
+
+        private int tick_stored;
+        private final Deque<Object> cause = Queues.newArrayDeque();
+        @Nullable private EventCause cached_cause;
+    }
 
     public EventCause getCurrentCause() {
-        if (NMSUtil.getInstance().getRunningServerTicks() != tick_stored) {
-            this.cached_cause = null;
-            this.cause.clear();
+        final CauseStack stack = this.stack.get();
+        if (NMSUtil.getInstance().getRunningServerTicks() != stack.tick_stored) {
+            stack.cached_cause = null;
+            stack.cause.clear();
         }
-        if (this.cached_cause == null) {
-            if (this.cause.isEmpty()) {
-                this.cached_cause = EventCause.of(GriefDefenderPlugin.getInstance());
+        if (stack.cached_cause == null) {
+            if (stack.cause.isEmpty()) {
+                stack.cached_cause = EventCause.of(GriefDefenderPlugin.getInstance());
             } else {
-                this.cached_cause = EventCause.of(this.cause);
+                stack.cached_cause = EventCause.of(stack.cause);
             }
         }
-        return this.cached_cause;
+        return stack.cached_cause;
     }
 
     public GDCauseStackManager pushCause(Object obj) {
@@ -67,24 +77,26 @@ public GDCauseStackManager pushCause(Object obj) {
         if (obj instanceof OfflinePlayer) {
             obj = PermissionHolderCache.getInstance().getOrCreateUser((OfflinePlayer) obj);
         }
-        if (tick_stored == NMSUtil.getInstance().getRunningServerTicks()) {
-            this.cause.push(obj);
+        final CauseStack stack = this.stack.get();
+        if (stack.tick_stored == NMSUtil.getInstance().getRunningServerTicks()) {
+            stack.cause.push(obj);
             return this;
         }
 
-        this.cached_cause = null;
-        this.cause.push(obj);
-        tick_stored = NMSUtil.getInstance().getRunningServerTicks();
+        stack.cached_cause = null;
+        stack.cause.push(obj);
+        stack.tick_stored = NMSUtil.getInstance().getRunningServerTicks();
         return this;
     }
 
     public Object popCause() {
-        this.cached_cause = null;
-        return this.cause.pop();
+        final CauseStack stack = this.stack.get();
+        stack.cached_cause = null;
+        return stack.cause.pop();
     }
 
     public Object peekCause() {
-        return this.cause.peek();
+        return this.stack.get().cause.peek();
     }
 
     public static GDCauseStackManager getInstance() {
@@ -89,8 +89,6 @@
 import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.ArrayList;
-import java.util.List;
 
 public class BlockEventHandler implements Listener {
 
@@ -420,27 +418,7 @@ public void onExplosionEvent(BlockExplodeEvent event) {
 
         final GDPermissionUser user = CauseContextHelper.getEventUser(event.getBlock().getLocation());
         GDTimings.EXPLOSION_EVENT.startTiming();
-        GDClaim targetClaim = null;
-        final List<Block> filteredLocations = new ArrayList<>();
-        for (Block block : event.blockList()) {
-            final Location location = block.getLocation();
-            targetClaim =  GriefDefenderPlugin.getInstance().dataStore.getClaimAt(location, targetClaim);
-            Tristate result = GDPermissionManager.getInstance().getFinalPermission(event, location, targetClaim, GDPermissions.EXPLOSION_BLOCK, source, location.getBlock(), user, true);
-            if (result == Tristate.FALSE) {
-                // Avoid lagging server from large explosions.
-                if (event.blockList().size() > 100) {
-                    event.setCancelled(true);
-                    break;
-                }
-                filteredLocations.add(block);
-            }
-        }
-
-        if (event.isCancelled()) {
-            event.blockList().clear();
-        } else if (!filteredLocations.isEmpty()) {
-            event.blockList().removeAll(filteredLocations);
-        }
+        CommonBlockEventHandler.getInstance().filterExplosionBlocks(event, source, event.blockList(), user);
         GDTimings.EXPLOSION_EVENT.stopTiming();
     }
 
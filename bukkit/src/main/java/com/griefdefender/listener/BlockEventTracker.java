@@ -64,8 +64,8 @@ public class BlockEventTracker implements Listener {
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onBlockBreakMonitor(BlockBreakEvent event) {
         final GDClaimManager claimWorldManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(event.getBlock().getWorld().getUID());
-        final GDChunk gpChunk = claimWorldManager.getChunk(event.getBlock().getChunk());
-        gpChunk.updateBreakPosition(event.getBlock(), event.getPlayer().getUniqueId());
+        final UUID playerUniqueId = event.getPlayer().getUniqueId();
+        claimWorldManager.updateChunk(event.getBlock().getChunk(), gpChunk -> gpChunk.updateBreakPosition(event.getBlock(), playerUniqueId));
     }
 
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
@@ -87,9 +87,10 @@ public void onBlockBurn(BlockBurnEvent event) {
     public void onBlockIgnite(BlockIgniteEvent event) {
         //event
         final GDClaimManager claimWorldManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(event.getBlock().getWorld().getUID());
-        final GDChunk gpChunk = claimWorldManager.getChunk(event.getBlock().getChunk());
         if (event.getPlayer() != null) {
-            gpChunk.addTrackedBlockPosition(event.getBlock(), event.getPlayer().getUniqueId(), PlayerTracker.Type.NOTIFIER);
+            final UUID playerUniqueId = event.getPlayer().getUniqueId();
+            final Vector3i pos = VecHelper.toVector3i(event.getBlock().getLocation());
+            claimWorldManager.updateChunk(event.getBlock().getChunk(), gpChunk -> gpChunk.addTrackedBlockPosition(pos, playerUniqueId, PlayerTracker.Type.NOTIFIER));
         }
     }
 
@@ -97,8 +98,9 @@ public void onBlockIgnite(BlockIgniteEvent event) {
     public void onBlockPlaceMonitor(BlockPlaceEvent event) {
         if (!event.isCancelled()) {
             final GDClaimManager claimWorldManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(event.getBlock().getWorld().getUID());
-            final GDChunk gpChunk = claimWorldManager.getChunk(event.getBlock().getChunk());
-            gpChunk.addTrackedBlockPosition(event.getBlock(), event.getPlayer().getUniqueId(), PlayerTracker.Type.OWNER);
+            final UUID playerUniqueId = event.getPlayer().getUniqueId();
+            final Vector3i pos = VecHelper.toVector3i(event.getBlock().getLocation());
+            claimWorldManager.updateChunk(event.getBlock().getChunk(), gpChunk -> gpChunk.addTrackedBlockPosition(pos, playerUniqueId, PlayerTracker.Type.OWNER));
         }
     }
 
@@ -113,7 +115,6 @@ public void onBlockPhysicsMonitor(BlockPhysicsEvent event) {
             }
 
             final GDClaimManager claimWorldManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(event.getBlock().getWorld().getUID());
-            final GDChunk gpChunk = claimWorldManager.getChunk(event.getBlock().getChunk());
             final GDPermissionUser user = CauseContextHelper.getEventUser(sourceLocation);
             final UUID uuid = user != null ? user.getUniqueId() : null;
 
@@ -121,7 +122,7 @@ public void onBlockPhysicsMonitor(BlockPhysicsEvent event) {
             //final Vector3i sourcePos = VecHelper.toVector3i(event.getSourceBlock().getLocation());
             //final Location targetLocation = event.getBlock().getLocation();
             if (uuid != null) {
-                gpChunk.addTrackedBlockPosition(targetPos, uuid, PlayerTracker.Type.NOTIFIER);
+                claimWorldManager.updateChunk(event.getBlock().getChunk(), gpChunk -> gpChunk.addTrackedBlockPosition(targetPos, uuid, PlayerTracker.Type.NOTIFIER));
                 // Bukkit doesn't send surrounding events for performance reasons so we must handle it manually
                 /*for (Direction direction : NOTIFY_DIRECTIONS) {
                     final Vector3i directionPos = targetPos.add(direction.asBlockOffset());
@@ -135,13 +136,16 @@ public void onBlockPhysicsMonitor(BlockPhysicsEvent event) {
     public void onPlayerInteractBlockSecondary(PlayerInteractEvent event) {
         if (!event.isCancelled()) {
             final GDClaimManager claimWorldManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(event.getClickedBlock().getWorld().getUID());
-            final GDChunk gpChunk = claimWorldManager.getChunk(event.getClickedBlock().getChunk());
-            final Vector3i targetPos = VecHelper.toVector3i(event.getClickedBlock().getLocation());
+            final Block clickedBlock = event.getClickedBlock();
+            final UUID playerUniqueId = event.getPlayer().getUniqueId();
             GDCauseStackManager.getInstance().pushCause(event.getPlayer());
-            gpChunk.addTrackedBlockPosition(event.getClickedBlock(), event.getPlayer().getUniqueId(), PlayerTracker.Type.NOTIFIER);
             // We must track the position above clicked to block actions like water flow properly.
-            final Vector3i blockAbovePos = VecHelper.toVector3i(BlockUtil.getInstance().getBlockRelative(event.getClickedBlock().getLocation(), BlockFace.UP));
-            gpChunk.addTrackedBlockPosition(blockAbovePos, event.getPlayer().getUniqueId(), PlayerTracker.Type.NOTIFIER);
+            final Vector3i clickedPos = VecHelper.toVector3i(clickedBlock.getLocation());
+            final Vector3i blockAbovePos = VecHelper.toVector3i(BlockUtil.getInstance().getBlockRelative(clickedBlock.getLocation(), BlockFace.UP));
+            claimWorldManager.updateChunk(clickedBlock.getChunk(), gpChunk -> {
+                gpChunk.addTrackedBlockPosition(clickedPos, playerUniqueId, PlayerTracker.Type.NOTIFIER);
+                gpChunk.addTrackedBlockPosition(blockAbovePos, playerUniqueId, PlayerTracker.Type.NOTIFIER);
+            });
         }
     }
 }
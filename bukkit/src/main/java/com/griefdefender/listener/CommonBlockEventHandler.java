@@ -24,9 +24,16 @@
  */
 package com.griefdefender.listener;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.Cancellable;
@@ -35,8 +42,11 @@
 
 import com.griefdefender.GriefDefenderPlugin;
 import com.griefdefender.api.Tristate;
+import com.griefdefender.api.claim.Claim;
 import com.griefdefender.api.claim.TrustTypes;
 import com.griefdefender.claim.GDClaim;
+import com.griefdefender.claim.GDClaimManager;
+import com.griefdefender.internal.util.BlockUtil;
 import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.permission.GDPermissionUser;
 import com.griefdefender.permission.GDPermissions;
@@ -62,6 +72,65 @@ public CommonBlockEventHandler() {
         this.storage = GriefDefenderPlugin.getInstance().dataStore;
     }
 
+    /**
+     * Removes all blocks from an explosion block list that are protected from the source.
+     *
+     * <p>Claims are resolved once per chunk when the chunk has no claims and the
+     * explosion flag is evaluated once per claim and block state.</p>
+     *
+     * @param event The explosion event
+     * @param source The explosion source
+     * @param blockList The mutable list of blocks affected by the explosion
+     * @param user The user responsible for the explosion, if any
+     */
+    public void filterExplosionBlocks(Event event, Object source, List<Block> blockList, GDPermissionUser user) {
+        if (blockList.isEmpty()) {
+            return;
+        }
+
+        final World world = blockList.get(0).getWorld();
+        final GDClaimManager claimManager = this.storage.getClaimWorldManager(world.getUID());
+        final Map<Long, Set<Claim>> chunksToClaims = claimManager.getInternalChunksToClaimsMap();
+        final Map<GDClaim, Map<BlockData, Tristate>> claimResults = new HashMap<>();
+        final List<Block> allowedBlocks = new ArrayList<>(blockList.size());
+        long lastChunkKey = 0;
+        boolean lastChunkClaimed = true;
+        boolean firstBlock = true;
+        GDClaim targetClaim = null;
+        for (Block block : blockList) {
+            final long chunkKey = BlockUtil.getInstance().asLong(block.getX() >> 4, block.getZ() >> 4);
+            if (firstBlock || chunkKey != lastChunkKey) {
+                final Set<Claim> claimsInChunk = chunksToClaims.get(chunkKey);
+                lastChunkClaimed = claimsInChunk != null && !claimsInChunk.isEmpty();
+                lastChunkKey = chunkKey;
+                firstBlock = false;
+            }
+
+            final Location location = block.getLocation();
+            if (lastChunkClaimed) {
+                targetClaim = this.storage.getClaimAt(location, targetClaim);
+            } else {
+                targetClaim = claimManager.getWildernessClaim();
+            }
+
+            final Map<BlockData, Tristate> results = claimResults.computeIfAbsent(targetClaim, k -> new HashMap<>());
+            final BlockData blockData = block.getBlockData();
+            Tristate result = results.get(blockData);
+            if (result == null) {
+                result = GDPermissionManager.getInstance().getFinalPermission(event, location, targetClaim, GDPermissions.EXPLOSION_BLOCK, source, block, user, true);
+                results.put(blockData, result);
+            }
+            if (result != Tristate.FALSE) {
+                allowedBlocks.add(block);
+            }
+        }
+
+        if (allowedBlocks.size() != blockList.size()) {
+            blockList.clear();
+            blockList.addAll(allowedBlocks);
+        }
+    }
+
     public void handleBlockSpread(Event event, Block fromBlock, Block toBlock) {
         if (!GDFlags.BLOCK_SPREAD) {
             return;
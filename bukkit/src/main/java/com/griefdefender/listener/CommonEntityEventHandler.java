@@ -53,7 +53,9 @@
 import com.griefdefender.api.permission.option.Options;
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ClaimSafeBox;
 import com.griefdefender.claim.GDClaim;
+import com.griefdefender.claim.GDClaimManager;
 import com.griefdefender.configuration.MessageStorage;
 import com.griefdefender.event.GDBorderClaimEvent;
 import com.griefdefender.internal.registry.ItemTypeRegistryModule;
@@ -110,6 +112,9 @@ public boolean onEntityMove(Event event, Location fromLocation, Location toLocat
         if (!GriefDefenderPlugin.getInstance().claimsEnabledForWorld(world.getUID())) {
             return true;
         }
+        if (user != null && this.isWithinClaimSafeBox(user.getInternalPlayerData(), world, fromPos, toPos)) {
+            return true;
+        }
         final boolean enterBlacklisted = GriefDefenderPlugin.isSourceIdBlacklisted(Flags.ENTER_CLAIM.getName(), targetEntity, world.getUID());
         final boolean exitBlacklisted = GriefDefenderPlugin.isSourceIdBlacklisted(Flags.EXIT_CLAIM.getName(), targetEntity, world.getUID());
         if (enterBlacklisted && exitBlacklisted) {
@@ -117,185 +122,197 @@ public boolean onEntityMove(Event event, Location fromLocation, Location toLocat
         }
 
         GDTimings.ENTITY_MOVE_EVENT.startTiming();
+        try {
+            GDClaim fromClaim = null;
+            GDClaim toClaim = this.storage.getClaimAt(toLocation);
+            if (user != null) {
+                fromClaim = this.storage.getClaimAtPlayer(user.getInternalPlayerData(), fromLocation);
+            } else {
+                fromClaim = this.storage.getClaimAt(fromLocation);
+            }
 
-        GDClaim fromClaim = null;
-        GDClaim toClaim = this.storage.getClaimAt(toLocation);
-        if (user != null) {
-            fromClaim = this.storage.getClaimAtPlayer(user.getInternalPlayerData(), fromLocation);
-        } else {
-            fromClaim = this.storage.getClaimAt(fromLocation);
-        }
-
-        if (GDFlags.ENTER_CLAIM && !enterBlacklisted && user != null && user.getInternalPlayerData().lastClaim != null) {
-            final GDClaim lastClaim = (GDClaim) user.getInternalPlayerData().lastClaim.get();
-            if (lastClaim != null && lastClaim != fromClaim) {
-                if (GDPermissionManager.getInstance().getFinalPermission(event, toLocation, toClaim, GDPermissions.ENTER_CLAIM, targetEntity, targetEntity, player, TrustTypes.ACCESSOR, false) == Tristate.FALSE) {
-                    Location claimCorner = new Location(toLocation.getWorld(), toClaim.lesserBoundaryCorner.getX(), targetEntity.getLocation().getBlockY(), toClaim.greaterBoundaryCorner.getZ());
-                    targetEntity.teleport(claimCorner);
+            if (GDFlags.ENTER_CLAIM && !enterBlacklisted && user != null && user.getInternalPlayerData().lastClaim != null) {
+                final GDClaim lastClaim = (GDClaim) user.getInternalPlayerData().lastClaim.get();
+                if (lastClaim != null && lastClaim != fromClaim) {
+                    if (GDPermissionManager.getInstance().getFinalPermission(event, toLocation, toClaim, GDPermissions.ENTER_CLAIM, targetEntity, targetEntity, player, TrustTypes.ACCESSOR, false) == Tristate.FALSE) {
+                        Location claimCorner = new Location(toLocation.getWorld(), toClaim.lesserBoundaryCorner.getX(), targetEntity.getLocation().getBlockY(), toClaim.greaterBoundaryCorner.getZ());
+                        targetEntity.teleport(claimCorner);
+                    }
                 }
             }
-        }
-        if (fromClaim == toClaim) {
-            GDTimings.ENTITY_MOVE_EVENT.stopTiming();
-            return true;
-        }
+            if (fromClaim == toClaim) {
+                if (user != null) {
+                    user.getInternalPlayerData().claimSafeBox = this.storage.getClaimWorldManager(world.getUID()).getClaimSafeBox(toPos);
+                }
+                return true;
+            }
 
-        GDBorderClaimEvent gpEvent = new GDBorderClaimEvent(targetEntity, fromClaim, toClaim);
-        if (user != null && toClaim.isUserTrusted(user, TrustTypes.ACCESSOR)) {
-            GriefDefender.getEventManager().post(gpEvent);
-            if (gpEvent.cancelled()) {
-                if (targetEntity instanceof Vehicle) {
-                    final Vehicle vehicle = (Vehicle) targetEntity;
-                    vehicle.teleport(fromLocation);
-                    GDTimings.ENTITY_MOVE_EVENT.stopTiming();
+            GDBorderClaimEvent gpEvent = new GDBorderClaimEvent(targetEntity, fromClaim, toClaim);
+            if (user != null && toClaim.isUserTrusted(user, TrustTypes.ACCESSOR)) {
+                GriefDefender.getEventManager().post(gpEvent);
+                if (gpEvent.cancelled()) {
+                    if (targetEntity instanceof Vehicle) {
+                        final Vehicle vehicle = (Vehicle) targetEntity;
+                        vehicle.teleport(fromLocation);
+                        return false;
+                    }
+                    if (event instanceof Cancellable) {
+                        ((Cancellable) event).setCancelled(true);
+                    }
+                    final Component cancelMessage = gpEvent.getMessage().orElse(null);
+                    if (player != null && cancelMessage != null) {
+                        TextAdapter.sendComponent(player, cancelMessage);
+                    }
                     return false;
-                }
-                if (event instanceof Cancellable) {
-                    ((Cancellable) event).setCancelled(true);
-                }
-                final Component cancelMessage = gpEvent.getMessage().orElse(null);
-                if (player != null && cancelMessage != null) {
-                    TextAdapter.sendComponent(player, cancelMessage);
-                }
-                return false;
-            } else {
-                final boolean showGpPrefix = GriefDefenderPlugin.getGlobalConfig().getConfig().message.enterExitShowGdPrefix;
-                user.getInternalPlayerData().lastClaim = new WeakReference<>(toClaim);
-                TextComponent welcomeMessage = (TextComponent) gpEvent.getEnterMessage().orElse(null);
-                if (welcomeMessage != null && !welcomeMessage.equals(TextComponent.empty())) {
-                    ChatType chatType = gpEvent.getEnterMessageChatType();
-                    if (chatType == ChatTypes.ACTION_BAR) {
-                        TextAdapter.sendActionBar(player, TextComponent.builder("")
-                                .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
-                                .append(welcomeMessage)
-                                .build());
-                    } else {
-                        TextAdapter.sendComponent(player, TextComponent.builder("")
-                                .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
-                                .append(welcomeMessage)
-                                .build());
+                } else {
+                    final boolean showGpPrefix = GriefDefenderPlugin.getGlobalConfig().getConfig().message.enterExitShowGdPrefix;
+                    user.getInternalPlayerData().lastClaim = new WeakReference<>(toClaim);
+                    TextComponent welcomeMessage = (TextComponent) gpEvent.getEnterMessage().orElse(null);
+                    if (welcomeMessage != null && !welcomeMessage.equals(TextComponent.empty())) {
+                        ChatType chatType = gpEvent.getEnterMessageChatType();
+                        if (chatType == ChatTypes.ACTION_BAR) {
+                            TextAdapter.sendActionBar(player, TextComponent.builder("")
+                                    .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
+                                    .append(welcomeMessage)
+                                    .build());
+                        } else {
+                            TextAdapter.sendComponent(player, TextComponent.builder("")
+                                    .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
+                                    .append(welcomeMessage)
+                                    .build());
+                        }
                     }
-                }
 
-                Component farewellMessage = gpEvent.getExitMessage().orElse(null);
-                if (farewellMessage != null && !farewellMessage.equals(TextComponent.empty())) {
-                    ChatType chatType = gpEvent.getExitMessageChatType();
-                    if (chatType == ChatTypes.ACTION_BAR) {
-                        TextAdapter.sendActionBar(player, TextComponent.builder("")
-                                .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
-                                .append(farewellMessage)
-                                .build());
+                    Component farewellMessage = gpEvent.getExitMessage().orElse(null);
+                    if (farewellMessage != null && !farewellMessage.equals(TextComponent.empty())) {
+                        ChatType chatType = gpEvent.getExitMessageChatType();
+                        if (chatType == ChatTypes.ACTION_BAR) {
+                            TextAdapter.sendActionBar(player, TextComponent.builder("")
+                                    .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
+                                    .append(farewellMessage)
+                                    .build());
+                        } else {
+                            TextAdapter.sendComponent(player, TextComponent.builder("")
+                                    .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
+                                    .append(farewellMessage)
+                                    .build());
+                        }
+                    }
+
+                    if (toClaim.isInTown()) {
+                        user.getInternalPlayerData().inTown = true;
                     } else {
-                        TextAdapter.sendComponent(player, TextComponent.builder("")
-                                .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
-                                .append(farewellMessage)
-                                .build());
+                        user.getInternalPlayerData().inTown = false;
                     }
                 }
 
-                if (toClaim.isInTown()) {
-                    user.getInternalPlayerData().inTown = true;
-                } else {
-                    user.getInternalPlayerData().inTown = false;
-                }
+                return true;
             }
 
-            GDTimings.ENTITY_MOVE_EVENT.stopTiming();
-            return true;
-        }
-
-        if (fromClaim != toClaim) {
-            boolean enterCancelled = false;
-            boolean exitCancelled = false;
-            // enter
-            if (GDFlags.ENTER_CLAIM && !enterBlacklisted && GDPermissionManager.getInstance().getFinalPermission(event, toLocation, toClaim, GDPermissions.ENTER_CLAIM, targetEntity, targetEntity, user) == Tristate.FALSE) {
-                enterCancelled = true;
-                gpEvent.cancelled(true);
-            }
+            if (fromClaim != toClaim) {
+                boolean enterCancelled = false;
+                boolean exitCancelled = false;
+                // enter
+                if (GDFlags.ENTER_CLAIM && !enterBlacklisted && GDPermissionManager.getInstance().getFinalPermission(event, toLocation, toClaim, GDPermissions.ENTER_CLAIM, targetEntity, targetEntity, user) == Tristate.FALSE) {
+                    enterCancelled = true;
+                    gpEvent.cancelled(true);
+                }
 
-            // exit
-            if (GDFlags.EXIT_CLAIM && !exitBlacklisted && GDPermissionManager.getInstance().getFinalPermission(event, fromLocation, fromClaim, GDPermissions.EXIT_CLAIM, targetEntity, targetEntity, user) == Tristate.FALSE) {
-                exitCancelled = true;
-                gpEvent.cancelled(true);
-            }
+                // exit
+                if (GDFlags.EXIT_CLAIM && !exitBlacklisted && GDPermissionManager.getInstance().getFinalPermission(event, fromLocation, fromClaim, GDPermissions.EXIT_CLAIM, targetEntity, targetEntity, user) == Tristate.FALSE) {
+                    exitCancelled = true;
+                    gpEvent.cancelled(true);
+                }
 
-            GriefDefender.getEventManager().post(gpEvent);
-            if (gpEvent.cancelled()) {
-                final Component cancelMessage = gpEvent.getMessage().orElse(null);
-                if (exitCancelled) {
-                    if (cancelMessage != null && player != null) {
-                        GriefDefenderPlugin.sendClaimDenyMessage(fromClaim, player, MessageCache.getInstance().PERMISSION_CLAIM_EXIT);
+                GriefDefender.getEventManager().post(gpEvent);
+                if (gpEvent.cancelled()) {
+                    final Component cancelMessage = gpEvent.getMessage().orElse(null);
+                    if (exitCancelled) {
+                        if (cancelMessage != null && player != null) {
+                            GriefDefenderPlugin.sendClaimDenyMessage(fromClaim, player, MessageCache.getInstance().PERMISSION_CLAIM_EXIT);
+                        }
+                    } else if (enterCancelled) {
+                        if (cancelMessage != null && player != null) {
+                            GriefDefenderPlugin.sendClaimDenyMessage(toClaim, player, MessageCache.getInstance().PERMISSION_CLAIM_ENTER);
+                        }
                     }
-                } else if (enterCancelled) {
+
                     if (cancelMessage != null && player != null) {
-                        GriefDefenderPlugin.sendClaimDenyMessage(toClaim, player, MessageCache.getInstance().PERMISSION_CLAIM_ENTER);
+                        TextAdapter.sendComponent(player, cancelMessage);
                     }
-                }
 
-                if (cancelMessage != null && player != null) {
-                    TextAdapter.sendComponent(player, cancelMessage);
-                }
-
-                if (targetEntity instanceof Vehicle) {
-                    final Vehicle vehicle = (Vehicle) targetEntity;
-                    vehicle.teleport(fromLocation);
-                    GDTimings.ENTITY_MOVE_EVENT.stopTiming();
+                    if (targetEntity instanceof Vehicle) {
+                        final Vehicle vehicle = (Vehicle) targetEntity;
+                        vehicle.teleport(fromLocation);
+                        return false;
+                    }
+                    if (event instanceof Cancellable) {
+                        ((Cancellable) event).setCancelled(true);
+                    }
                     return false;
                 }
-                if (event instanceof Cancellable) {
-                    ((Cancellable) event).setCancelled(true);
-                }
-                GDTimings.ENTITY_MOVE_EVENT.stopTiming();
-                return false;
-            }
 
-            if (user != null) {
-                final boolean showGpPrefix = GriefDefenderPlugin.getGlobalConfig().getConfig().message.enterExitShowGdPrefix;
-                user.getInternalPlayerData().lastClaim = new WeakReference<>(toClaim);
-                Component welcomeMessage = gpEvent.getEnterMessage().orElse(null);
-                if (welcomeMessage != null && !welcomeMessage.equals(TextComponent.empty())) {
-                    ChatType chatType = gpEvent.getEnterMessageChatType();
-                    if (chatType == ChatTypes.ACTION_BAR) {
-                        TextAdapter.sendActionBar(player, TextComponent.builder("")
-                                .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
-                                .append(welcomeMessage)
-                                .build());
-                    } else {
-                        TextAdapter.sendComponent(player, TextComponent.builder("")
-                                .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
-                                .append(welcomeMessage)
-                                .build());
+                if (user != null) {
+                    final boolean showGpPrefix = GriefDefenderPlugin.getGlobalConfig().getConfig().message.enterExitShowGdPrefix;
+                    user.getInternalPlayerData().lastClaim = new WeakReference<>(toClaim);
+                    Component welcomeMessage = gpEvent.getEnterMessage().orElse(null);
+                    if (welcomeMessage != null && !welcomeMessage.equals(TextComponent.empty())) {
+                        ChatType chatType = gpEvent.getEnterMessageChatType();
+                        if (chatType == ChatTypes.ACTION_BAR) {
+                            TextAdapter.sendActionBar(player, TextComponent.builder("")
+                                    .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
+                                    .append(welcomeMessage)
+                                    .build());
+                        } else {
+                            TextAdapter.sendComponent(player, TextComponent.builder("")
+                                    .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
+                                    .append(welcomeMessage)
+                                    .build());
+                        }
+                    }
+
+                    Component farewellMessage = gpEvent.getExitMessage().orElse(null);
+                    if (farewellMessage != null && !farewellMessage.equals(TextComponent.empty())) {
+                        ChatType chatType = gpEvent.getExitMessageChatType();
+                        if (chatType == ChatTypes.ACTION_BAR) {
+                            TextAdapter.sendActionBar(player, TextComponent.builder("")
+                                    .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
+                                    .append(farewellMessage)
+                                    .build());
+                        } else {
+                            TextAdapter.sendComponent(player, TextComponent.builder("")
+                                    .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
+                                    .append(farewellMessage)
+                                    .build());
+                        }
                     }
-                }
 
-                Component farewellMessage = gpEvent.getExitMessage().orElse(null);
-                if (farewellMessage != null && !farewellMessage.equals(TextComponent.empty())) {
-                    ChatType chatType = gpEvent.getExitMessageChatType();
-                    if (chatType == ChatTypes.ACTION_BAR) {
-                        TextAdapter.sendActionBar(player, TextComponent.builder("")
-                                .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
-                                .append(farewellMessage)
-                                .build());
+                    if (toClaim.isInTown()) {
+                        user.getInternalPlayerData().inTown = true;
                     } else {
-                        TextAdapter.sendComponent(player, TextComponent.builder("")
-                                .append(showGpPrefix ? GriefDefenderPlugin.GD_TEXT : TextComponent.empty())
-                                .append(farewellMessage)
-                                .build());
+                        user.getInternalPlayerData().inTown = false;
                     }
-                }
 
-                if (toClaim.isInTown()) {
-                    user.getInternalPlayerData().inTown = true;
-                } else {
-                    user.getInternalPlayerData().inTown = false;
+                    checkPlayerFlight(player, user.getInternalPlayerData(), fromClaim, toClaim);
                 }
-
-                checkPlayerFlight(player, user.getInternalPlayerData(), fromClaim, toClaim);
             }
+            return true;
+        } finally {
+            GDTimings.ENTITY_MOVE_EVENT.stopTiming();
         }
+    }
 
-        GDTimings.ENTITY_MOVE_EVENT.stopTiming();
-        return true;
+    private boolean isWithinClaimSafeBox(GDPlayerData playerData, World world, Vector3i fromPos, Vector3i toPos) {
+        final ClaimSafeBox safeBox = playerData.claimSafeBox;
+        if (safeBox == null || !safeBox.contains(toPos) || !safeBox.contains(fromPos)) {
+            return false;
+        }
+        final GDClaim lastClaim = playerData.lastClaim.get();
+        if (lastClaim != null && lastClaim != safeBox.getClaim()) {
+            return false;
+        }
+        final GDClaimManager claimManager = this.storage.getClaimWorldManager(world.getUID());
+        return claimManager != null && safeBox.isValid(claimManager);
     }
 
     private void checkPlayerFlight(Player player, GDPlayerData playerData, GDClaim fromClaim, GDClaim toClaim) {
@@ -94,9 +94,7 @@
 import org.bukkit.projectiles.ProjectileSource;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -237,27 +235,7 @@ public void onEntityExplodeEvent(EntityExplodeEvent event) {
         }
 
         GDTimings.EXPLOSION_EVENT.startTiming();
-        GDClaim targetClaim = null;
-        final List<Block> filteredLocations = new ArrayList<>();
-        for (Block block : event.blockList()) {
-            final Location location = block.getLocation();
-            targetClaim =  GriefDefenderPlugin.getInstance().dataStore.getClaimAt(location, targetClaim);
-            final Tristate result = GDPermissionManager.getInstance().getFinalPermission(event, location, targetClaim, GDPermissions.EXPLOSION_BLOCK, source, location.getBlock(), user, true);
-            if (result == Tristate.FALSE) {
-                // Avoid lagging server from large explosions.
-                if (event.blockList().size() > 100) {
-                    event.setCancelled(true);
-                    break;
-                }
-                filteredLocations.add(block);
-            }
-        }
-
-        if (event.isCancelled()) {
-            event.blockList().clear();
-        } else if (!filteredLocations.isEmpty()) {
-            event.blockList().removeAll(filteredLocations);
-        }
+        CommonBlockEventHandler.getInstance().filterExplosionBlocks(event, source, event.blockList(), user);
         GDTimings.EXPLOSION_EVENT.stopTiming();
     }
 
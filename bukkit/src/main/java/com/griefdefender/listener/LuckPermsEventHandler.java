@@ -24,31 +24,82 @@
  */
 package com.griefdefender.listener;
 
-import com.griefdefender.GriefDefenderPlugin;
 import com.griefdefender.cache.PermissionHolderCache;
 import com.griefdefender.permission.GDPermissionHolder;
+import com.griefdefender.provider.LuckPermsProvider;
 import me.lucko.luckperms.api.LuckPermsApi;
-import me.lucko.luckperms.api.event.group.GroupDataRecalculateEvent;
-import me.lucko.luckperms.api.event.user.UserDataRecalculateEvent;
+import me.lucko.luckperms.api.PermissionHolder;
+import me.lucko.luckperms.api.User;
+import me.lucko.luckperms.api.event.group.GroupLoadEvent;
+import me.lucko.luckperms.api.event.node.NodeAddEvent;
+import me.lucko.luckperms.api.event.node.NodeClearEvent;
+import me.lucko.luckperms.api.event.node.NodeRemoveEvent;
+import me.lucko.luckperms.api.event.sync.PostSyncEvent;
+import me.lucko.luckperms.api.event.user.UserLoadEvent;
 
+/**
+ * Keeps compiled permissions and GD's holder caches in sync with changes
+ * made in LuckPerms outside of GD.
+ */
 public class LuckPermsEventHandler {
 
-    private final LuckPermsApi luckPermsApi;
+    private final LuckPermsProvider provider;
+
+    public LuckPermsEventHandler(LuckPermsProvider provider) {
+        this.provider = provider;
+        final LuckPermsApi luckPermsApi = provider.getApi();
+        luckPermsApi.getEventBus().subscribe(NodeAddEvent.class, this::onNodeAdd);
+        luckPermsApi.getEventBus().subscribe(NodeRemoveEvent.class, this::onNodeRemove);
+        luckPermsApi.getEventBus().subscribe(NodeClearEvent.class, this::onNodeClear);
+        luckPermsApi.getEventBus().subscribe(UserLoadEvent.class, this::onUserLoad);
+        luckPermsApi.getEventBus().subscribe(GroupLoadEvent.class, this::onGroupLoad);
+        luckPermsApi.getEventBus().subscribe(PostSyncEvent.class, this::onPostSync);
+    }
+
+    public void onNodeAdd(NodeAddEvent event) {
+        this.provider.addCompiledNode(event.getTarget(), event.getNode());
+        this.invalidatePermissionCache(event.getTarget());
+        if (event.getNode().isMeta()) {
+            this.provider.requestExpiryRescan(event.getTarget(), event.getNode().getMeta().getKey());
+        }
+    }
+
+    public void onNodeRemove(NodeRemoveEvent event) {
+        this.provider.removeCompiledNode(event.getTarget(), event.getNode());
+        this.invalidatePermissionCache(event.getTarget());
+        if (event.getNode().isMeta()) {
+            this.provider.requestExpiryRescan(event.getTarget(), event.getNode().getMeta().getKey());
+        }
+    }
+
+    public void onNodeClear(NodeClearEvent event) {
+        this.provider.invalidateCompiledPermissions(event.getTarget());
+        this.invalidatePermissionCache(event.getTarget());
+        // Cleared nodes are unknown so assume expiration options were among them
+        this.provider.requestExpiryRescan(event.getTarget(), null);
+    }
+
+    public void onUserLoad(UserLoadEvent event) {
+        this.provider.invalidateCompiledPermissions(event.getUser());
+    }
 
-    public LuckPermsEventHandler(LuckPermsApi luckPermsApi) {
-        this.luckPermsApi = luckPermsApi;
-        this.luckPermsApi.getEventBus().subscribe(GroupDataRecalculateEvent.class, this::onGroupDataRecalculate);
-        this.luckPermsApi.getEventBus().subscribe(UserDataRecalculateEvent.class, this::onUserDataRecalculate);
+    public void onGroupLoad(GroupLoadEvent event) {
+        this.provider.invalidateCompiledPermissions(event.getGroup());
     }
 
-    public void onGroupDataRecalculate(GroupDataRecalculateEvent event) {
-        final GDPermissionHolder holder = PermissionHolderCache.getInstance().getOrCreateGroup(event.getGroup().getName());
-        PermissionHolderCache.getInstance().getOrCreatePermissionCache(holder).invalidateAll();
+    public void onPostSync(PostSyncEvent event) {
+        this.provider.invalidateAllCompiledPermissions();
     }
 
-    public void onUserDataRecalculate(UserDataRecalculateEvent event) {
-        final GDPermissionHolder holder = PermissionHolderCache.getInstance().getOrCreateUser(event.getUser().getUuid());
-        PermissionHolderCache.getInstance().getOrCreatePermissionCache(holder).invalidateAll();
-        PermissionHolderCache.getInstance().getOrCreatePermissionCache(GriefDefenderPlugin.DEFAULT_HOLDER).invalidateAll();
+    private void invalidatePermissionCache(PermissionHolder permissionHolder) {
+        if (permissionHolder instanceof User) {
+            final GDPermissionHolder holder = PermissionHolderCache.getInstance().getOrCreateUser(((User) permissionHolder).getUuid());
+            PermissionHolderCache.getInstance().getOrCreatePermissionCache(holder).invalidateAll();
+            PermissionHolderCache.getInstance().getOrCreateOptionCache(holder).invalidateAll();
+        } else {
+            // If a group is changed, we invalidate all cache
+            PermissionHolderCache.getInstance().invalidateAllPermissionCache();
+            PermissionHolderCache.getInstance().invalidateAllOptionCache();
+        }
     }
 }
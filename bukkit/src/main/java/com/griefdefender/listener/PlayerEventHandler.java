@@ -48,6 +48,7 @@
 import com.griefdefender.api.permission.option.type.CreateModeTypes;
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ClaimExpiryQueue;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.claim.GDClaimManager;
 import com.griefdefender.command.CommandHelper;
@@ -62,6 +63,7 @@
 import com.griefdefender.internal.util.NMSUtil;
 import com.griefdefender.internal.util.VecHelper;
 import com.griefdefender.internal.visual.ClaimVisual;
+import com.griefdefender.permission.EvaluationContext;
 import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.permission.GDPermissionUser;
 import com.griefdefender.permission.GDPermissions;
@@ -104,6 +106,7 @@
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerArmorStandManipulateEvent;
 import org.bukkit.event.player.PlayerBucketEmptyEvent;
 import org.bukkit.event.player.PlayerBucketEvent;
@@ -145,6 +148,16 @@ public PlayerEventHandler(BaseStorage dataStore) {
        // this.banService = Sponge.getServiceManager().getRegistration(BanService.class).get().getProvider();
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        // Read player storage here so join does not hit the disk on the main thread
+        this.dataStore.prefetchPlayerStorage(event.getUniqueId());
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerLogin(PlayerLoginEvent event) {
         GDTimings.PLAYER_LOGIN_EVENT.startTiming();
@@ -158,14 +171,13 @@ public void onPlayerLogin(PlayerLoginEvent event) {
         final UUID playerUniqueId = player.getUniqueId();
         final GDClaimManager claimWorldManager = this.dataStore.getClaimWorldManager(worldUniqueId);
         final Instant dateNow = Instant.now();
-        for (Claim claim : claimWorldManager.getWorldClaims()) {
-            if (claim.getType() != ClaimTypes.ADMIN && claim.getOwnerUniqueId().equals(playerUniqueId)) {
-                claim.getData().setDateLastActive(dateNow);
-                for (Claim subdivision : ((GDClaim) claim).children) {
-                    subdivision.getData().setDateLastActive(dateNow);
-                }
-                ((GDClaim) claim).getInternalClaimData().setRequiresSave(true);
+        for (Claim claim : claimWorldManager.getOwnerClaims(playerUniqueId)) {
+            claim.getData().setDateLastActive(dateNow);
+            for (Claim subdivision : ((GDClaim) claim).children) {
+                subdivision.getData().setDateLastActive(dateNow);
             }
+            ((GDClaim) claim).getInternalClaimData().setRequiresSave(true);
+            ClaimExpiryQueue.getInstance().schedule((GDClaim) claim);
         }
         GDTimings.PLAYER_LOGIN_EVENT.stopTiming();
     }
@@ -378,7 +390,9 @@ private void onInventoryOpen(Event event, Location location, Object target, Huma
         final GDClaim claim = this.dataStore.getClaimAt(location);
         final GDPermissionUser user = PermissionHolderCache.getInstance().getOrCreateUser(player.getUniqueId());
         if (user.getInternalPlayerData() != null && user.getInternalPlayerData().eventResultCache != null && user.getInternalPlayerData().eventResultCache.checkEventResultCache(claim, Flags.INTERACT_BLOCK_SECONDARY.getName()) == Tristate.TRUE) {
-            GDPermissionManager.getInstance().processResult(claim, Flags.INTERACT_INVENTORY.getPermission(), "cache", Tristate.TRUE, user);
+            final EvaluationContext evaluation = new EvaluationContext(event, location, user);
+            evaluation.targetId = targetId.toLowerCase();
+            GDPermissionManager.getInstance().processResult(evaluation, claim, Flags.INTERACT_INVENTORY.getPermission(), "cache", Tristate.TRUE, user);
             GDTimings.PLAYER_INTERACT_INVENTORY_OPEN_EVENT.stopTiming();
             return;
         }
@@ -848,16 +862,16 @@ public void onPlayerTeleport(PlayerTeleportEvent event) {
 
             // update lastActive timestamps for claims this player owns
             UUID playerUniqueId = player.getUniqueId();
-            for (Claim claim : this.dataStore.getClaimWorldManager(toWorld.getUID()).getWorldClaims()) {
-                if (claim.getOwnerUniqueId().equals(playerUniqueId)) {
-                    // update lastActive timestamp for claim
-                    claim.getData().setDateLastActive(Instant.now());
-                    claimWorldManager.addClaim(claim);
-                } else if (claim.getParent().isPresent() && claim.getParent().get().getOwnerUniqueId().equals(playerUniqueId)) {
+            final Instant dateNow = Instant.now();
+            for (Claim claim : claimWorldManager.getOwnerClaims(playerUniqueId)) {
+                // update lastActive timestamp for claim
+                claim.getData().setDateLastActive(dateNow);
+                for (Claim subdivision : ((GDClaim) claim).children) {
                     // update lastActive timestamp for subdivisions if parent owner logs on
-                    claim.getData().setDateLastActive(Instant.now());
-                    claimWorldManager.addClaim(claim);
+                    subdivision.getData().setDateLastActive(dateNow);
                 }
+                ((GDClaim) claim).getInternalClaimData().setRequiresSave(true);
+                ClaimExpiryQueue.getInstance().schedule((GDClaim) claim);
             }
         }
 
@@ -27,9 +27,6 @@
 import com.griefdefender.GDTimings;
 import com.griefdefender.GriefDefenderPlugin;
 import com.griefdefender.claim.GDClaimManager;
-import com.griefdefender.internal.tracking.chunk.GDChunk;
-
-import java.io.IOException;
 
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -72,25 +69,12 @@ public void onWorldSave(WorldSaveEvent event) {
     @EventHandler(priority = EventPriority.LOWEST)
     public void onChunkLoad(ChunkLoadEvent event) {
         final GDClaimManager claimWorldManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(event.getWorld().getUID());
-        final GDChunk gpChunk = claimWorldManager.getChunk(event.getChunk());
-        if (gpChunk != null) {
-            try {
-                gpChunk.loadChunkTrackingData();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
+        claimWorldManager.loadChunk(event.getChunk());
     }
 
     @EventHandler(priority = EventPriority.LOWEST)
     public void onChunkUnload(ChunkUnloadEvent event) {
         final GDClaimManager claimWorldManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(event.getWorld().getUID());
-        final GDChunk gpChunk = claimWorldManager.getChunk(event.getChunk());
-        if (gpChunk != null) {
-            if (gpChunk.getTrackedShortPlayerPositions().size() > 0) {
-                gpChunk.saveChunkTrackingData();
-            }
-            claimWorldManager.removeChunk(event.getChunk());
-        }
+        claimWorldManager.unloadChunk(event.getChunk());
     }
 }
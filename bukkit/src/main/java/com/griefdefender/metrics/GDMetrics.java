@@ -0,0 +1,149 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.metrics;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.storage.ClaimSaveQueue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Process wide registry of GD counters and latency histograms.
+ *
+ * <p>Recording is lock free and skipped entirely when metrics are disabled
+ * in the global config. Values are read by {@link PrometheusExporter} and
+ * the metrics command.</p>
+ */
+public class GDMetrics {
+
+    private static volatile boolean enabled = false;
+    // Bumped once per server tick by the player tick task
+    private static int currentTick = 0;
+
+    public static final LongAdder CLAIM_LOOKUPS = new LongAdder();
+    public static final LatencyHistogram CLAIM_LOOKUP_LATENCY = new LatencyHistogram();
+    public static final LabeledCounter PERMISSION_CHECKS = new LabeledCounter("flag");
+    public static final LatencyHistogram PERMISSION_CHECK_LATENCY = new LatencyHistogram();
+    public static final LabeledCounter CACHE_HITS = new LabeledCounter("cache");
+    public static final LabeledCounter CACHE_MISSES = new LabeledCounter("cache");
+    public static final LabeledCounter STORAGE_SAVES = new LabeledCounter("type");
+
+    private static final Map<String, LatencyHistogram> EVENT_LATENCY = new ConcurrentHashMap<>();
+    private static final Map<String, Supplier<CacheStats>> CACHE_STATS = new LinkedHashMap<>();
+    private static final Map<String, Supplier<Number>> QUEUE_DEPTHS = new LinkedHashMap<>();
+
+    static {
+        CACHE_STATS.put("permission", () -> PermissionHolderCache.getInstance().getPermissionCacheStats());
+        CACHE_STATS.put("option", () -> PermissionHolderCache.getInstance().getOptionCacheStats());
+        CACHE_STATS.put("holder", () -> PermissionHolderCache.getInstance().getHolderCacheStats());
+        QUEUE_DEPTHS.put("claim-save", () -> ClaimSaveQueue.getInstance().getPendingCount());
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static int getCurrentTick() {
+        return currentTick;
+    }
+
+    public static void nextTick() {
+        currentTick++;
+    }
+
+    public static void recordClaimLookup(long nanos) {
+        CLAIM_LOOKUPS.increment();
+        CLAIM_LOOKUP_LATENCY.record(nanos);
+    }
+
+    public static void recordPermissionCheck(String flagPermission, long nanos) {
+        PERMISSION_CHECKS.increment(flagPermission == null ? "none" : flagPermission);
+        PERMISSION_CHECK_LATENCY.record(nanos);
+    }
+
+    public static void recordCacheResult(String cache, boolean hit) {
+        if (!enabled) {
+            return;
+        }
+        if (hit) {
+            CACHE_HITS.increment(cache);
+        } else {
+            CACHE_MISSES.increment(cache);
+        }
+    }
+
+    public static void recordStorageSave(String type) {
+        if (enabled) {
+            STORAGE_SAVES.increment(type);
+        }
+    }
+
+    public static LatencyHistogram getEventLatency(String handler) {
+        return EVENT_LATENCY.computeIfAbsent(handler, k -> new LatencyHistogram());
+    }
+
+    public static Map<String, LatencyHistogram> getEventLatencies() {
+        return Collections.unmodifiableMap(EVENT_LATENCY);
+    }
+
+    /**
+     * Gets hit and miss totals for every cache, combining Caffeine statistics
+     * with caches that record results manually.
+     *
+     * @return A map of cache name to a {hits, misses} pair
+     */
+    public static Map<String, long[]> getCacheResults() {
+        final Map<String, long[]> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<CacheStats>> entry : CACHE_STATS.entrySet()) {
+            final CacheStats stats = entry.getValue().get();
+            results.put(entry.getKey(), new long[] {stats.hitCount(), stats.missCount()});
+        }
+        for (Map.Entry<String, LongAdder> entry : CACHE_HITS.getCounters().entrySet()) {
+            results.computeIfAbsent(entry.getKey(), k -> new long[2])[0] += entry.getValue().sum();
+        }
+        for (Map.Entry<String, LongAdder> entry : CACHE_MISSES.getCounters().entrySet()) {
+            results.computeIfAbsent(entry.getKey(), k -> new long[2])[1] += entry.getValue().sum();
+        }
+        return results;
+    }
+
+    public static Map<String, Long> getQueueDepths() {
+        final Map<String, Long> depths = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<Number>> entry : QUEUE_DEPTHS.entrySet()) {
+            depths.put(entry.getKey(), entry.getValue().get().longValue());
+        }
+        return depths;
+    }
+}
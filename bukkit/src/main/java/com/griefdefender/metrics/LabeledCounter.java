@@ -0,0 +1,84 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter family keyed by a single label value.
+ *
+ * <p>The number of distinct label values is capped so a misbehaving caller
+ * cannot grow the export without bound. Values past the cap are counted
+ * under {@link #OVERFLOW_LABEL}.</p>
+ */
+public class LabeledCounter {
+
+    public static final String OVERFLOW_LABEL = "other";
+    private static final int MAX_LABELS = 512;
+
+    private final String labelName;
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public LabeledCounter(String labelName) {
+        this.labelName = labelName;
+    }
+
+    public String getLabelName() {
+        return this.labelName;
+    }
+
+    public void increment(String label) {
+        this.get(label).increment();
+    }
+
+    public void add(String label, long amount) {
+        this.get(label).add(amount);
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (LongAdder counter : this.counters.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    public Map<String, LongAdder> getCounters() {
+        return this.counters;
+    }
+
+    private LongAdder get(String label) {
+        LongAdder counter = this.counters.get(label);
+        if (counter != null) {
+            return counter;
+        }
+        if (this.counters.size() >= MAX_LABELS) {
+            label = OVERFLOW_LABEL;
+        }
+        return this.counters.computeIfAbsent(label, k -> new LongAdder());
+    }
+}
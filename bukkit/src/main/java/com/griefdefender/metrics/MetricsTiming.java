@@ -0,0 +1,77 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.metrics;
+
+import co.aikar.timings.lib.MCTiming;
+import org.bukkit.Bukkit;
+
+/**
+ * Wraps an aikar timing so each outermost start/stop pair on the main
+ * thread is also recorded in a {@link LatencyHistogram}.
+ *
+ * <p>Nesting depth is reset on the first start of each tick so a missed
+ * stop cannot block recording for the rest of the session.</p>
+ */
+public class MetricsTiming extends MCTiming {
+
+    private final MCTiming timing;
+    private final LatencyHistogram histogram;
+    private int depth = 0;
+    private long startNanos;
+    private int startTick;
+
+    public MetricsTiming(String name, MCTiming timing) {
+        this.timing = timing;
+        this.histogram = GDMetrics.getEventLatency(name);
+    }
+
+    @Override
+    public MCTiming startTiming() {
+        this.timing.startTiming();
+        if (!Bukkit.isPrimaryThread()) {
+            return this;
+        }
+        final int tick = GDMetrics.getCurrentTick();
+        if (this.depth > 0 && this.startTick != tick) {
+            this.depth = 0;
+        }
+        if (this.depth++ == 0) {
+            this.startNanos = System.nanoTime();
+            this.startTick = tick;
+        }
+        return this;
+    }
+
+    @Override
+    public void stopTiming() {
+        this.timing.stopTiming();
+        if (!Bukkit.isPrimaryThread() || this.depth == 0) {
+            return;
+        }
+        if (--this.depth == 0 && GDMetrics.isEnabled()) {
+            this.histogram.record(System.nanoTime() - this.startNanos);
+        }
+    }
+}
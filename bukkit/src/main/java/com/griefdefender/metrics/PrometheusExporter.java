@@ -0,0 +1,237 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.metrics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.griefdefender.GriefDefenderPlugin;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Renders {@link GDMetrics} in the Prometheus text exposition format.
+ *
+ * <p>Metrics are only rendered on demand, either when written to a file or
+ * when scraped from the optional HTTP endpoint. The endpoint always binds to
+ * the loopback address.</p>
+ */
+public class PrometheusExporter {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static PrometheusExporter instance;
+
+    private HttpServer httpServer;
+    private ExecutorService httpExecutor;
+
+    public static PrometheusExporter getInstance() {
+        return instance;
+    }
+
+    static {
+        instance = new PrometheusExporter();
+    }
+
+    public String scrape() {
+        final StringBuilder builder = new StringBuilder(4096);
+        writeHeader(builder, "griefdefender_claim_lookups_total", "counter", "Claim lookups by position.");
+        writeSample(builder, "griefdefender_claim_lookups_total", null, null, GDMetrics.CLAIM_LOOKUPS.sum());
+        writeHistogram(builder, "griefdefender_claim_lookup_duration_seconds", "Latency of getClaimAt.", null, null, GDMetrics.CLAIM_LOOKUP_LATENCY, true);
+
+        writeHeader(builder, "griefdefender_permission_checks_total", "counter", "Flag permission checks by flag permission.");
+        writeCounters(builder, "griefdefender_permission_checks_total", GDMetrics.PERMISSION_CHECKS);
+        writeHistogram(builder, "griefdefender_permission_check_duration_seconds", "Latency of getFinalPermission.", null, null, GDMetrics.PERMISSION_CHECK_LATENCY, true);
+
+        final Map<String, long[]> cacheResults = GDMetrics.getCacheResults();
+        writeHeader(builder, "griefdefender_cache_hits_total", "counter", "Cache hits by cache.");
+        for (Map.Entry<String, long[]> entry : cacheResults.entrySet()) {
+            writeSample(builder, "griefdefender_cache_hits_total", "cache", entry.getKey(), entry.getValue()[0]);
+        }
+        writeHeader(builder, "griefdefender_cache_misses_total", "counter", "Cache misses by cache.");
+        for (Map.Entry<String, long[]> entry : cacheResults.entrySet()) {
+            writeSample(builder, "griefdefender_cache_misses_total", "cache", entry.getKey(), entry.getValue()[1]);
+        }
+
+        writeHeader(builder, "griefdefender_storage_saves_total", "counter", "Data files written to storage by type.");
+        writeCounters(builder, "griefdefender_storage_saves_total", GDMetrics.STORAGE_SAVES);
+
+        writeHeader(builder, "griefdefender_queue_depth", "gauge", "Current number of entries waiting in a queue.");
+        for (Map.Entry<String, Long> entry : GDMetrics.getQueueDepths().entrySet()) {
+            writeSample(builder, "griefdefender_queue_depth", "queue", entry.getKey(), entry.getValue());
+        }
+
+        boolean first = true;
+        for (Map.Entry<String, LatencyHistogram> entry : GDMetrics.getEventLatencies().entrySet()) {
+            writeHistogram(builder, "griefdefender_event_duration_seconds", "Latency of event handlers.", "handler", entry.getKey(), entry.getValue(), first);
+            first = false;
+        }
+        return builder.toString();
+    }
+
+    public void exportToFile(Path path) throws IOException {
+        if (path.getParent() != null && Files.notExists(path.getParent())) {
+            Files.createDirectories(path.getParent());
+        }
+        final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(tempPath, this.scrape().getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public synchronized void startHttpServer(int port) {
+        this.stopHttpServer();
+        if (port <= 0) {
+            return;
+        }
+
+        try {
+            this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Could not bind metrics endpoint to 127.0.0.1:" + port, e);
+            return;
+        }
+        this.httpExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("GriefDefender Metrics HTTP")
+                .setDaemon(true)
+                .build());
+        this.httpServer.setExecutor(this.httpExecutor);
+        this.httpServer.createContext("/metrics", this::handleScrape);
+        this.httpServer.start();
+        GriefDefenderPlugin.getInstance().getLogger().info("Serving metrics on http://127.0.0.1:" + port + "/metrics");
+    }
+
+    public synchronized void stopHttpServer() {
+        if (this.httpServer != null) {
+            this.httpServer.stop(0);
+            this.httpServer = null;
+        }
+        if (this.httpExecutor != null) {
+            this.httpExecutor.shutdownNow();
+            this.httpExecutor = null;
+        }
+    }
+
+    private void handleScrape(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final byte[] body = this.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void writeHeader(StringBuilder builder, String name, String type, String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeCounters(StringBuilder builder, String name, LabeledCounter counter) {
+        for (Map.Entry<String, LongAdder> entry : counter.getCounters().entrySet()) {
+            writeSample(builder, name, counter.getLabelName(), entry.getKey(), entry.getValue().sum());
+        }
+    }
+
+    private static void writeHistogram(StringBuilder builder, String name, String help, String labelName, String labelValue, LatencyHistogram histogram, boolean header) {
+        if (header) {
+            writeHeader(builder, name, "histogram", help);
+        }
+        final long[] counts = histogram.getBucketCounts();
+        long cumulative = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKET_BOUNDS.length; i++) {
+            cumulative += counts[i];
+            builder.append(name).append("_bucket{");
+            if (labelName != null) {
+                appendLabel(builder, labelName, labelValue).append(',');
+            }
+            builder.append("le=\"").append(toSeconds(LatencyHistogram.BUCKET_BOUNDS[i])).append("\"} ").append(cumulative).append('\n');
+        }
+        cumulative += counts[counts.length - 1];
+        builder.append(name).append("_bucket{");
+        if (labelName != null) {
+            appendLabel(builder, labelName, labelValue).append(',');
+        }
+        builder.append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        builder.append(name).append("_sum");
+        if (labelName != null) {
+            appendLabel(builder.append('{'), labelName, labelValue).append('}');
+        }
+        builder.append(' ').append(toSeconds(histogram.getSumNanos())).append('\n');
+        // use the bucket total so count always matches the +Inf bucket
+        writeSample(builder, name + "_count", labelName, labelValue, cumulative);
+    }
+
+    private static void writeSample(StringBuilder builder, String name, String labelName, String labelValue, long value) {
+        builder.append(name);
+        if (labelName != null) {
+            appendLabel(builder.append('{'), labelName, labelValue).append('}');
+        }
+        builder.append(' ').append(value).append('\n');
+    }
+
+    private static StringBuilder appendLabel(StringBuilder builder, String labelName, String labelValue) {
+        builder.append(labelName).append("=\"");
+        for (int i = 0; i < labelValue.length(); i++) {
+            final char c = labelValue.charAt(i);
+            if (c == '\\' || c == '"') {
+                builder.append('\\').append(c);
+            } else if (c == '\n') {
+                builder.append("\\n");
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"');
+    }
+
+    private static String toSeconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.permission;
+
+import com.griefdefender.configuration.category.BanCategory;
+import org.apache.commons.io.FilenameUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves block, entity and item ids against the global {@link BanCategory}.
+ *
+ * <p>Ban entries are split into exact ids, wildcards under a fixed mod id
+ * and free wildcards, so a lookup only pattern matches entries that could
+ * apply to the id's mod. Each resolved id, banned or not, is remembered
+ * until the {@link GDPermissionManager} replaces the index after a ban
+ * command or config reload.</p>
+ */
+public class BanIndex {
+
+    private final TypeIndex blocks;
+    private final TypeIndex entities;
+    private final TypeIndex items;
+
+    public BanIndex(BanCategory banCategory) {
+        this.blocks = new TypeIndex(banCategory.getBlockMap().keySet());
+        this.entities = new TypeIndex(banCategory.getEntityMap().keySet());
+        this.items = new TypeIndex(banCategory.getItemMap().keySet());
+    }
+
+    /**
+     * Gets the block ban entry matching an id.
+     *
+     * @param id The block id
+     * @return The matching ban entry, or null if not banned
+     */
+    @Nullable
+    public String getBlockBan(String id) {
+        return this.blocks.getBan(id);
+    }
+
+    @Nullable
+    public String getEntityBan(String id) {
+        return this.entities.getBan(id);
+    }
+
+    @Nullable
+    public String getItemBan(String id) {
+        return this.items.getBan(id);
+    }
+
+    private static class TypeIndex {
+
+        // Bounds the cached results in case ids are unbounded
+        private static final int MAX_RESULTS = 4096;
+        // Marks ids that are not banned
+        private static final String NOT_BANNED = "";
+
+        private final Set<String> exactIds = new HashSet<>();
+        private final Map<String, List<String>> modWildcards = new HashMap<>();
+        private final List<String> wildcards = new ArrayList<>();
+        private final Map<String, String> results = new ConcurrentHashMap<>();
+
+        TypeIndex(Set<String> bans) {
+            for (String ban : bans) {
+                if (ban == null || ban.isEmpty()) {
+                    continue;
+                }
+                if (ban.indexOf('*') == -1 && ban.indexOf('?') == -1) {
+                    this.exactIds.add(ban);
+                    continue;
+                }
+                final int index = ban.indexOf(':');
+                final String modId = index == -1 ? null : ban.substring(0, index);
+                if (modId != null && modId.indexOf('*') == -1 && modId.indexOf('?') == -1) {
+                    this.modWildcards.computeIfAbsent(modId, k -> new ArrayList<>()).add(ban);
+                } else {
+                    this.wildcards.add(ban);
+                }
+            }
+        }
+
+        @Nullable
+        String getBan(String id) {
+            if (this.exactIds.isEmpty() && this.modWildcards.isEmpty() && this.wildcards.isEmpty()) {
+                return null;
+            }
+
+            String ban = this.results.get(id);
+            if (ban == null) {
+                ban = this.findBan(id);
+                if (this.results.size() >= MAX_RESULTS) {
+                    this.results.clear();
+                }
+                this.results.put(id, ban == null ? NOT_BANNED : ban);
+            }
+            return ban.isEmpty() ? null : ban;
+        }
+
+        @Nullable
+        private String findBan(String id) {
+            if (this.exactIds.contains(id)) {
+                return id;
+            }
+            final int index = id.indexOf(':');
+            if (index != -1) {
+                final List<String> modBans = this.modWildcards.get(id.substring(0, index));
+                if (modBans != null) {
+                    for (String ban : modBans) {
+                        if (FilenameUtils.wildcardMatch(id, ban)) {
+                            return ban;
+                        }
+                    }
+                }
+            }
+            for (String ban : this.wildcards) {
+                if (FilenameUtils.wildcardMatch(id, ban)) {
+                    return ban;
+                }
+            }
+            return null;
+        }
+    }
+}
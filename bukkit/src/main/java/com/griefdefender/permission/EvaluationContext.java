@@ -0,0 +1,60 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.permission;
+
+import com.griefdefender.GDPlayerData;
+import com.griefdefender.api.permission.Context;
+import net.kyori.text.Component;
+import org.bukkit.Location;
+import org.bukkit.event.Event;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * State gathered while evaluating a single flag permission check.
+ *
+ * <p>A new instance is created for every call to
+ * {@link GDPermissionManager#getFinalPermission} and passed down the
+ * evaluation, so checks are reentrant and may run off the main thread.</p>
+ */
+public class EvaluationContext {
+
+    @Nullable public final Event event;
+    @Nullable public final Location location;
+    @Nullable public final GDPermissionUser subject;
+    @Nullable public GDPlayerData playerData;
+    public String sourceId = "none";
+    public String targetId = "none";
+    public Set<Context> contexts = new HashSet<>();
+    @Nullable public Component message;
+
+    public EvaluationContext(@Nullable Event event, @Nullable Location location, @Nullable GDPermissionUser subject) {
+        this.event = event;
+        this.location = location;
+        this.subject = subject;
+    }
+}
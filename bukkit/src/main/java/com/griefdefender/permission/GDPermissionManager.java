@@ -25,6 +25,7 @@
  */
 package com.griefdefender.permission;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
 import com.griefdefender.GDPlayerData;
@@ -48,6 +49,7 @@
 import com.griefdefender.api.permission.option.type.CreateModeTypes;
 import com.griefdefender.cache.EventResultCache;
 import com.griefdefender.cache.MessageCache;
+import com.griefdefender.cache.OptionCacheKey;
 import com.griefdefender.cache.PermissionHolderCache;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.command.CommandHelper;
@@ -60,6 +62,7 @@
 import com.griefdefender.internal.registry.GDEntityType;
 import com.griefdefender.internal.registry.ItemTypeRegistryModule;
 import com.griefdefender.internal.util.NMSUtil;
+import com.griefdefender.metrics.GDMetrics;
 import com.griefdefender.registry.FlagRegistryModule;
 import com.griefdefender.util.PermissionUtil;
 
@@ -68,7 +71,6 @@
 import net.kyori.text.adapter.bukkit.TextAdapter;
 import net.kyori.text.format.TextColor;
 
-import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -91,13 +93,13 @@
 import org.bukkit.event.player.PlayerTeleportEvent.TeleportCause;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -110,14 +112,9 @@ public class GDPermissionManager implements PermissionManager {
 
     private static GDPermissionManager instance;
     public boolean blacklistCheck = false;
-    private Event currentEvent;
-    private Location eventLocation;
-    private GDPermissionHolder eventSubject;
-    private GDPlayerData eventPlayerData;
-    private String eventSourceId = "none";
-    private String eventTargetId = "none";
-    private Set<Context> eventContexts = new HashSet<>();
-    private Component eventMessage;
+    private volatile BanIndex banIndex;
+    // Message of the last check made by each thread, read back by listeners after a denial
+    private final ThreadLocal<Component> lastEventMessage = new ThreadLocal<>();
     private static final Pattern PATTERN_META = Pattern.compile("\\.[\\d+]*$");
     private static final List<Context> CONTEXT_LIST = Arrays.asList(
             ClaimContexts.ADMIN_DEFAULT_CONTEXT, ClaimContexts.ADMIN_OVERRIDE_CONTEXT,
@@ -168,53 +165,67 @@ public Tristate getFinalPermission(Event event, Location location, Claim claim,
     }
 
     public Tristate getFinalPermission(Event event, Location location, Set<Context> contexts, Claim claim, String flagPermission, Object source, Object target, GDPermissionHolder permissionHolder, TrustType type, boolean checkOverride) {
+        if (!GDMetrics.isEnabled()) {
+            return this.evaluateFinalPermission(event, location, contexts, claim, flagPermission, source, target, permissionHolder, type, checkOverride);
+        }
+
+        final long start = System.nanoTime();
+        final Tristate result = this.evaluateFinalPermission(event, location, contexts, claim, flagPermission, source, target, permissionHolder, type, checkOverride);
+        GDMetrics.recordPermissionCheck(flagPermission, System.nanoTime() - start);
+        return result;
+    }
+
+    private Tristate evaluateFinalPermission(Event event, Location location, Set<Context> contexts, Claim claim, String flagPermission, Object source, Object target, GDPermissionHolder permissionHolder, TrustType type, boolean checkOverride) {
+        this.lastEventMessage.remove();
         if (claim == null) {
             return Tristate.TRUE;
         }
 
-        GDPlayerData playerData = null;
         final GDPermissionUser user = permissionHolder instanceof GDPermissionUser ? (GDPermissionUser) permissionHolder : null;
-        this.eventSubject = user;
-        this.eventMessage = null;
-        if (permissionHolder != null) {
-            if (user != null) {
-                playerData = GriefDefenderPlugin.getInstance().dataStore.getOrCreatePlayerData(claim.getWorldUniqueId(), user.getUniqueId());
-            }
+        final EvaluationContext evaluation = new EvaluationContext(event, location, user);
+        final Tristate result = this.evaluateFinalPermission(evaluation, contexts, claim, flagPermission, source, target, permissionHolder, type, checkOverride);
+        if (evaluation.message != null) {
+            this.lastEventMessage.set(evaluation.message);
+        }
+        return result;
+    }
+
+    private Tristate evaluateFinalPermission(EvaluationContext evaluation, Set<Context> contexts, Claim claim, String flagPermission, Object source, Object target, GDPermissionHolder permissionHolder, TrustType type, boolean checkOverride) {
+        GDPlayerData playerData = null;
+        final GDPermissionUser user = evaluation.subject;
+        if (user != null) {
+            playerData = GriefDefenderPlugin.getInstance().dataStore.getOrCreatePlayerData(claim.getWorldUniqueId(), user.getUniqueId());
         }
 
-        this.currentEvent = event;
-        this.eventLocation = location;
-        // refresh contexts
-        this.eventContexts = new HashSet<>();
         /*final ItemStackSnapshot usedItem = event.getContext().get(EventContextKeys.USED_ITEM).orElse(null);
         final DamageType damageType = event.getContext().get(EventContextKeys.DAMAGE_TYPE).orElse(null);
         if (usedItem != null) {
             //final String id = getPermissionIdentifier(usedItem);
-            this.eventContexts.add(new Context("used_item", usedItem.getType().getId()));
+            evaluation.contexts.add(new Context("used_item", usedItem.getType().getId()));
         }
         if (damageType != null) {
             //final String id = getPermissionIdentifier(damageType);
-            this.eventContexts.add(new Context("damage_type", damageType.getId()));
+            evaluation.contexts.add(new Context("damage_type", damageType.getId()));
         }*/
         if (user != null) {
             if (user.getOnlinePlayer() != null) {
-                this.addPlayerContexts(user.getOnlinePlayer(), contexts);
+                this.addPlayerContexts(user.getOnlinePlayer(), contexts, evaluation.event);
             }
         }
 
-        final Set<Context> sourceContexts = this.getPermissionContexts((GDClaim) claim, source, true);
+        final Set<Context> sourceContexts = this.getPermissionContexts(evaluation, (GDClaim) claim, source, true);
         if (sourceContexts == null) {
             return Tristate.FALSE;
         }
 
-        final Set<Context> targetContexts = this.getPermissionContexts((GDClaim) claim, target, false);
+        final Set<Context> targetContexts = this.getPermissionContexts(evaluation, (GDClaim) claim, target, false);
         if (targetContexts == null) {
             return Tristate.FALSE;
         }
         contexts.addAll(sourceContexts);
         contexts.addAll(targetContexts);
-        this.eventContexts = contexts;
-        this.eventPlayerData = playerData;
+        evaluation.contexts = contexts;
+        evaluation.playerData = playerData;
 
         String targetPermission = flagPermission;
        /* if (!targetId.isEmpty()) {
@@ -240,12 +251,12 @@ public Tristate getFinalPermission(Event event, Location location, Set<Context>
         }*/
 
         if (user != null && playerData != null && !playerData.debugClaimPermissions && playerData.canIgnoreClaim(claim)) {
-            return processResult(claim, targetPermission, "ignore", Tristate.TRUE, user);
+            return processResult(evaluation, claim, targetPermission, "ignore", Tristate.TRUE, user);
         }
         if (checkOverride) {
             Tristate override = Tristate.UNDEFINED;
             // First check for claim flag overrides
-            override = getFlagOverride(claim, permissionHolder == null ? GriefDefenderPlugin.DEFAULT_HOLDER : permissionHolder, playerData, targetPermission);
+            override = getFlagOverride(evaluation, claim, permissionHolder == null ? GriefDefenderPlugin.DEFAULT_HOLDER : permissionHolder, playerData, targetPermission);
             if (override != Tristate.UNDEFINED) {
                 return override;
             }
@@ -254,31 +265,31 @@ public Tristate getFinalPermission(Event event, Location location, Set<Context>
         if (playerData != null && user != null) {
             if (playerData.debugClaimPermissions) {
                 if (type != null && claim.isUserTrusted(user.getUniqueId(), type)) {
-                    return processResult(claim, targetPermission, type.getName().toLowerCase(), Tristate.TRUE, user);
+                    return processResult(evaluation, claim, targetPermission, type.getName().toLowerCase(), Tristate.TRUE, user);
                 }
-                return getClaimFlagPermission(claim, targetPermission);
+                return getClaimFlagPermission(evaluation, claim, targetPermission);
             }
              // Check for ignoreclaims after override and debug checks
             if (playerData.canIgnoreClaim(claim)) {
-                return processResult(claim, targetPermission, "ignore", Tristate.TRUE, user);
+                return processResult(evaluation, claim, targetPermission, "ignore", Tristate.TRUE, user);
             }
         }
         if (user != null) {
             if (type != null) {
                 if (((GDClaim) claim).isUserTrusted(user, type)) {
-                    return processResult(claim, targetPermission, type.getName().toLowerCase(), Tristate.TRUE, permissionHolder);
+                    return processResult(evaluation, claim, targetPermission, type.getName().toLowerCase(), Tristate.TRUE, permissionHolder);
                 }
             }
-            return getUserPermission(user, claim, targetPermission);
+            return getUserPermission(evaluation, user, claim, targetPermission);
         }
 
-        return getClaimFlagPermission(claim, targetPermission);
+        return getClaimFlagPermission(evaluation, claim, targetPermission);
     }
 
-    private Tristate getUserPermission(GDPermissionHolder holder, Claim claim, String permission) {
+    private Tristate getUserPermission(EvaluationContext evaluation, GDPermissionHolder holder, Claim claim, String permission) {
         final List<Claim> inheritParents = claim.getInheritedParents();
         final Set<Context> contexts = new HashSet<>();
-        contexts.addAll(this.eventContexts);
+        contexts.addAll(evaluation.contexts);
 
         for (Claim parentClaim : inheritParents) {
             GDClaim parent = (GDClaim) parentClaim;
@@ -286,7 +297,7 @@ private Tristate getUserPermission(GDPermissionHolder holder, Claim claim, Strin
             contexts.add(parent.getContext());
             Tristate value = PermissionUtil.getInstance().getPermissionValue((GDClaim) claim, holder, permission, contexts);
             if (value != Tristate.UNDEFINED) {
-                return processResult(claim, permission, value, holder);
+                return processResult(evaluation, claim, permission, value, holder);
             }
 
             contexts.remove(parent.getContext());
@@ -296,31 +307,31 @@ private Tristate getUserPermission(GDPermissionHolder holder, Claim claim, Strin
         contexts.add(claim.getType().getContext());
         Tristate value = PermissionUtil.getInstance().getPermissionValue((GDClaim) claim, holder, permission, contexts);
         if (value != Tristate.UNDEFINED) {
-            return processResult(claim, permission, value, holder);
+            return processResult(evaluation, claim, permission, value, holder);
         }
 
         if (holder == GriefDefenderPlugin.DEFAULT_HOLDER) {
-            return getFlagDefaultPermission(claim, permission, contexts);
+            return getFlagDefaultPermission(evaluation, claim, permission, contexts);
         }
 
-        return getClaimFlagPermission(claim, permission, contexts);
+        return getClaimFlagPermission(evaluation, claim, permission, contexts);
     }
 
-    private Tristate getClaimFlagPermission(Claim claim, String permission) {
-        return this.getClaimFlagPermission(claim, permission, new HashSet<>());
+    private Tristate getClaimFlagPermission(EvaluationContext evaluation, Claim claim, String permission) {
+        return this.getClaimFlagPermission(evaluation, claim, permission, new HashSet<>());
     }
 
-    private Tristate getClaimFlagPermission(Claim claim, String permission, Set<Context> contexts) {
+    private Tristate getClaimFlagPermission(EvaluationContext evaluation, Claim claim, String permission, Set<Context> contexts) {
         if (contexts.isEmpty()) {
             final List<Claim> inheritParents = claim.getInheritedParents();
-            contexts.addAll(this.eventContexts);
+            contexts.addAll(evaluation.contexts);
             for (Claim parentClaim : inheritParents) {
                 GDClaim parent = (GDClaim) parentClaim;
                 // check parent context
                 contexts.add(parent.getContext());
                 Tristate value = PermissionUtil.getInstance().getPermissionValue((GDClaim) claim, GriefDefenderPlugin.DEFAULT_HOLDER, permission, contexts);
                 if (value != Tristate.UNDEFINED) {
-                    return processResult(claim, permission, value, GriefDefenderPlugin.DEFAULT_HOLDER);
+                    return processResult(evaluation, claim, permission, value, GriefDefenderPlugin.DEFAULT_HOLDER);
                 }
 
                 contexts.remove(parent.getContext());
@@ -330,30 +341,30 @@ private Tristate getClaimFlagPermission(Claim claim, String permission, Set<Cont
 
         Tristate value = PermissionUtil.getInstance().getPermissionValue((GDClaim) claim, GriefDefenderPlugin.DEFAULT_HOLDER, permission, contexts);
         if (value != Tristate.UNDEFINED) {
-            return processResult(claim, permission, value, GriefDefenderPlugin.DEFAULT_HOLDER);
+            return processResult(evaluation, claim, permission, value, GriefDefenderPlugin.DEFAULT_HOLDER);
         }
 
-        return getFlagDefaultPermission(claim, permission, contexts);
+        return getFlagDefaultPermission(evaluation, claim, permission, contexts);
     }
 
     // Only uses world and claim type contexts
-    private Tristate getFlagDefaultPermission(Claim claim, String permission, Set<Context> contexts) {
+    private Tristate getFlagDefaultPermission(EvaluationContext evaluation, Claim claim, String permission, Set<Context> contexts) {
         contexts.add(claim.getDefaultTypeContext());
         Tristate value = PermissionUtil.getInstance().getPermissionValue((GDClaim) claim, GriefDefenderPlugin.DEFAULT_HOLDER, permission, contexts);
         if (value != Tristate.UNDEFINED) {
-            return processResult(claim, permission, value, GriefDefenderPlugin.DEFAULT_HOLDER);
+            return processResult(evaluation, claim, permission, value, GriefDefenderPlugin.DEFAULT_HOLDER);
         }
         contexts.remove(claim.getDefaultTypeContext());
         contexts.add(ClaimContexts.GLOBAL_DEFAULT_CONTEXT);
         value = PermissionUtil.getInstance().getPermissionValue((GDClaim) claim, GriefDefenderPlugin.DEFAULT_HOLDER, permission, contexts);
         if (value != Tristate.UNDEFINED) {
-            return processResult(claim, permission, value, GriefDefenderPlugin.DEFAULT_HOLDER);
+            return processResult(evaluation, claim, permission, value, GriefDefenderPlugin.DEFAULT_HOLDER);
         }
 
-        return processResult(claim, permission, Tristate.UNDEFINED, GriefDefenderPlugin.DEFAULT_HOLDER);
+        return processResult(evaluation, claim, permission, Tristate.UNDEFINED, GriefDefenderPlugin.DEFAULT_HOLDER);
     }
 
-    private Tristate getFlagOverride(Claim claim, GDPermissionHolder permissionHolder, GDPlayerData playerData, String flagPermission) {
+    private Tristate getFlagOverride(EvaluationContext evaluation, Claim claim, GDPermissionHolder permissionHolder, GDPlayerData playerData, String flagPermission) {
         if (!((GDClaim) claim).getInternalClaimData().allowFlagOverrides()) {
             return Tristate.UNDEFINED;
         }
@@ -376,7 +387,7 @@ private Tristate getFlagOverride(Claim claim, GDPermissionHolder permissionHolde
 
         contexts.add(claim.getOverrideClaimContext());
         contexts.add(ClaimContexts.GLOBAL_OVERRIDE_CONTEXT);
-        contexts.addAll(this.eventContexts);
+        contexts.addAll(evaluation.contexts);
 
         Tristate value = PermissionUtil.getInstance().getPermissionValue((GDClaim) claim, permissionHolder, flagPermission, contexts);
        /* if (value == Tristate.UNDEFINED) {
@@ -388,27 +399,36 @@ private Tristate getFlagOverride(Claim claim, GDPermissionHolder permissionHolde
         }*/
         if (value != Tristate.UNDEFINED) {
             if (value == Tristate.FALSE) {
-                this.eventMessage = MessageCache.getInstance().PERMISSION_OVERRIDE_DENY;
+                evaluation.message = MessageCache.getInstance().PERMISSION_OVERRIDE_DENY;
             }
-            return processResult(claim, flagPermission, value, permissionHolder);
+            return processResult(evaluation, claim, flagPermission, value, permissionHolder);
         }
         if (permissionHolder != GriefDefenderPlugin.DEFAULT_HOLDER) {
-            return getFlagOverride(claim, GriefDefenderPlugin.DEFAULT_HOLDER, playerData, flagPermission);
+            return getFlagOverride(evaluation, claim, GriefDefenderPlugin.DEFAULT_HOLDER, playerData, flagPermission);
         }
 
         return Tristate.UNDEFINED;
     }
 
     public Tristate processResult(Claim claim, String permission, Tristate permissionValue, GDPermissionHolder permissionHolder) {
-        return processResult(claim, permission, null, permissionValue, permissionHolder);
+        return processResult(null, claim, permission, null, permissionValue, permissionHolder);
     }
 
     public Tristate processResult(Claim claim, String permission, String trust, Tristate permissionValue, GDPermissionHolder permissionHolder) {
+        return processResult(null, claim, permission, trust, permissionValue, permissionHolder);
+    }
+
+    public Tristate processResult(EvaluationContext evaluation, Claim claim, String permission, Tristate permissionValue, GDPermissionHolder permissionHolder) {
+        return processResult(evaluation, claim, permission, null, permissionValue, permissionHolder);
+    }
+
+    public Tristate processResult(@Nullable EvaluationContext evaluation, Claim claim, String permission, String trust, Tristate permissionValue, GDPermissionHolder permissionHolder) {
         if (GriefDefenderPlugin.debugActive) {
+            final Event event = evaluation == null ? null : evaluation.event;
             // Use the event subject always if available
             // This prevents debug showing 'default' for users
-            if (eventSubject != null) {
-                permissionHolder = eventSubject;
+            if (evaluation != null && evaluation.subject != null) {
+                permissionHolder = evaluation.subject;
             } else if (permissionHolder == null) {
                 final Object source = GDCauseStackManager.getInstance().getCurrentCause().root();
                 if (source instanceof GDPermissionUser) {
@@ -418,16 +438,20 @@ public Tristate processResult(Claim claim, String permission, String trust, Tris
                 }
             }
 
-            if (this.currentEvent != null && (this.currentEvent instanceof BlockPhysicsEvent)) {
+            if (event != null && (event instanceof BlockPhysicsEvent)) {
                 if (((GDClaim) claim).getWorld().getTime() % 100 != 0L) {
                     return permissionValue;
                 }
             }
 
-            GriefDefenderPlugin.addEventLogEntry(this.currentEvent, this.eventLocation, this.eventSourceId, this.eventTargetId, this.eventSubject == null ? permissionHolder : this.eventSubject, permission, trust, permissionValue);
+            if (evaluation == null) {
+                GriefDefenderPlugin.addEventLogEntry(null, null, "none", "none", permissionHolder, permission, trust, permissionValue);
+            } else {
+                GriefDefenderPlugin.addEventLogEntry(event, evaluation.location, evaluation.sourceId, evaluation.targetId, permissionHolder, permission, trust, permissionValue);
+            }
         }
 
-
+        final GDPlayerData eventPlayerData = evaluation == null ? null : evaluation.playerData;
         if (eventPlayerData != null && eventPlayerData.eventResultCache != null) {
             final Flag flag = FlagRegistryModule.getInstance().getById(permission).orElse(null);
             if (flag != null) {
@@ -461,62 +485,60 @@ public String getPermissionIdentifier(Object obj, boolean isSource) {
                     id = ((Item) targetEntity).getItemStack().getType().name().toLowerCase();
                 }
 
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             } else if (obj instanceof Block) {
                 final String id = BlockTypeRegistryModule.getInstance().getNMSKey((Block) obj);
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             } else if (obj instanceof BlockState) {
                 final BlockState blockstate = (BlockState) obj;
                 final String id = BlockTypeRegistryModule.getInstance().getNMSKey(blockstate);
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             } /*else if (obj instanceof TileEntity) {
                 TileEntity tileEntity = (TileEntity) obj;
                 final String id = tileEntity.getMinecraftKeyString();
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             }*/ else if (obj instanceof Inventory) {
                 final String id = ((Inventory) obj).getType().name().toLowerCase();
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             } else if (obj instanceof InventoryType) {
                 final String id = ((InventoryType) obj).name().toLowerCase();
-                populateEventSourceTarget(id, isSource);
                 return id;
             } else if (obj instanceof Item) {
                 
             } else if (obj instanceof ItemStack) {
                 final ItemStack itemstack = (ItemStack) obj;
                 String id = ItemTypeRegistryModule.getInstance().getNMSKey(itemstack);
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             } else if (obj instanceof DamageCause) {
                 final DamageCause damageCause = (DamageCause) obj;
                 String id = damageCause.name().toLowerCase();
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             } else if (obj instanceof TeleportCause) {
                 final TeleportCause teleportCause = (TeleportCause) obj;
                 String id = teleportCause.name().toLowerCase();
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             } else if (obj instanceof SpawnReason) {
-                return populateEventSourceTarget("spawnreason:" + ((SpawnReason) obj).name().toLowerCase(), isSource);
+                return normalizeIdentifier("spawnreason:" + ((SpawnReason) obj).name().toLowerCase());
             } else if (obj instanceof CreatureSpawner) {
                 final CreatureSpawner spawner = (CreatureSpawner) obj;
                 return this.getPermissionIdentifier(spawner.getBlock());
             }  else if (obj instanceof String) {
                 final String id = obj.toString().toLowerCase();
-                return populateEventSourceTarget(id, isSource);
+                return normalizeIdentifier(id);
             }
         }
 
-        populateEventSourceTarget("none", isSource);
         return "";
     }
 
-    public Set<Context> getPermissionContexts(GDClaim claim, Object obj, boolean isSource) {
+    public Set<Context> getPermissionContexts(EvaluationContext evaluation, GDClaim claim, Object obj, boolean isSource) {
         final Set<Context> contexts = new HashSet<>();
         if (obj != null) {
             if (obj instanceof Entity) {
                 Entity targetEntity = (Entity) obj;
 
                 if (targetEntity instanceof Item) {
-                    return getPermissionContexts(claim, ((Item) targetEntity).getItemStack(), isSource);
+                    return getPermissionContexts(evaluation, claim, ((Item) targetEntity).getItemStack(), isSource);
                 }
                 if (targetEntity.getType() == null) {
                     // Plugin sending fake player and violating API contract so just ignore...
@@ -536,32 +558,32 @@ public Set<Context> getPermissionContexts(GDClaim claim, Object obj, boolean isS
                     addCustomEntityTypeContexts(targetEntity, contexts, type, isSource);
                 }
 
-                if (this.isObjectIdBanned(claim, id, BanType.ENTITY)) {
+                if (this.isObjectIdBanned(evaluation, claim, id, BanType.ENTITY)) {
                     return null;
                 }
-                return populateEventSourceTargetContext(contexts, id, isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, id, isSource);
             } else if (obj instanceof Block) {
                 final Block block = (Block) obj;
                 final String id = BlockTypeRegistryModule.getInstance().getNMSKey(block);
                 this.addBlockPropertyContexts(contexts, block);
-                if (this.isObjectIdBanned(claim, id, BanType.BLOCK)) {
+                if (this.isObjectIdBanned(evaluation, claim, id, BanType.BLOCK)) {
                     return null;
                 }
-                return populateEventSourceTargetContext(contexts, id, isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, id, isSource);
             } else if (obj instanceof BlockState) {
                 final BlockState blockstate = (BlockState) obj;
                 final String id = BlockTypeRegistryModule.getInstance().getNMSKey(blockstate);
                 this.addBlockPropertyContexts(contexts, blockstate.getBlock());
-                if (this.isObjectIdBanned(claim, id, BanType.BLOCK)) {
+                if (this.isObjectIdBanned(evaluation, claim, id, BanType.BLOCK)) {
                     return null;
                 }
-                return populateEventSourceTargetContext(contexts, id, isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, id, isSource);
             } else if (obj instanceof Inventory) {
                 final String id = ((Inventory) obj).getType().name().toLowerCase();
-                return populateEventSourceTargetContext(contexts, id, isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, id, isSource);
             } else if (obj instanceof InventoryType) {
                 final String id = ((InventoryType) obj).name().toLowerCase();
-                return populateEventSourceTargetContext(contexts, id, isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, id, isSource);
             } else if (obj instanceof ItemStack) {
                 final ItemStack itemstack = (ItemStack) obj;
                 if (NMSUtil.getInstance().isItemFood(itemstack)) {
@@ -572,36 +594,35 @@ public Set<Context> getPermissionContexts(GDClaim claim, Object obj, boolean isS
                     }
                 }
                 String id = ItemTypeRegistryModule.getInstance().getNMSKey(itemstack);
-                if (this.isObjectIdBanned(claim, id, BanType.ITEM)) {
+                if (this.isObjectIdBanned(evaluation, claim, id, BanType.ITEM)) {
                     return null;
                 }
-                return populateEventSourceTargetContext(contexts, id, isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, id, isSource);
             } else if (obj instanceof DamageCause) {
                 final DamageCause damageCause = (DamageCause) obj;
                 String id = damageCause.name().toLowerCase();
-                return populateEventSourceTargetContext(contexts, id, isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, id, isSource);
             } else if (obj instanceof SpawnReason) {
-                return populateEventSourceTargetContext(contexts, "spawnreason:" + ((SpawnReason) obj).name().toLowerCase(), isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, "spawnreason:" + ((SpawnReason) obj).name().toLowerCase(), isSource);
             } else if (obj instanceof CreatureSpawner) {
                 final CreatureSpawner spawner = (CreatureSpawner) obj;
-                return this.getPermissionContexts(claim, spawner.getBlock(), isSource);
+                return this.getPermissionContexts(evaluation, claim, spawner.getBlock(), isSource);
             }  else if (obj instanceof String) {
                 final String id = obj.toString().toLowerCase();
-                return populateEventSourceTargetContext(contexts, id, isSource);
+                return populateEventSourceTargetContext(evaluation, contexts, id, isSource);
             }
         }
 
         return contexts;
     }
 
-    public boolean isObjectIdBanned(GDClaim claim, String id, BanType type) {
+    public boolean isObjectIdBanned(EvaluationContext evaluation, GDClaim claim, String id, BanType type) {
         if (id.equalsIgnoreCase("player")) {
             return false;
         }
 
-        GDPermissionUser user = null;
-        if (this.eventSubject != null && this.eventSubject instanceof GDPermissionUser) {
-            user = (GDPermissionUser) this.eventSubject;
+        final GDPermissionUser user = evaluation.subject;
+        if (user != null) {
             if (user.getInternalPlayerData() != null && user.getInternalPlayerData().canIgnoreClaim(claim)) {
                 return false;
             }
@@ -610,35 +631,32 @@ public boolean isObjectIdBanned(GDClaim claim, String id, BanType type) {
         final String permission = StringUtils.replace(id, ":", ".");
         Component banReason = null;
         final BanCategory banCategory = GriefDefenderPlugin.getGlobalConfig().getConfig().bans;
+        final BanIndex banIndex = this.getBanIndex();
         if (type == BanType.BLOCK) {
-            for (Entry<String, Component> banId : banCategory.getBlockMap().entrySet()) {
-                if (FilenameUtils.wildcardMatch(id, banId.getKey())) {
-                    banReason = GriefDefenderPlugin.getGlobalConfig().getConfig().bans.getBlockBanReason(banId.getKey());
-                    if (banReason != null && banReason.equals(TextComponent.empty())) {
-                        banReason = MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.PERMISSION_BAN_BLOCK, 
-                                ImmutableMap.of("id", TextComponent.of(id, TextColor.GOLD)));
-                    }
-                    break;
+            final String banId = banIndex.getBlockBan(id);
+            if (banId != null) {
+                banReason = banCategory.getBlockBanReason(banId);
+                if (banReason != null && banReason.equals(TextComponent.empty())) {
+                    banReason = MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.PERMISSION_BAN_BLOCK, 
+                            ImmutableMap.of("id", TextComponent.of(id, TextColor.GOLD)));
                 }
             }
         } else if (type == BanType.ITEM) {
-            for (Entry<String, Component> banId : banCategory.getItemMap().entrySet()) {
-                if (FilenameUtils.wildcardMatch(id, banId.getKey())) {
-                    banReason = GriefDefenderPlugin.getGlobalConfig().getConfig().bans.getItemBanReason(banId.getKey());
-                    if (banReason != null && banReason.equals(TextComponent.empty())) {
-                        banReason = MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.PERMISSION_BAN_ITEM, 
-                                ImmutableMap.of("id", TextComponent.of(id, TextColor.GOLD)));
-                    }
+            final String banId = banIndex.getItemBan(id);
+            if (banId != null) {
+                banReason = banCategory.getItemBanReason(banId);
+                if (banReason != null && banReason.equals(TextComponent.empty())) {
+                    banReason = MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.PERMISSION_BAN_ITEM, 
+                            ImmutableMap.of("id", TextComponent.of(id, TextColor.GOLD)));
                 }
             }
         } else if (type == BanType.ENTITY) {
-            for (Entry<String, Component> banId : banCategory.getEntityMap().entrySet()) {
-                if (FilenameUtils.wildcardMatch(id, banId.getKey())) {
-                    banReason = GriefDefenderPlugin.getGlobalConfig().getConfig().bans.getEntityBanReason(banId.getKey());
-                    if (banReason != null && banReason.equals(TextComponent.empty())) {
-                        banReason = MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.PERMISSION_BAN_ENTITY, 
-                                ImmutableMap.of("id", TextComponent.of(id, TextColor.GOLD)));
-                    }
+            final String banId = banIndex.getEntityBan(id);
+            if (banId != null) {
+                banReason = banCategory.getEntityBanReason(banId);
+                if (banReason != null && banReason.equals(TextComponent.empty())) {
+                    banReason = MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.PERMISSION_BAN_ENTITY, 
+                            ImmutableMap.of("id", TextComponent.of(id, TextColor.GOLD)));
                 }
             }
         }
@@ -651,13 +669,13 @@ public boolean isObjectIdBanned(GDClaim claim, String id, BanType type) {
                             ImmutableMap.of("id", id));
                 }
                 TextAdapter.sendComponent(player, banReason);
-                this.processResult(claim, permission, "banned", Tristate.FALSE, user);
+                this.processResult(evaluation, claim, permission, "banned", Tristate.FALSE, user);
                 return true;
             }
         }
         if (banReason != null) {
             // Detected ban
-            this.processResult(claim, permission, "banned", Tristate.FALSE, this.eventSubject);
+            this.processResult(evaluation, claim, permission, "banned", Tristate.FALSE, user);
             return true;
         }
         return false;
@@ -712,9 +730,9 @@ public void addCustomEntityTypeContexts(Entity targetEntity, Set<Context> contex
         }
     }
 
-    private void addPlayerContexts(Player player, Set<Context> contexts) {
-        if(!PermissionUtil.getInstance().containsKey(contexts, "used_item") && NMSUtil.getInstance().getActiveItem(player, this.currentEvent) != null) {
-            final ItemStack stack = NMSUtil.getInstance().getActiveItem(player, this.currentEvent);
+    private void addPlayerContexts(Player player, Set<Context> contexts, Event event) {
+        if(!PermissionUtil.getInstance().containsKey(contexts, "used_item") && NMSUtil.getInstance().getActiveItem(player, event) != null) {
+            final ItemStack stack = NMSUtil.getInstance().getActiveItem(player, event);
             if (stack.getType() != Material.AIR) {
                 contexts.add(new Context("used_item", getPermissionIdentifier(stack)));
                 if (stack.getItemMeta() != null && stack.getItemMeta().getDisplayName() != null) {
@@ -819,21 +837,21 @@ public String getIdentifierWithoutMeta(String targetId) {
         return targetId;
     }
 
-    private Set<Context> populateEventSourceTargetContext(Set<Context> contexts, String id, boolean isSource) {
+    private Set<Context> populateEventSourceTargetContext(EvaluationContext evaluation, Set<Context> contexts, String id, boolean isSource) {
         if (!id.contains(":")) {
             id = "minecraft:" + id;
         }
         if (isSource) {
-            this.eventSourceId = id.toLowerCase();
-            contexts.add(new Context("source", this.eventSourceId));
+            evaluation.sourceId = id.toLowerCase();
+            contexts.add(new Context("source", evaluation.sourceId));
         } else {
-            this.eventTargetId = id.toLowerCase();
-            contexts.add(new Context("target", this.eventTargetId));
+            evaluation.targetId = id.toLowerCase();
+            contexts.add(new Context("target", evaluation.targetId));
         }
         return contexts;
     }
 
-    private String populateEventSourceTarget(String id, boolean isSource) {
+    private String normalizeIdentifier(String id) {
         if (this.blacklistCheck) {
             return id;
         }
@@ -841,11 +859,6 @@ private String populateEventSourceTarget(String id, boolean isSource) {
         if (!id.contains(":")) {
             id = "minecraft:" + id;
         }
-        if (isSource) {
-            this.eventSourceId = id.toLowerCase();
-        } else {
-            this.eventTargetId = id.toLowerCase();
-        }
 
         return id;
     }
@@ -975,6 +988,24 @@ public Map<String, Boolean> getFlagPermissions(Subject subject, Set<Context> con
         return PermissionUtil.getInstance().getPermissions((GDPermissionHolder) subject, contexts);
     }
 
+    public BanIndex getBanIndex() {
+        BanIndex banIndex = this.banIndex;
+        if (banIndex == null) {
+            banIndex = new BanIndex(GriefDefenderPlugin.getGlobalConfig().getConfig().bans);
+            this.banIndex = banIndex;
+        }
+        return banIndex;
+    }
+
+    /**
+     * Rebuilds the ban index from the global config.
+     * 
+     * <p>Must be called after the ban config is changed.</p>
+     */
+    public void rebuildBanIndex() {
+        this.banIndex = new BanIndex(GriefDefenderPlugin.getGlobalConfig().getConfig().bans);
+    }
+
     public static GDPermissionManager getInstance() {
         return instance;
     }
@@ -1035,6 +1066,23 @@ public <T> T getInternalOptionValue(TypeToken<T> type, GDPermissionHolder holder
             PermissionUtil.getInstance().addActiveContexts(contexts, holder, playerData, claim);
         }
 
+        final OptionCacheKey cacheKey = new OptionCacheKey(type.getRawType(), option.getPermission(), claim == null ? null : claim.getUniqueId(), claimType, contexts);
+        final Cache<OptionCacheKey, Object> cache = PermissionHolderCache.getInstance().getOrCreateOptionCache(holder);
+        final Object cachedValue = cache.getIfPresent(cacheKey);
+        if (cachedValue != null) {
+            return (T) cachedValue;
+        }
+
+        // Resolve against a copy so the caller's contexts match on cache hits and misses
+        final T value = this.findOptionValue(type, holder, option, claim, claimType, new HashSet<>(contexts));
+        if (value != null) {
+            cache.put(cacheKey, value);
+        }
+        return value;
+    }
+
+    // Resolves an option through claim, claim type, active, default and global holder contexts
+    private <T> T findOptionValue(TypeToken<T> type, GDPermissionHolder holder, Option<T> option, Claim claim, ClaimType claimType, Set<Context> contexts) {
         if (!option.isGlobal() && (claim != null || claimType != null)) {
             // check claim
             if (claim != null) {
@@ -1202,8 +1250,14 @@ public Optional<Option> getOption(String value) {
         return GriefDefender.getRegistry().getType(Option.class, value);
     }
 
+    /**
+     * Gets the denial message produced by the last permission check made on
+     * the calling thread, if any.
+     *
+     * @return The message, or null if none
+     */
     public Component getEventMessage() {
-        return this.eventMessage;
+        return this.lastEventMessage.get();
     }
 
     @Override
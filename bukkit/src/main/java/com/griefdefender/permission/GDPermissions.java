@@ -156,6 +156,8 @@ public class GDPermissions {
     public static final String COMMAND_RESTORE_NATURE_AGGRESSIVE = "griefdefender.admin.command.restore-nature.aggressive";
     public static final String COMMAND_RESTORE_NATURE_FILL = "griefdefender.admin.command.restore-nature.fill";
     public static final String COMMAND_RELOAD = "griefdefender.admin.command.reload";
+    public static final String COMMAND_METRICS = "griefdefender.admin.command.metrics";
+    public static final String COMMAND_STORAGE = "griefdefender.admin.command.storage";
     public static final String DELETE_CLAIM_BASIC = "griefdefender.admin.claim.command.delete.basic";
     public static final String DELETE_CLAIM_ADMIN = "griefdefender.admin.claim.command.delete.admin";
     public static final String EAVES_DROP_SIGNS = "griefdefender.admin.eavesdrop.signs";
@@ -38,11 +38,15 @@
 import com.griefdefender.api.permission.ResultTypes;
 import com.griefdefender.api.permission.flag.Flag;
 import com.griefdefender.api.permission.option.Option;
+import com.griefdefender.api.permission.option.Options;
+import com.griefdefender.cache.PermissionCacheKey;
 import com.griefdefender.cache.PermissionHolderCache;
+import com.griefdefender.claim.ClaimExpiryQueue;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.permission.GDPermissionHolder;
 import com.griefdefender.permission.GDPermissionResult;
 import com.griefdefender.permission.GDPermissionUser;
+import com.griefdefender.provider.luckperms.CompiledPermissionTree;
 
 import me.lucko.luckperms.api.Contexts;
 import me.lucko.luckperms.api.DataMutateResult;
@@ -63,7 +67,6 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
@@ -74,6 +77,7 @@
 import org.apache.commons.io.FilenameUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class LuckPermsProvider implements PermissionProvider {
 
@@ -81,6 +85,11 @@ public class LuckPermsProvider implements PermissionProvider {
             .build();
     private final Cache<String, User> userCache = Caffeine.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES)
             .build();
+    // Holder identifier -> compiled permission nodes
+    private final Cache<String, CompiledPermissionTree> permanentTreeCache = Caffeine.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
+    private final Cache<String, CompiledPermissionTree> transientTreeCache = Caffeine.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES)
+            .build();
 
     public static Comparator<Set<Context>> CONTEXT_COMPARATOR = new Comparator<Set<Context>>() {
         @Override
@@ -101,6 +110,52 @@ public LuckPermsProvider() {
         this.luckPermsApi = Bukkit.getServicesManager().getRegistration(LuckPermsApi.class).getProvider();
     }
 
+    private void invalidateOptionCache(GDPermissionHolder holder, PermissionHolder permissionHolder, String permission) {
+        if (permissionHolder instanceof Group) {
+            // Group options are inherited by users so invalidate all cache
+            PermissionHolderCache.getInstance().invalidateAllOptionCache();
+        } else {
+            PermissionHolderCache.getInstance().getOrCreateOptionCache(holder).invalidateAll();
+        }
+        this.requestExpiryRescan(permissionHolder, permission);
+    }
+
+    /**
+     * Recomputes claim expiry for the claims affected by an option change.
+     * Only the default group triggers a full rescan, other holders limit it
+     * to the claims owned by the users they apply to.
+     *
+     * @param permissionHolder The changed holder
+     * @param option The changed option key, or null if unknown
+     */
+    public void requestExpiryRescan(PermissionHolder permissionHolder, @Nullable String option) {
+        if (option != null && !isExpirationOption(option)) {
+            return;
+        }
+        final ClaimExpiryQueue expiryQueue = ClaimExpiryQueue.getInstance();
+        if (permissionHolder instanceof User) {
+            expiryQueue.requestRescan(((User) permissionHolder).getUuid());
+            return;
+        }
+        final Group group = (Group) permissionHolder;
+        if (group.getName().equalsIgnoreCase("default")) {
+            expiryQueue.requestRescan();
+            return;
+        }
+        for (User user : this.luckPermsApi.getUserManager().getLoadedUsers()) {
+            if (user.inheritsGroup(group)) {
+                expiryQueue.requestRescan(user.getUuid());
+            }
+        }
+    }
+
+    private static boolean isExpirationOption(String option) {
+        return option.equalsIgnoreCase(Options.EXPIRATION.getPermission())
+                || option.equalsIgnoreCase(Options.CHEST_EXPIRATION.getPermission())
+                || option.equalsIgnoreCase(Options.TAX_EXPIRATION.getPermission())
+                || option.equalsIgnoreCase(Options.TAX_EXPIRATION_DAYS_KEEP.getPermission());
+    }
+
     public LuckPermsApi getApi() {
         return this.luckPermsApi;
     }
@@ -394,6 +449,89 @@ public Map<Set<Context>, Map<String, Boolean>> getPermanentPermissions(GDPermiss
         return permanentPermissionMap;
     }
 
+    public CompiledPermissionTree getCompiledPermissionTree(GDPermissionHolder holder, boolean isTransient) {
+        final Cache<String, CompiledPermissionTree> treeCache = isTransient ? this.transientTreeCache : this.permanentTreeCache;
+        CompiledPermissionTree tree = treeCache.getIfPresent(holder.getIdentifier());
+        if (tree != null) {
+            return tree;
+        }
+
+        final PermissionHolder permissionHolder = this.getLuckPermsHolder(holder);
+        if (permissionHolder == null) {
+            return null;
+        }
+
+        final Iterable<? extends Node> nodes = isTransient ? permissionHolder.getTransientPermissions() : permissionHolder.getNodes().values();
+        tree = new CompiledPermissionTree();
+        for (Node node : nodes) {
+            if (node.isMeta()) {
+                continue;
+            }
+            tree.put(this.getNodeContexts(node), node.getPermission(), node.getValue());
+        }
+        treeCache.put(holder.getIdentifier(), tree);
+        return tree;
+    }
+
+    // Applies a node added to a LuckPerms holder to its compiled permissions
+    public void addCompiledNode(PermissionHolder permissionHolder, Node node) {
+        if (node.isMeta()) {
+            return;
+        }
+
+        final boolean isTransient = permissionHolder.getTransientPermissions().contains(node);
+        final Cache<String, CompiledPermissionTree> treeCache = isTransient ? this.transientTreeCache : this.permanentTreeCache;
+        final CompiledPermissionTree tree = treeCache.getIfPresent(getHolderIdentifier(permissionHolder));
+        if (tree != null) {
+            tree.put(this.getNodeContexts(node), node.getPermission(), node.getValue());
+        }
+    }
+
+    // Applies a node removed from a LuckPerms holder to its compiled permissions
+    public void removeCompiledNode(PermissionHolder permissionHolder, Node node) {
+        if (node.isMeta()) {
+            return;
+        }
+
+        final String identifier = getHolderIdentifier(permissionHolder);
+        final Set<Context> contexts = this.getNodeContexts(node);
+        final CompiledPermissionTree permanentTree = this.permanentTreeCache.getIfPresent(identifier);
+        if (permanentTree != null && !permissionHolder.getNodes().containsValue(node)) {
+            permanentTree.remove(contexts, node.getPermission());
+        }
+        final CompiledPermissionTree transientTree = this.transientTreeCache.getIfPresent(identifier);
+        if (transientTree != null && !permissionHolder.getTransientPermissions().contains(node)) {
+            transientTree.remove(contexts, node.getPermission());
+        }
+    }
+
+    public void invalidateCompiledPermissions(PermissionHolder permissionHolder) {
+        final String identifier = getHolderIdentifier(permissionHolder);
+        this.permanentTreeCache.invalidate(identifier);
+        this.transientTreeCache.invalidate(identifier);
+    }
+
+    public void invalidateAllCompiledPermissions() {
+        this.permanentTreeCache.invalidateAll();
+        this.transientTreeCache.invalidateAll();
+    }
+
+    private static String getHolderIdentifier(PermissionHolder permissionHolder) {
+        if (permissionHolder instanceof User) {
+            return ((User) permissionHolder).getUuid().toString();
+        }
+        return permissionHolder.getObjectName();
+    }
+
+    private Set<Context> getNodeContexts(Node node) {
+        final Set<Context> contexts = getGPContexts(node.getContexts());
+        String serverName = node.getServer().orElse(null);
+        if (serverName != null && !serverName.equalsIgnoreCase("global") && !serverName.equalsIgnoreCase("undefined")) {
+            contexts.add(new Context("server", serverName));
+        }
+        return contexts;
+    }
+
     public Map<Set<Context>, Map<String, Boolean>> getTransientPermissions(GDPermissionHolder holder) {
         final PermissionHolder permissionHolder = this.getLuckPermsHolder(holder);
         if (permissionHolder == null) {
@@ -629,36 +767,19 @@ public Tristate getPermissionValue(GDClaim claim, GDPermissionHolder holder, Str
         final Set<Context> activeContexts = new HashSet<>();
         this.addActiveContexts(activeContexts, holder, null, claim);
         contexts.addAll(activeContexts);
-        final int contextHash =  Objects.hash(claim, holder, permission, contexts);
-        final Cache<Integer, Tristate> cache = PermissionHolderCache.getInstance().getOrCreatePermissionCache(holder);
-        Tristate result = cache.getIfPresent(contextHash);
+        final PermissionCacheKey cacheKey = new PermissionCacheKey(claim == null ? null : claim.getUniqueId(), permission, contexts);
+        final Cache<PermissionCacheKey, Tristate> cache = PermissionHolderCache.getInstance().getOrCreatePermissionCache(holder);
+        Tristate result = cache.getIfPresent(cacheKey);
         if (result != null) {
             return result;
         }
         // check persistent permissions first
-        Map<Set<Context>, Map<String, Boolean>> permanentPermissions = getPermanentPermissions(holder);
-        for (Entry<Set<Context>, Map<String, Boolean>> entry : permanentPermissions.entrySet()) {
-            if (entry.getKey().isEmpty()) {
-                continue;
-            }
-            boolean match = true;
-            for (Context context : entry.getKey()) {
-                if (!contexts.contains(context)) {
-                    match = false;
-                    break;
-                }
-            }
-            if (match) {
-                for (Map.Entry<String, Boolean> permEntry : entry.getValue().entrySet()) {
-                    if (FilenameUtils.wildcardMatch(permission, permEntry.getKey())) {
-                        final Tristate value = Tristate.fromBoolean(permEntry.getValue());
-                        cache.put(contextHash, value);
-                        return value;
-                    }
-                }
-                // If we get here, continue on normally
-                continue;
-            }
+        final CompiledPermissionTree permanentTree = this.getCompiledPermissionTree(holder, false);
+        Boolean value = permanentTree == null ? null : permanentTree.getValue(permission, contexts);
+        if (value != null) {
+            result = Tristate.fromBoolean(value);
+            cache.put(cacheKey, result);
+            return result;
         }
 
         if (!checkTransient) {
@@ -666,32 +787,15 @@ public Tristate getPermissionValue(GDClaim claim, GDPermissionHolder holder, Str
         }
 
         // check transient permissions last
-        Map<Set<Context>, Map<String, Boolean>> transientPermissions = getTransientPermissions(holder);
-        for (Entry<Set<Context>, Map<String, Boolean>> entry : transientPermissions.entrySet()) {
-            if (entry.getKey().isEmpty()) {
-                continue;
-            }
-            boolean match = true;
-            for (Context context : entry.getKey()) {
-                if (!contexts.contains(context)) {
-                    match = false;
-                    break;
-                }
-            }
-            if (match) {
-                for (Map.Entry<String, Boolean> permEntry : entry.getValue().entrySet()) {
-                    if (FilenameUtils.wildcardMatch(permission, permEntry.getKey())) {
-                        final Tristate value = Tristate.fromBoolean(permEntry.getValue());
-                        cache.put(contextHash, value);
-                        return value;
-                    }
-                }
-                // If we get here, continue on normally
-                continue;
-            }
+        final CompiledPermissionTree transientTree = this.getCompiledPermissionTree(holder, true);
+        value = transientTree == null ? null : transientTree.getValue(permission, contexts);
+        if (value != null) {
+            result = Tristate.fromBoolean(value);
+            cache.put(cacheKey, result);
+            return result;
         }
 
-        cache.put(contextHash, Tristate.UNDEFINED);
+        cache.put(cacheKey, Tristate.UNDEFINED);
         return Tristate.UNDEFINED;
     }
 
@@ -783,6 +887,8 @@ public PermissionResult setOptionValue(GDPermissionHolder holder, String permiss
             result = permissionHolder.setPermission(node);
         }
         if (result != null && result.wasSuccess()) {
+            // We need to invalidate cache outside of LP listener so we can guarantee proper result returns
+            this.invalidateOptionCache(holder, permissionHolder, permission);
             this.savePermissionHolder(permissionHolder);
             return new GDPermissionResult(ResultTypes.SUCCESS);
         }
@@ -840,6 +946,7 @@ public void setTransientOption(GDPermissionHolder holder, String permission, Str
 
         final Node node = this.luckPermsApi.getNodeFactory().makeMetaNode(permission, value).withExtraContext(contextSet).build();
         permissionHolder.setTransientPermission(node);
+        this.invalidateOptionCache(holder, permissionHolder, permission);
     }
 
     public void setTransientPermission(GDPermissionHolder holder, String permission, Boolean value, Set<Context> contexts) {
@@ -0,0 +1,167 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.provider.luckperms;
+
+import com.google.common.collect.ImmutableSet;
+import com.griefdefender.api.permission.Context;
+import com.griefdefender.api.permission.ContextKeys;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The compiled permission nodes of a single holder.
+ *
+ * <p>Nodes are bucketed by their context set. Buckets containing a claim
+ * context are indexed by that context so a lookup only visits the global
+ * buckets and the buckets of the claims present in the queried contexts.
+ * Buckets are visited from the largest to the smallest context set, the
+ * same order used by {@link com.griefdefender.provider.LuckPermsProvider#CONTEXT_COMPARATOR}.</p>
+ */
+public final class CompiledPermissionTree {
+
+    private static final Comparator<ContextBucket> BUCKET_COMPARATOR = new Comparator<ContextBucket>() {
+        @Override
+        public int compare(ContextBucket b1, ContextBucket b2) {
+            if (b1.contexts.size() != b2.contexts.size()) {
+                return b1.contexts.size() > b2.contexts.size() ? -1 : 1;
+            }
+            return Long.compare(b1.order, b2.order);
+        }
+    };
+
+    private final Map<Set<Context>, ContextBucket> buckets = new HashMap<>();
+    private final List<ContextBucket> globalBuckets = new ArrayList<>();
+    private final Map<Context, List<ContextBucket>> claimBuckets = new HashMap<>();
+    private long bucketCounter = 0;
+
+    public synchronized Boolean getValue(String permission, Set<Context> contexts) {
+        List<ContextBucket> candidates = this.globalBuckets;
+        for (Context context : contexts) {
+            if (!context.getKey().equals(ContextKeys.CLAIM)) {
+                continue;
+            }
+            final List<ContextBucket> claimList = this.claimBuckets.get(context);
+            if (claimList == null) {
+                continue;
+            }
+            if (candidates == this.globalBuckets) {
+                candidates = new ArrayList<>(this.globalBuckets);
+            }
+            candidates.addAll(claimList);
+        }
+        if (candidates != this.globalBuckets) {
+            candidates.sort(BUCKET_COMPARATOR);
+        }
+
+        for (ContextBucket bucket : candidates) {
+            if (!contexts.containsAll(bucket.contexts)) {
+                continue;
+            }
+            final Boolean value = bucket.permissions.getValue(permission);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void put(Set<Context> contexts, String permission, boolean value) {
+        // Nodes without contexts are never used for claim permission checks
+        if (contexts.isEmpty()) {
+            return;
+        }
+
+        ContextBucket bucket = this.buckets.get(contexts);
+        if (bucket == null) {
+            bucket = new ContextBucket(ImmutableSet.copyOf(contexts), this.bucketCounter++);
+            this.buckets.put(bucket.contexts, bucket);
+            final List<ContextBucket> bucketList = this.getBucketList(bucket.contexts, true);
+            bucketList.add(bucket);
+            bucketList.sort(BUCKET_COMPARATOR);
+        }
+        bucket.permissions.put(permission, value);
+    }
+
+    public synchronized void remove(Set<Context> contexts, String permission) {
+        final ContextBucket bucket = this.buckets.get(contexts);
+        if (bucket == null) {
+            return;
+        }
+
+        bucket.permissions.remove(permission);
+        if (bucket.permissions.isEmpty()) {
+            this.buckets.remove(bucket.contexts);
+            final Context claimContext = getClaimContext(bucket.contexts);
+            final List<ContextBucket> bucketList = this.getBucketList(bucket.contexts, false);
+            if (bucketList != null) {
+                bucketList.remove(bucket);
+                if (bucketList.isEmpty() && claimContext != null) {
+                    this.claimBuckets.remove(claimContext);
+                }
+            }
+        }
+    }
+
+    // A bucket is indexed by its claim context, or is global if it has none
+    private List<ContextBucket> getBucketList(Set<Context> contexts, boolean create) {
+        final Context claimContext = getClaimContext(contexts);
+        if (claimContext == null) {
+            return this.globalBuckets;
+        }
+
+        List<ContextBucket> claimList = this.claimBuckets.get(claimContext);
+        if (claimList == null && create) {
+            claimList = new ArrayList<>();
+            this.claimBuckets.put(claimContext, claimList);
+        }
+        return claimList;
+    }
+
+    private static Context getClaimContext(Set<Context> contexts) {
+        for (Context context : contexts) {
+            if (context.getKey().equals(ContextKeys.CLAIM)) {
+                return context;
+            }
+        }
+        return null;
+    }
+
+    private static final class ContextBucket {
+
+        private final Set<Context> contexts;
+        private final long order;
+        private final PermissionTrie permissions = new PermissionTrie();
+
+        ContextBucket(Set<Context> contexts, long order) {
+            this.contexts = contexts;
+            this.order = order;
+        }
+    }
+}
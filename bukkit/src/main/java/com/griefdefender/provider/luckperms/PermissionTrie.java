@@ -0,0 +1,163 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.provider.luckperms;
+
+import org.apache.commons.io.FilenameUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Permission nodes of a single context set, indexed for lookup.
+ *
+ * <p>Exact nodes are kept in a hash map. Wildcard nodes are attached to the
+ * trie node of their literal segment prefix so only wildcards that can match
+ * a permission are tested. Exact nodes take precedence over wildcards and
+ * deeper wildcards take precedence over shallower ones.</p>
+ */
+public final class PermissionTrie {
+
+    private final Map<String, Boolean> exactNodes = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+    private int wildcardCount = 0;
+
+    public Boolean getValue(String permission) {
+        final Boolean value = this.exactNodes.get(permission);
+        if (value != null || this.wildcardCount == 0) {
+            return value;
+        }
+
+        final List<TrieNode> path = new ArrayList<>();
+        TrieNode node = this.root;
+        path.add(node);
+        int start = 0;
+        while (node.children != null) {
+            final int end = permission.indexOf('.', start);
+            if (end == -1) {
+                break;
+            }
+            node = node.children.get(permission.substring(start, end));
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+            start = end + 1;
+        }
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            final Map<String, Boolean> patterns = path.get(i).patterns;
+            if (patterns == null) {
+                continue;
+            }
+            for (Map.Entry<String, Boolean> entry : patterns.entrySet()) {
+                if (FilenameUtils.wildcardMatch(permission, entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    public void put(String permission, boolean value) {
+        final int wildcardIndex = getWildcardIndex(permission);
+        if (wildcardIndex == -1) {
+            this.exactNodes.put(permission, value);
+            return;
+        }
+
+        final TrieNode node = this.getPatternNode(permission, wildcardIndex, true);
+        if (node.patterns == null) {
+            node.patterns = new LinkedHashMap<>();
+        }
+        if (node.patterns.put(permission, value) == null) {
+            this.wildcardCount++;
+        }
+    }
+
+    public void remove(String permission) {
+        final int wildcardIndex = getWildcardIndex(permission);
+        if (wildcardIndex == -1) {
+            this.exactNodes.remove(permission);
+            return;
+        }
+
+        final TrieNode node = this.getPatternNode(permission, wildcardIndex, false);
+        if (node != null && node.patterns != null && node.patterns.remove(permission) != null) {
+            this.wildcardCount--;
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.exactNodes.isEmpty() && this.wildcardCount == 0;
+    }
+
+    private TrieNode getPatternNode(String permission, int wildcardIndex, boolean create) {
+        final int prefixEnd = permission.lastIndexOf('.', wildcardIndex);
+        TrieNode node = this.root;
+        int start = 0;
+        while (start < prefixEnd) {
+            int end = permission.indexOf('.', start);
+            if (end == -1 || end > prefixEnd) {
+                end = prefixEnd;
+            }
+            final String segment = permission.substring(start, end);
+            TrieNode child = node.children == null ? null : node.children.get(segment);
+            if (child == null) {
+                if (!create) {
+                    return null;
+                }
+                if (node.children == null) {
+                    node.children = new HashMap<>();
+                }
+                child = new TrieNode();
+                node.children.put(segment, child);
+            }
+            node = child;
+            start = end + 1;
+        }
+        return node;
+    }
+
+    private static int getWildcardIndex(String permission) {
+        final int starIndex = permission.indexOf('*');
+        final int questionIndex = permission.indexOf('?');
+        if (starIndex == -1) {
+            return questionIndex;
+        }
+        if (questionIndex == -1) {
+            return starIndex;
+        }
+        return Math.min(starIndex, questionIndex);
+    }
+
+    private static final class TrieNode {
+
+        private Map<String, TrieNode> children;
+        private Map<String, Boolean> patterns;
+    }
+}
@@ -25,6 +25,8 @@
 package com.griefdefender.storage;
 
 import com.flowpowered.math.vector.Vector3i;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -48,6 +50,7 @@
 import com.griefdefender.configuration.ClaimTemplateStorage;
 import com.griefdefender.configuration.GriefDefenderConfig;
 import com.griefdefender.configuration.MessageStorage;
+import com.griefdefender.configuration.PlayerStorageData;
 import com.griefdefender.configuration.type.ConfigBase;
 import com.griefdefender.configuration.type.GlobalConfig;
 import com.griefdefender.event.GDCauseStackManager;
@@ -68,8 +71,10 @@
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.CommandSender;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -80,22 +85,29 @@
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public abstract class BaseStorage {
 
     protected final Map<UUID, GDClaimManager> claimWorldManagers = new ConcurrentHashMap<>();
 
     public static Map<UUID, GriefDefenderConfig<ConfigBase>> dimensionConfigMap = new HashMap<>();
-    public static Map<UUID, GriefDefenderConfig<ConfigBase>> worldConfigMap = new HashMap<>();
+    public static Map<UUID, GriefDefenderConfig<ConfigBase>> worldConfigMap = new ConcurrentHashMap<>();
     public static Map<String, ClaimTemplateStorage> globalTemplates = new HashMap<>();
     public static GriefDefenderConfig<GlobalConfig> globalConfig;
     public static Map<UUID, GDPlayerData> GLOBAL_PLAYER_DATA = new ConcurrentHashMap<>();
+    public static Set<UUID> GLOBAL_DIRTY_PLAYERS = ConcurrentHashMap.newKeySet();
     public static boolean USE_GLOBAL_PLAYER_STORAGE = true;
     public static Map<String, Double> GLOBAL_OPTION_DEFAULTS = new HashMap<>();
 
     public final static Path dataLayerFolderPath = GriefDefenderPlugin.getInstance().getConfigPath();
     public final static Path globalPlayerDataPath = dataLayerFolderPath.resolve("GlobalPlayerData");
 
+    // Player storage read during async pre-login, consumed when the player data is created on join
+    private final Cache<Path, PlayerStorageData> prefetchedPlayerStorage = Caffeine.newBuilder()
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .build();
+
     public void initialize() throws Exception {
         USE_GLOBAL_PLAYER_STORAGE = GriefDefenderPlugin.getGlobalConfig().getConfig().playerdata.useGlobalPlayerDataStorage;
         if (USE_GLOBAL_PLAYER_STORAGE) {
@@ -109,6 +121,71 @@ public void initialize() throws Exception {
         this.setDefaultGlobalPermissions();
     }
 
+    /**
+     * Reads the player's existing storage files ahead of join.
+     * 
+     * <p>Called off the main thread. Files that do not exist yet are left for
+     * join to create, and data that is already loaded is skipped. Entries are
+     * consumed by {@link #takePrefetchedPlayerStorage(Path)} and expire if the
+     * player never joins.</p>
+     *
+     * @param playerUniqueId The player's uuid
+     */
+    public void prefetchPlayerStorage(UUID playerUniqueId) {
+        if (USE_GLOBAL_PLAYER_STORAGE) {
+            if (GLOBAL_PLAYER_DATA.containsKey(playerUniqueId)) {
+                return;
+            }
+            final Path playerFilePath = globalPlayerDataPath.resolve(playerUniqueId.toString());
+            if (DocumentStore.exists(playerFilePath)) {
+                this.prefetchedPlayerStorage.put(playerFilePath, new PlayerStorageData(playerFilePath));
+            }
+            return;
+        }
+
+        for (Map.Entry<UUID, GriefDefenderConfig<ConfigBase>> mapEntry : worldConfigMap.entrySet()) {
+            final GDClaimManager claimWorldManager = this.claimWorldManagers.get(mapEntry.getKey());
+            if (claimWorldManager != null && claimWorldManager.getPlayerDataMap().containsKey(playerUniqueId)) {
+                continue;
+            }
+            final Path playerFilePath = mapEntry.getValue().getPath().getParent().resolve("PlayerData").resolve(playerUniqueId.toString());
+            if (DocumentStore.exists(playerFilePath)) {
+                this.prefetchedPlayerStorage.put(playerFilePath, new PlayerStorageData(playerFilePath));
+            }
+        }
+    }
+
+    @Nullable
+    public PlayerStorageData takePrefetchedPlayerStorage(Path playerFilePath) {
+        return this.prefetchedPlayerStorage.asMap().remove(playerFilePath);
+    }
+
+    /**
+     * Marks a claim as changed so it is written on the next save of its world.
+     *
+     * @param worldUniqueId The world uuid
+     * @param claimUniqueId The claim uuid
+     */
+    public void markClaimDirty(UUID worldUniqueId, UUID claimUniqueId) {
+        final GDClaimManager claimWorldManager = this.claimWorldManagers.get(worldUniqueId);
+        if (claimWorldManager != null) {
+            claimWorldManager.markClaimDirty(claimUniqueId);
+        }
+    }
+
+    /**
+     * Marks a player's data as changed so it is written on the next save of its world.
+     *
+     * @param worldUniqueId The world uuid
+     * @param playerUniqueId The player uuid
+     */
+    public void markPlayerDirty(UUID worldUniqueId, UUID playerUniqueId) {
+        final GDClaimManager claimWorldManager = this.claimWorldManagers.get(worldUniqueId);
+        if (claimWorldManager != null) {
+            claimWorldManager.markPlayerDirty(playerUniqueId);
+        }
+    }
+
     public void clearCachedPlayerData(UUID worldUniqueId, UUID playerUniqueId) {
         this.getClaimWorldManager(worldUniqueId).removePlayer(playerUniqueId);
     }
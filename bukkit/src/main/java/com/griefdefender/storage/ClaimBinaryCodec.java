@@ -0,0 +1,399 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.storage;
+
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.configuration.ClaimStorageData;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.ConfigurationOptions;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.commented.SimpleCommentedConfigurationNode;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Versioned binary encoding of claim data documents.
+ *
+ * <p>The encoding is a typed copy of the configuration tree, so anything the
+ * HOCON loader reads round trips unchanged. UUIDs are stored as 128 bits,
+ * ISO timestamps as epoch seconds and nanos and block positions as three ints.
+ * Sections and lists are count prefixed and absent settings are not written.
+ * Known setting keys are written as an index into {@link #KEYS}.</p>
+ *
+ * <p>Comments are not stored.</p>
+ */
+public final class ClaimBinaryCodec {
+
+    private static final byte[] MAGIC = {'G', 'D', 'C', 'B'};
+    public static final int VERSION = 1;
+
+    // Append only, the index of a key is part of the format
+    private static final String[] KEYS = {
+        GriefDefenderPlugin.MOD_ID,
+        "parent",
+        ClaimStorageData.MAIN_INHERIT_PARENT,
+        ClaimStorageData.MAIN_WORLD_UUID,
+        ClaimStorageData.MAIN_OWNER_UUID,
+        ClaimStorageData.MAIN_CLAIM_TYPE,
+        ClaimStorageData.MAIN_CLAIM_CUBOID,
+        ClaimStorageData.MAIN_CLAIM_RESIZABLE,
+        "isExpired",
+        "sizeRestrictions",
+        ClaimStorageData.MAIN_ALLOW_DENY_MESSAGES,
+        ClaimStorageData.MAIN_ALLOW_CLAIM_EXPIRATION,
+        ClaimStorageData.MAIN_ALLOW_FLAG_OVERRIDES,
+        ClaimStorageData.MAIN_REQUIRES_CLAIM_BLOCKS,
+        ClaimStorageData.MAIN_CLAIM_PVP,
+        ClaimStorageData.MAIN_CLAIM_DATE_CREATED,
+        ClaimStorageData.MAIN_CLAIM_DATE_LAST_ACTIVE,
+        ClaimStorageData.MAIN_CLAIM_NAME,
+        ClaimStorageData.MAIN_CLAIM_GREETING,
+        ClaimStorageData.MAIN_CLAIM_FAREWELL,
+        ClaimStorageData.MAIN_CLAIM_SPAWN,
+        ClaimStorageData.MAIN_LESSER_BOUNDARY_CORNER,
+        ClaimStorageData.MAIN_GREATER_BOUNDARY_CORNER,
+        ClaimStorageData.MAIN_ACCESSORS,
+        ClaimStorageData.MAIN_BUILDERS,
+        ClaimStorageData.MAIN_CONTAINERS,
+        ClaimStorageData.MAIN_MANAGERS,
+        ClaimStorageData.MAIN_ACCESSOR_GROUPS,
+        ClaimStorageData.MAIN_BUILDER_GROUPS,
+        ClaimStorageData.MAIN_CONTAINER_GROUPS,
+        ClaimStorageData.MAIN_MANAGER_GROUPS,
+        "economyData",
+        ClaimStorageData.MAIN_CLAIM_FOR_SALE,
+        ClaimStorageData.MAIN_CLAIM_SALE_PRICE,
+        ClaimStorageData.MAIN_TAX_BALANCE,
+        ClaimStorageData.MAIN_TAX_PAST_DUE_DATE,
+        "bankTransactionLog",
+        "townTag",
+        "accruedBlocks",
+        "bonusBlocks",
+        "createMode",
+        "residentPastDueTaxTimestamps",
+        "residentTaxBalances",
+    };
+    private static final Map<String, Integer> KEY_INDEX = new HashMap<>();
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_MAP = 1;
+    private static final int TAG_LIST = 2;
+    private static final int TAG_STRING = 3;
+    private static final int TAG_UUID = 4;
+    private static final int TAG_INSTANT = 5;
+    private static final int TAG_POSITION = 6;
+    private static final int TAG_TRUE = 7;
+    private static final int TAG_FALSE = 8;
+    private static final int TAG_INT = 9;
+    private static final int TAG_LONG = 10;
+    private static final int TAG_FLOAT = 11;
+    private static final int TAG_DOUBLE = 12;
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEY_INDEX.put(KEYS[i], i + 1);
+        }
+    }
+
+    private ClaimBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        if (data.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void write(ConfigurationNode root, DataOutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        writeNode(root, out);
+    }
+
+    public static CommentedConfigurationNode read(DataInputStream in, ConfigurationOptions options) throws IOException {
+        final byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!isBinary(magic)) {
+            throw new IOException("Not a binary claim document");
+        }
+        final int version = in.readUnsignedByte();
+        if (version > VERSION) {
+            throw new IOException("Unsupported binary claim document version " + version + ", expected " + VERSION + " or lower");
+        }
+        final CommentedConfigurationNode root = SimpleCommentedConfigurationNode.root(options);
+        readNode(root, in);
+        return root;
+    }
+
+    private static void writeNode(ConfigurationNode node, DataOutputStream out) throws IOException {
+        if (node.hasMapChildren()) {
+            final Map<Object, ? extends ConfigurationNode> children = node.getChildrenMap();
+            out.writeByte(TAG_MAP);
+            writeVarInt(children.size(), out);
+            for (Map.Entry<Object, ? extends ConfigurationNode> entry : children.entrySet()) {
+                writeKey(String.valueOf(entry.getKey()), out);
+                writeNode(entry.getValue(), out);
+            }
+            return;
+        }
+        if (node.hasListChildren()) {
+            final List<? extends ConfigurationNode> children = node.getChildrenList();
+            out.writeByte(TAG_LIST);
+            writeVarInt(children.size(), out);
+            for (ConfigurationNode child : children) {
+                writeNode(child, out);
+            }
+            return;
+        }
+
+        final Object value = node.getValue();
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof Map) {
+            // Empty sections
+            out.writeByte(TAG_MAP);
+            writeVarInt(0, out);
+        } else if (value instanceof List) {
+            out.writeByte(TAG_LIST);
+            writeVarInt(0, out);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else {
+            writeString(value.toString(), out);
+        }
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        // Specialized encodings are only used if they reproduce the exact string
+        final UUID uuid = parseUuid(value);
+        if (uuid != null) {
+            out.writeByte(TAG_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            return;
+        }
+        final Instant instant = parseInstant(value);
+        if (instant != null) {
+            out.writeByte(TAG_INSTANT);
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+            return;
+        }
+        final int[] position = parsePosition(value);
+        if (position != null) {
+            out.writeByte(TAG_POSITION);
+            out.writeInt(position[0]);
+            out.writeInt(position[1]);
+            out.writeInt(position[2]);
+            return;
+        }
+        out.writeByte(TAG_STRING);
+        writeUtf(value, out);
+    }
+
+    private static void readNode(ConfigurationNode node, DataInputStream in) throws IOException {
+        final int tag = in.readUnsignedByte();
+        switch (tag) {
+            case TAG_NULL:
+                node.setValue(null);
+                break;
+            case TAG_MAP: {
+                final int size = readVarInt(in);
+                if (size == 0) {
+                    node.setValue(Collections.emptyMap());
+                }
+                for (int i = 0; i < size; i++) {
+                    readNode(node.getNode(readKey(in)), in);
+                }
+                break;
+            }
+            case TAG_LIST: {
+                final int size = readVarInt(in);
+                if (size == 0) {
+                    node.setValue(Collections.emptyList());
+                }
+                for (int i = 0; i < size; i++) {
+                    readNode(node.getAppendedNode(), in);
+                }
+                break;
+            }
+            case TAG_STRING:
+                node.setValue(readUtf(in));
+                break;
+            case TAG_UUID:
+                node.setValue(new UUID(in.readLong(), in.readLong()).toString());
+                break;
+            case TAG_INSTANT:
+                node.setValue(Instant.ofEpochSecond(in.readLong(), in.readInt()).toString());
+                break;
+            case TAG_POSITION:
+                node.setValue(in.readInt() + ";" + in.readInt() + ";" + in.readInt());
+                break;
+            case TAG_TRUE:
+                node.setValue(true);
+                break;
+            case TAG_FALSE:
+                node.setValue(false);
+                break;
+            case TAG_INT:
+                node.setValue(in.readInt());
+                break;
+            case TAG_LONG:
+                node.setValue(in.readLong());
+                break;
+            case TAG_FLOAT:
+                node.setValue(in.readFloat());
+                break;
+            case TAG_DOUBLE:
+                node.setValue(in.readDouble());
+                break;
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static void writeKey(String key, DataOutputStream out) throws IOException {
+        final Integer index = KEY_INDEX.get(key);
+        if (index != null) {
+            writeVarInt(index, out);
+            return;
+        }
+        writeVarInt(0, out);
+        writeUtf(key, out);
+    }
+
+    private static String readKey(DataInputStream in) throws IOException {
+        final int index = readVarInt(in);
+        if (index == 0) {
+            return readUtf(in);
+        }
+        if (index > KEYS.length) {
+            throw new IOException("Unknown key index " + index);
+        }
+        return KEYS[index - 1];
+    }
+
+    private static UUID parseUuid(String value) {
+        if (value.length() != 36 || value.charAt(8) != '-' || value.charAt(13) != '-' || value.charAt(18) != '-' || value.charAt(23) != '-') {
+            return null;
+        }
+        try {
+            final UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Instant parseInstant(String value) {
+        if (value.length() < 20 || value.charAt(4) != '-' || value.charAt(10) != 'T' || value.charAt(value.length() - 1) != 'Z') {
+            return null;
+        }
+        try {
+            final Instant instant = Instant.parse(value);
+            return instant.toString().equals(value) ? instant : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static int[] parsePosition(String value) {
+        final int first = value.indexOf(';');
+        final int second = first < 0 ? -1 : value.indexOf(';', first + 1);
+        if (second < 0 || value.indexOf(';', second + 1) >= 0) {
+            return null;
+        }
+        try {
+            final int[] position = {
+                Integer.parseInt(value.substring(0, first)),
+                Integer.parseInt(value.substring(first + 1, second)),
+                Integer.parseInt(value.substring(second + 1))
+            };
+            return (position[0] + ";" + position[1] + ";" + position[2]).equals(value) ? position : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeUtf(String value, DataOutputStream out) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length, out);
+        out.write(bytes);
+    }
+
+    private static String readUtf(DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(int value, DataOutputStream out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed length");
+    }
+}
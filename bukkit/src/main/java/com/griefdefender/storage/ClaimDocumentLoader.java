@@ -0,0 +1,112 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.storage;
+
+import com.griefdefender.GriefDefenderPlugin;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.ConfigurationOptions;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.hocon.HoconConfigurationLoader;
+import ninja.leaping.configurate.loader.ConfigurationLoader;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads claim files in either HOCON or {@link ClaimBinaryCodec binary} format.
+ *
+ * <p>The format is detected on load so a HOCON file can be dropped in place of
+ * a binary one to import it. Saves use the configured claim format.</p>
+ */
+public class ClaimDocumentLoader implements ConfigurationLoader<CommentedConfigurationNode> {
+
+    private final Path path;
+    private final HoconConfigurationLoader hoconLoader;
+
+    public ClaimDocumentLoader(Path path) {
+        this.path = path;
+        this.hoconLoader = HoconConfigurationLoader.builder().setPath(path).build();
+    }
+
+    public static boolean useBinaryFormat() {
+        return "binary".equalsIgnoreCase(GriefDefenderPlugin.getGlobalConfig().getConfig().storage.claimFormat);
+    }
+
+    @Override
+    public ConfigurationOptions getDefaultOptions() {
+        return this.hoconLoader.getDefaultOptions();
+    }
+
+    @Override
+    public CommentedConfigurationNode load(ConfigurationOptions options) throws IOException {
+        if (Files.notExists(this.path)) {
+            return this.hoconLoader.createEmptyNode(options);
+        }
+
+        final byte[] data = Files.readAllBytes(this.path);
+        if (ClaimBinaryCodec.isBinary(data)) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+                return ClaimBinaryCodec.read(in, options);
+            }
+        }
+        final String text = new String(data, StandardCharsets.UTF_8);
+        return HoconConfigurationLoader.builder()
+                .setSource(() -> new BufferedReader(new StringReader(text)))
+                .build()
+                .load(options);
+    }
+
+    @Override
+    public void save(ConfigurationNode node) throws IOException {
+        if (useBinaryFormat()) {
+            this.saveBinary(node);
+        } else {
+            this.hoconLoader.save(node);
+        }
+    }
+
+    public void saveBinary(ConfigurationNode node) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.path)))) {
+            ClaimBinaryCodec.write(node, out);
+        }
+    }
+
+    public void saveHocon(ConfigurationNode node) throws IOException {
+        this.hoconLoader.save(node);
+    }
+
+    @Override
+    public CommentedConfigurationNode createEmptyNode(ConfigurationOptions options) {
+        return this.hoconLoader.createEmptyNode(options);
+    }
+}
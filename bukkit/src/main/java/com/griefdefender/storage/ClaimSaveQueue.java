@@ -0,0 +1,307 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.storage;
+
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.metrics.GDMetrics;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Write-behind queue for claim data files.
+ *
+ * <p>Callers hand over a detached snapshot of the configuration tree. A single
+ * I/O thread writes the latest snapshot of each file, so repeated saves of the
+ * same claim before it is written are coalesced into one write. With a
+ * database backend, queued snapshots are written in batched transactions.</p>
+ */
+public class ClaimSaveQueue {
+
+    private static ClaimSaveQueue instance;
+
+    private final Map<Path, CommentedConfigurationNode> pendingSaves = new ConcurrentHashMap<>();
+    private final BlockingQueue<Path> saveOrder = new LinkedBlockingQueue<>();
+    private final Object writeLock = new Object();
+    private volatile boolean running = false;
+    private Thread writerThread;
+
+    public static ClaimSaveQueue getInstance() {
+        if (instance == null) {
+            instance = new ClaimSaveQueue();
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (this.running) {
+            return;
+        }
+
+        this.running = true;
+        this.writerThread = new Thread(this::processSaves, "GriefDefender Claim Save Thread");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void enqueue(Path path, CommentedConfigurationNode snapshot) {
+        if (!this.running) {
+            // Not started or already shut down, write directly
+            synchronized (this.writeLock) {
+                this.pendingSaves.remove(path);
+                this.write(path, snapshot);
+            }
+            return;
+        }
+
+        this.awaitCapacity();
+        if (this.pendingSaves.put(path, snapshot) == null) {
+            this.saveOrder.offer(path);
+        }
+    }
+
+    /**
+     * Drops any pending save for the path.
+     * 
+     * <p>Must be called before a claim file is deleted so a queued
+     * snapshot does not recreate it.</p>
+     *
+     * @param path The claim file path
+     */
+    public void cancel(Path path) {
+        synchronized (this.writeLock) {
+            this.pendingSaves.remove(path);
+        }
+    }
+
+    /**
+     * Writes any pending save for the path on the calling thread.
+     *
+     * <p>Must be called before a claim file is moved so the move sees the
+     * latest snapshot and a queued snapshot does not recreate the old file.</p>
+     *
+     * @param path The claim file path
+     */
+    public void flush(Path path) {
+        this.writePending(path);
+    }
+
+    public int getPendingCount() {
+        return this.pendingSaves.size();
+    }
+
+    /**
+     * Blocks until every queued snapshot has been written.
+     */
+    public void flush() {
+        if (!this.running || Thread.currentThread() == this.writerThread) {
+            this.drain();
+            return;
+        }
+
+        synchronized (this.pendingSaves) {
+            while (!this.pendingSaves.isEmpty() && this.writerThread.isAlive()) {
+                try {
+                    this.pendingSaves.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        // Pick up anything left if the writer died
+        this.drain();
+        this.awaitInFlightWrite();
+    }
+
+    /**
+     * Waits for a write the writer thread has already started.
+     *
+     * <p>Snapshots are removed from {@link #pendingSaves} and written while
+     * holding {@link #writeLock}, so an empty queue can still have one write
+     * in progress. Acquiring the lock returns once that write completes.</p>
+     */
+    private void awaitInFlightWrite() {
+        synchronized (this.writeLock) {
+            // Nothing to do, holding the lock is the barrier
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (!this.running) {
+            this.drain();
+            return;
+        }
+
+        this.flush();
+        this.running = false;
+        this.writerThread.interrupt();
+        try {
+            this.writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.writerThread = null;
+        this.drain();
+    }
+
+    private void awaitCapacity() {
+        final int limit = GriefDefenderPlugin.getGlobalConfig().getConfig().thread.saveQueueLimit;
+        if (limit <= 0 || this.pendingSaves.size() < limit) {
+            return;
+        }
+
+        // Backpressure: hold the caller until the writer catches up
+        synchronized (this.pendingSaves) {
+            while (this.running && this.pendingSaves.size() >= limit) {
+                try {
+                    this.pendingSaves.wait(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void processSaves() {
+        while (this.running) {
+            final Path path;
+            try {
+                path = this.saveOrder.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            if (DocumentStore.getDatabase() == null) {
+                this.writePending(path);
+                continue;
+            }
+            final List<Path> batch = new ArrayList<>();
+            batch.add(path);
+            this.saveOrder.drainTo(batch, Math.max(0, GriefDefenderPlugin.getGlobalConfig().getConfig().storage.batchSize - 1));
+            this.writePendingBatch(batch);
+        }
+    }
+
+    private void drain() {
+        Path path;
+        while ((path = this.saveOrder.poll()) != null) {
+            this.writePending(path);
+        }
+        for (Path remaining : this.pendingSaves.keySet()) {
+            this.writePending(remaining);
+        }
+    }
+
+    private void writePending(Path path) {
+        synchronized (this.writeLock) {
+            final CommentedConfigurationNode snapshot = this.pendingSaves.remove(path);
+            if (snapshot != null) {
+                this.write(path, snapshot);
+            }
+        }
+        synchronized (this.pendingSaves) {
+            this.pendingSaves.notifyAll();
+        }
+    }
+
+    private void writePendingBatch(List<Path> paths) {
+        synchronized (this.writeLock) {
+            final Map<Path, CommentedConfigurationNode> snapshots = new LinkedHashMap<>();
+            for (Path path : paths) {
+                final CommentedConfigurationNode snapshot = this.pendingSaves.remove(path);
+                if (snapshot != null) {
+                    snapshots.put(path, snapshot);
+                }
+            }
+            if (!snapshots.isEmpty()) {
+                this.writeDatabase(DocumentStore.getDatabase(), snapshots);
+            }
+        }
+        synchronized (this.pendingSaves) {
+            this.pendingSaves.notifyAll();
+        }
+    }
+
+    private void writeDatabase(SqliteDatabase database, Map<Path, CommentedConfigurationNode> snapshots) {
+        try {
+            database.write(snapshots, true);
+            for (int i = 0; i < snapshots.size(); i++) {
+                GDMetrics.recordStorageSave("claim");
+            }
+        } catch (SQLException | IOException e) {
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to save " + snapshots.size() + " claims to the database", e);
+        }
+    }
+
+    private void write(Path path, CommentedConfigurationNode snapshot) {
+        final SqliteDatabase database = DocumentStore.getDatabase();
+        if (database != null) {
+            final Map<Path, CommentedConfigurationNode> snapshots = new LinkedHashMap<>();
+            snapshots.put(path, snapshot);
+            this.writeDatabase(database, snapshots);
+            return;
+        }
+
+        Path tempPath = null;
+        try {
+            if (Files.notExists(path.getParent())) {
+                Files.createDirectories(path.getParent());
+            }
+            tempPath = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            new ClaimDocumentLoader(tempPath).save(snapshot);
+            try {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            GDMetrics.recordStorageSave("claim");
+        } catch (IOException e) {
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to save configuration " + path, e);
+            if (tempPath != null) {
+                try {
+                    Files.deleteIfExists(tempPath);
+                } catch (IOException e1) {
+                    // ignore
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.storage;
+
+import com.griefdefender.GriefDefenderPlugin;
+import ninja.leaping.configurate.ConfigurationNode;
+import org.bukkit.World;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores claim and player data in an embedded SQLite database.
+ *
+ * <p>Existing data files are imported on first use and left in place.</p>
+ */
+public class DatabaseStorage extends FileStorage {
+
+    private static final String MIGRATED_FILE = "_sqlMigrated";
+    private SqliteDatabase database;
+
+    @Override
+    public void initialize() throws Exception {
+        final String databaseFile = GriefDefenderPlugin.getGlobalConfig().getConfig().storage.databaseFile;
+        this.database = new SqliteDatabase(dataLayerFolderPath.resolve(databaseFile), dataLayerFolderPath);
+        this.database.open();
+        DocumentStore.setDatabase(this.database);
+
+        super.initialize();
+
+        if (USE_GLOBAL_PLAYER_STORAGE) {
+            this.migrate(globalPlayerDataPath, dataLayerFolderPath.resolve("_sqlPlayerDataMigrated"));
+        }
+    }
+
+    @Override
+    public void registerWorld(World world) {
+        super.registerWorld(world);
+        final Path worldDataPath = BaseStorage.worldConfigMap.get(world.getUID()).getPath().getParent();
+        this.migrate(worldDataPath.resolve("ClaimData"), worldDataPath.resolve(MIGRATED_FILE));
+        if (!USE_GLOBAL_PLAYER_STORAGE) {
+            this.migrate(worldDataPath.resolve("PlayerData"), worldDataPath.resolve("_sqlPlayerDataMigrated"));
+        }
+    }
+
+    @Override
+    protected List<File> listClaimFiles(Path claimDataPath) throws IOException {
+        try {
+            return this.database.list(claimDataPath).stream().map(Path::toFile).collect(Collectors.toList());
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    protected File[] listPlayerFiles(Path playerDataPath) throws IOException {
+        return this.listClaimFiles(playerDataPath).toArray(new File[0]);
+    }
+
+    public void close() {
+        DocumentStore.setDatabase(null);
+        if (this.database != null) {
+            this.database.close();
+        }
+    }
+
+    private void migrate(Path folder, Path migratedFile) {
+        if (Files.exists(migratedFile) || Files.notExists(folder)) {
+            return;
+        }
+
+        final List<Path> files;
+        try (Stream<Path> stream = Files.walk(folder)) {
+            // UUID's should always be 36 in length
+            files = stream.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().length() == 36).collect(Collectors.toList());
+        } catch (IOException e) {
+            GriefDefenderPlugin.getInstance().getLogger().severe("Could not read " + folder + " for database import: " + e.getMessage());
+            return;
+        }
+
+        final int batchSize = Math.max(1, GriefDefenderPlugin.getGlobalConfig().getConfig().storage.batchSize);
+        final Map<Path, ConfigurationNode> batch = new LinkedHashMap<>();
+        int imported = 0;
+        try {
+            for (Path file : files) {
+                try {
+                    batch.put(file, new ClaimDocumentLoader(file).load());
+                } catch (IOException e) {
+                    GriefDefenderPlugin.getInstance().getLogger().severe("Could not import " + file + ": " + e.getMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    imported += this.writeBatch(batch);
+                }
+            }
+            imported += this.writeBatch(batch);
+            Files.createFile(migratedFile);
+        } catch (SQLException | IOException e) {
+            GriefDefenderPlugin.getInstance().getLogger().severe("Database import of " + folder + " failed, it will be retried on next start: " + e.getMessage());
+            return;
+        }
+        GriefDefenderPlugin.getInstance().getLogger().info("Imported " + imported + " files from " + folder + " into the database.");
+    }
+
+    private int writeBatch(Map<Path, ConfigurationNode> batch) throws SQLException, IOException {
+        final int size = batch.size();
+        if (size > 0) {
+            // Documents already in the database are newer than the files
+            this.database.write(batch, false);
+            batch.clear();
+        }
+        return size;
+    }
+}
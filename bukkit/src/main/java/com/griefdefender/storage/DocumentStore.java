@@ -0,0 +1,160 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.storage;
+
+import com.google.common.collect.ImmutableMap;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.hocon.HoconConfigurationLoader;
+import ninja.leaping.configurate.loader.ConfigurationLoader;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Routes claim and player data documents to the active backend.
+ *
+ * <p>Documents are addressed by their file path. With file storage the path
+ * is used as is, with a database the path is the document key.</p>
+ */
+public class DocumentStore {
+
+    private static volatile SqliteDatabase database;
+
+    public static void setDatabase(@Nullable SqliteDatabase database) {
+        DocumentStore.database = database;
+    }
+
+    @Nullable
+    public static SqliteDatabase getDatabase() {
+        return database;
+    }
+
+    /**
+     * Creates the empty document if it does not exist yet. Databases create
+     * documents on first save instead.
+     *
+     * @param path The document path
+     */
+    public static void ensureExists(Path path) throws IOException {
+        if (database != null) {
+            return;
+        }
+        if (Files.notExists(path.getParent())) {
+            Files.createDirectories(path.getParent());
+        }
+        if (Files.notExists(path)) {
+            Files.createFile(path);
+        }
+    }
+
+    public static HoconConfigurationLoader createLoader(Path path) {
+        final SqliteDatabase database = DocumentStore.database;
+        if (database == null) {
+            return HoconConfigurationLoader.builder().setPath(path).build();
+        }
+
+        return HoconConfigurationLoader.builder()
+                .setSource(() -> {
+                    final String data = database.read(path);
+                    return new BufferedReader(new StringReader(data == null ? "" : data));
+                })
+                .setSink(() -> new BufferedWriter(new StringWriter() {
+                    @Override
+                    public void close() throws IOException {
+                        super.close();
+                        try {
+                            database.write(ImmutableMap.of(path, SqliteDatabase.parse(this.toString())), true);
+                        } catch (SQLException e) {
+                            throw new IOException(e);
+                        }
+                    }
+                }))
+                .build();
+    }
+
+    /**
+     * Creates the loader for a claim document. Claim files may be stored in
+     * HOCON or binary format, database documents are always HOCON.
+     *
+     * @param path The document path
+     * @return The loader
+     */
+    public static ConfigurationLoader<CommentedConfigurationNode> createClaimLoader(Path path) {
+        if (database == null) {
+            return new ClaimDocumentLoader(path);
+        }
+        return createLoader(path);
+    }
+
+    public static boolean exists(Path path) {
+        final SqliteDatabase database = DocumentStore.database;
+        if (database == null) {
+            return Files.exists(path);
+        }
+        try {
+            return database.exists(path);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public static void move(Path from, Path to) throws IOException {
+        // A queued snapshot must land before the move or it would recreate the source
+        ClaimSaveQueue.getInstance().flush(from);
+        final SqliteDatabase database = DocumentStore.database;
+        if (database == null) {
+            if (Files.notExists(to.getParent())) {
+                Files.createDirectories(to.getParent());
+            }
+            Files.move(from, to);
+            return;
+        }
+        try {
+            database.move(from, to);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    public static void delete(Path path) throws IOException {
+        final SqliteDatabase database = DocumentStore.database;
+        if (database == null) {
+            Files.delete(path);
+            return;
+        }
+        try {
+            database.delete(path);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+}
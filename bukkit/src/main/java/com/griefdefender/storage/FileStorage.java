@@ -25,6 +25,7 @@
 package com.griefdefender.storage;
 
 import com.flowpowered.math.vector.Vector3i;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.griefdefender.GDPlayerData;
 import com.griefdefender.GriefDefenderPlugin;
 import com.griefdefender.api.GriefDefender;
@@ -58,9 +59,17 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class FileStorage extends BaseStorage {
 
@@ -209,7 +218,7 @@ public void loadWorldData(World world) {
 
         // Load wilderness claim first
         final Path wildernessFilePath = newWorldDataPath.resolve("ClaimData").resolve("wilderness").resolve(world.getUID().toString());
-        if (Files.exists(wildernessFilePath)) {
+        if (DocumentStore.exists(wildernessFilePath)) {
             try {
                 this.loadClaim(wildernessFilePath.toFile(), world, world.getUID());
             } catch (Exception e) {
@@ -221,16 +230,17 @@ public void loadWorldData(World world) {
 
         // Load Claim Data
         try {
-            File[] files = newWorldDataPath.resolve("ClaimData").toFile().listFiles();
-            if (files != null && files.length > 0) {
-                this.loadClaimData(files, world);
+            final List<File> claimFiles = this.listClaimFiles(newWorldDataPath.resolve("ClaimData"));
+            if (!claimFiles.isEmpty()) {
+                this.loadClaimData(claimFiles, world);
                 GriefDefenderPlugin.getInstance().getLogger().info("[" + worldName + "] " + this.claimLoadCount + " total claims loaded.");
             }
 
+            final File[] files;
             if (GriefDefenderPlugin.getGlobalConfig().getConfig().playerdata.useGlobalPlayerDataStorage) {
-                files = globalPlayerDataPath.toFile().listFiles();
+                files = this.listPlayerFiles(globalPlayerDataPath);
             } else {
-                files = newWorldDataPath.resolve("PlayerData").toFile().listFiles();
+                files = this.listPlayerFiles(newWorldDataPath.resolve("PlayerData"));
             }
             if (files != null && files.length > 0) {
                 this.loadPlayerData(world, files);
@@ -271,46 +281,148 @@ public void unloadWorldData(World world) {
         BaseStorage.worldConfigMap.remove(world.getUID());
     }
 
-    void loadClaimData(File[] files, World world) throws Exception {
+    void loadClaimData(List<File> claimFiles, World world) throws Exception {
+        // Parse all claim files in parallel, claims are linked and added on this thread afterwards
+        int loadThreads = GriefDefenderPlugin.getGlobalConfig().getConfig().thread.numLoadThreads;
+        if (loadThreads <= 0) {
+            loadThreads = Runtime.getRuntime().availableProcessors();
+        }
+        final ExecutorService loadExecutor = Executors.newFixedThreadPool(Math.min(loadThreads, claimFiles.size()),
+                new ThreadFactoryBuilder().setNameFormat("GriefDefender Claim Loader-%d").setDaemon(true).build());
+        final List<Future<ParsedClaimFile>> futures = new ArrayList<>(claimFiles.size());
+        try {
+            for (File file : claimFiles) {
+                futures.add(loadExecutor.submit(() -> this.parseClaimFile(file, world)));
+            }
+
+            final Map<UUID, ParsedClaimFile> pendingClaims = new LinkedHashMap<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    final ParsedClaimFile parsed = futures.get(i).get();
+                    if (parsed != null) {
+                        pendingClaims.put(parsed.claimId, parsed);
+                    }
+                } catch (ExecutionException e) {
+                    GriefDefenderPlugin.getInstance().getLogger().severe(claimFiles.get(i).getAbsolutePath() + " failed to load.");
+                    e.getCause().printStackTrace();
+                }
+            }
+
+            this.resolveClaims(pendingClaims, world);
+        } finally {
+            loadExecutor.shutdownNow();
+        }
+    }
+
+    protected List<File> listClaimFiles(Path claimDataPath) throws IOException {
+        final List<File> claimFiles = new ArrayList<>();
+        final File[] files = claimDataPath.toFile().listFiles();
+        if (files != null) {
+            this.collectClaimFiles(files, claimFiles);
+        }
+        return claimFiles;
+    }
+
+    protected File[] listPlayerFiles(Path playerDataPath) throws IOException {
+        return playerDataPath.toFile().listFiles(File::isFile);
+    }
+
+    private void collectClaimFiles(File[] files, List<File> claimFiles) {
         for (int i = 0; i < files.length; i++) {
             File file = files[i];
             if (file.isFile()) {
-                this.loadClaimFile(file, world);
+                claimFiles.add(file);
             }
         }
         for (int i = 0; i < files.length; i++) {
             File file = files[i];
             if (file.isDirectory()) {
-                this.loadClaimData(file.listFiles(), world);
+                final File[] children = file.listFiles();
+                if (children != null) {
+                    this.collectClaimFiles(children, claimFiles);
+                }
             }
         }
     }
 
-    void loadClaimFile(File file, World world) {
-        if (file.isFile())
-        {
-            // the filename is the claim ID. try to parse it
-            UUID claimId;
+    private ParsedClaimFile parseClaimFile(File file, World world) {
+        // the filename is the claim ID. try to parse it
+        UUID claimId;
 
-            try {
-                final String fileName = file.getName();
-                // UUID's should always be 36 in length
-                if (fileName.length() != 36) {
-                    return;
+        try {
+            final String fileName = file.getName();
+            // UUID's should always be 36 in length
+            if (fileName.length() != 36) {
+                return null;
+            }
+
+            claimId = UUID.fromString(fileName);
+        } catch (Exception e) {
+            GriefDefenderPlugin.getInstance().getLogger().severe("Could not read claim file " + file.getAbsolutePath());
+            return null;
+        }
+
+        // wilderness is loaded separately
+        if (claimId.equals(world.getUID())) {
+            return null;
+        }
+
+        final ClaimStorageData claimStorage;
+        if (file.toPath().getParent().endsWith("town")) {
+            claimStorage = new TownStorageData(file.toPath(), world.getUID());
+        } else {
+            claimStorage = new ClaimStorageData(file.toPath(), world.getUID());
+        }
+        return new ParsedClaimFile(file, claimId, claimStorage);
+    }
+
+    private void resolveClaims(Map<UUID, ParsedClaimFile> pendingClaims, World world) {
+        // Parents must be added before their children so keep passing over the remaining
+        // claims until no more can be resolved
+        boolean resolved = true;
+        while (!pendingClaims.isEmpty() && resolved) {
+            resolved = false;
+            final Iterator<ParsedClaimFile> iterator = pendingClaims.values().iterator();
+            while (iterator.hasNext()) {
+                final ParsedClaimFile parsed = iterator.next();
+                if (parsed.parentId != null && pendingClaims.containsKey(parsed.parentId)) {
+                    continue;
                 }
 
-                claimId = UUID.fromString(fileName);
-            } catch (Exception e) {
-                GriefDefenderPlugin.getInstance().getLogger().severe("Could not read claim file " + file.getAbsolutePath());
-                return;
+                iterator.remove();
+                resolved = true;
+                this.loadParsedClaim(parsed, world);
             }
+        }
 
-            try {
-               this.loadClaim(file, world, claimId);
-            } catch (Exception e) {
-                GriefDefenderPlugin.getInstance().getLogger().severe(file.getAbsolutePath() + " failed to load.");
-                e.printStackTrace();
-            }
+        // Anything left has a missing or circular parent and will be reported
+        for (ParsedClaimFile parsed : pendingClaims.values()) {
+            this.loadParsedClaim(parsed, world);
+        }
+        pendingClaims.clear();
+    }
+
+    private void loadParsedClaim(ParsedClaimFile parsed, World world) {
+        try {
+            this.loadClaim(parsed.file, world, parsed.claimId, parsed.claimStorage);
+        } catch (Exception e) {
+            GriefDefenderPlugin.getInstance().getLogger().severe(parsed.file.getAbsolutePath() + " failed to load.");
+            e.printStackTrace();
+        }
+    }
+
+    private static class ParsedClaimFile {
+
+        private final File file;
+        private final UUID claimId;
+        private final UUID parentId;
+        private final ClaimStorageData claimStorage;
+
+        private ParsedClaimFile(File file, UUID claimId, ClaimStorageData claimStorage) {
+            this.file = file;
+            this.claimId = claimId;
+            this.claimStorage = claimStorage;
+            this.parentId = claimStorage.getConfig() == null ? null : claimStorage.getConfig().getParent().orElse(null);
         }
     }
 
@@ -326,36 +438,33 @@ void loadPlayerData(World world, File[] files) throws Exception {
             migrate = true;
         }
         for (int i = 0; i < files.length; i++) {
-            if (files[i].isFile())
-            {
-                UUID playerUUID;
-
-                try {
-                    final String fileName = files[i].getName();
-                    // UUID's should always be 36 in length
-                    if (fileName.length() != 36) {
-                        return;
-                    }
+            UUID playerUUID;
 
-                    playerUUID = UUID.fromString(fileName);
-                } catch (Exception e) {
-                    GriefDefenderPlugin.getInstance().getLogger().severe("Could not read player file " + files[i].getAbsolutePath());
-                    continue;
+            try {
+                final String fileName = files[i].getName();
+                // UUID's should always be 36 in length
+                if (fileName.length() != 36) {
+                    return;
                 }
 
-                if (!migrate && Bukkit.getServer().getPlayer(playerUUID) == null) {
-                    continue;
-                }
+                playerUUID = UUID.fromString(fileName);
+            } catch (Exception e) {
+                GriefDefenderPlugin.getInstance().getLogger().severe("Could not read player file " + files[i].getAbsolutePath());
+                continue;
+            }
 
-                try {
-                    this.getOrCreatePlayerData(world, playerUUID);
-                } catch (Exception e) {
-                    if (e.getMessage() != null && e.getMessage().contains("World not found")) {
-                        files[i].delete();
-                    } else {
-                        GriefDefenderPlugin.getInstance().getLogger().severe(files[i].getName() + " is corrupted.");
-                        e.printStackTrace();
-                    }
+            if (!migrate && Bukkit.getServer().getPlayer(playerUUID) == null) {
+                continue;
+            }
+
+            try {
+                this.getOrCreatePlayerData(world, playerUUID);
+            } catch (Exception e) {
+                if (e.getMessage() != null && e.getMessage().contains("World not found")) {
+                    DocumentStore.delete(files[i].toPath());
+                } else {
+                    GriefDefenderPlugin.getInstance().getLogger().severe(files[i].getName() + " is corrupted.");
+                    e.printStackTrace();
                 }
             }
         }
@@ -363,6 +472,11 @@ void loadPlayerData(World world, File[] files) throws Exception {
 
     public GDClaim loadClaim(File claimFile, World world, UUID claimId)
             throws Exception {
+        return this.loadClaim(claimFile, world, claimId, null);
+    }
+
+    public GDClaim loadClaim(File claimFile, World world, UUID claimId, ClaimStorageData claimStorage)
+            throws Exception {
         GDClaim claim;
 
         final GDClaimManager claimManager = this.getClaimWorldManager(world.getUID());
@@ -371,11 +485,12 @@ public GDClaim loadClaim(File claimFile, World world, UUID claimId)
         }
         boolean isTown = claimFile.toPath().getParent().endsWith("town");
         boolean writeToStorage = false;
-        ClaimStorageData claimStorage = null;
-        if (isTown) {
-            claimStorage = new TownStorageData(claimFile.toPath(), world.getUID());
-        } else {
-            claimStorage = new ClaimStorageData(claimFile.toPath(), world.getUID());
+        if (claimStorage == null) {
+            if (isTown) {
+                claimStorage = new TownStorageData(claimFile.toPath(), world.getUID());
+            } else {
+                claimStorage = new ClaimStorageData(claimFile.toPath(), world.getUID());
+            }
         }
 
         final ClaimType type = claimStorage.getConfig().getType();
@@ -388,10 +503,7 @@ public GDClaim loadClaim(File claimFile, World world, UUID claimId)
 
         if (claimFile.getParentFile().getName().equalsIgnoreCase("claimdata")) {
             final Path newPath = claimStorage.filePath.getParent().resolve(type.getName().toLowerCase());
-            if (Files.notExists(newPath)) {
-                Files.createDirectories(newPath);
-            }
-            Files.move(claimStorage.filePath, newPath.resolve(fileName));
+            DocumentStore.move(claimStorage.filePath, newPath.resolve(fileName));
             claimStorage.filePath = newPath.resolve(fileName);
             claimStorage = new ClaimStorageData(claimStorage.filePath, world.getUID());
         }
@@ -460,7 +572,8 @@ public ClaimResult writeClaimToStorage(GDClaim claim) {
     public ClaimResult deleteClaimFromStorage(GDClaim claim) {
         final GDPlayerData ownerData = claim.getOwnerPlayerData();
         try {
-            Files.delete(claim.getClaimStorage().filePath);
+            ClaimSaveQueue.getInstance().cancel(claim.getClaimStorage().filePath);
+            DocumentStore.delete(claim.getClaimStorage().filePath);
             if (GriefDefenderPlugin.getInstance().getWorldEditProvider() != null) {
                 final Path schematicPath = GriefDefenderPlugin.getInstance().getWorldEditProvider().getSchematicWorldMap().get(claim.getWorldUniqueId());
                 if (schematicPath != null && Files.exists(schematicPath.resolve(claim.getUniqueId().toString()))) {
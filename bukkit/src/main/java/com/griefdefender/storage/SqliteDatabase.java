@@ -0,0 +1,379 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.storage;
+
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.configuration.ClaimStorageData;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.hocon.HoconConfigurationLoader;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stores claim and player documents in a local SQLite database.
+ *
+ * <p>Each document is keyed by the path it would have under the file layout,
+ * relative to the GD config folder, and keeps its full HOCON text so every
+ * config class loads unchanged. Owner, parent, type, trust and economy fields
+ * are also written to indexed columns and tables.</p>
+ *
+ * <p>Saving a document that matches the stored text is skipped. Otherwise the
+ * whole HOCON text is replaced, since it is stored as one column, but only
+ * the trust rows that were added or removed are written.</p>
+ */
+public class SqliteDatabase {
+
+    private static final String[] TRUST_KEYS = {
+        ClaimStorageData.MAIN_ACCESSORS, ClaimStorageData.MAIN_BUILDERS, ClaimStorageData.MAIN_CONTAINERS, ClaimStorageData.MAIN_MANAGERS,
+        ClaimStorageData.MAIN_ACCESSOR_GROUPS, ClaimStorageData.MAIN_BUILDER_GROUPS, ClaimStorageData.MAIN_CONTAINER_GROUPS, ClaimStorageData.MAIN_MANAGER_GROUPS
+    };
+
+    private final Path databasePath;
+    private final Path rootPath;
+    private Connection connection;
+
+    public SqliteDatabase(Path databasePath, Path rootPath) {
+        this.databasePath = databasePath;
+        this.rootPath = rootPath.toAbsolutePath().normalize();
+    }
+
+    public synchronized void open() throws SQLException {
+        try {
+            // Bundled with the server
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite JDBC driver not found", e);
+        }
+
+        this.connection = DriverManager.getConnection("jdbc:sqlite:" + this.databasePath.toAbsolutePath());
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("CREATE TABLE IF NOT EXISTS claims (path TEXT PRIMARY KEY, claim_id TEXT NOT NULL, world_id TEXT, owner_id TEXT, parent_id TEXT, type TEXT, data TEXT NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS claims_claim_id ON claims (claim_id)");
+            statement.execute("CREATE INDEX IF NOT EXISTS claims_world_id ON claims (world_id)");
+            statement.execute("CREATE INDEX IF NOT EXISTS claims_owner_id ON claims (owner_id)");
+            statement.execute("CREATE INDEX IF NOT EXISTS claims_parent_id ON claims (parent_id)");
+            statement.execute("CREATE TABLE IF NOT EXISTS claim_trust (path TEXT NOT NULL, trust_type TEXT NOT NULL, subject TEXT NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS claim_trust_path ON claim_trust (path)");
+            statement.execute("CREATE INDEX IF NOT EXISTS claim_trust_subject ON claim_trust (subject)");
+            statement.execute("CREATE TABLE IF NOT EXISTS claim_economy (path TEXT PRIMARY KEY, for_sale INTEGER, sale_price REAL, tax_balance REAL, tax_past_due_date TEXT)");
+            statement.execute("CREATE TABLE IF NOT EXISTS players (path TEXT PRIMARY KEY, player_id TEXT NOT NULL, data TEXT NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS players_player_id ON players (player_id)");
+        }
+        this.connection.setAutoCommit(false);
+        this.connection.commit();
+    }
+
+    public synchronized void close() {
+        if (this.connection == null) {
+            return;
+        }
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            GriefDefenderPlugin.getInstance().getLogger().severe("Failed to close database " + this.databasePath + ": " + e.getMessage());
+        }
+        this.connection = null;
+    }
+
+    @Nullable
+    public synchronized String read(Path path) throws SQLException {
+        try (PreparedStatement statement = this.connection.prepareStatement("SELECT data FROM " + getTable(path) + " WHERE path = ?")) {
+            statement.setString(1, this.getKey(path));
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getString(1) : null;
+            }
+        }
+    }
+
+    public synchronized boolean exists(Path path) throws SQLException {
+        try (PreparedStatement statement = this.connection.prepareStatement("SELECT 1 FROM " + getTable(path) + " WHERE path = ?")) {
+            statement.setString(1, this.getKey(path));
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next();
+            }
+        }
+    }
+
+    /**
+     * Lists the paths of all documents stored below a folder.
+     *
+     * @param folder The folder
+     * @return The document paths
+     */
+    public synchronized List<Path> list(Path folder) throws SQLException {
+        final String prefix = this.getKey(folder) + "/";
+        final List<Path> paths = new ArrayList<>();
+        // '0' sorts directly after '/', so this is a prefix scan on the primary key
+        try (PreparedStatement statement = this.connection.prepareStatement("SELECT path FROM " + getTable(folder.resolve("_")) + " WHERE path >= ? AND path < ?")) {
+            statement.setString(1, prefix);
+            statement.setString(2, prefix.substring(0, prefix.length() - 1) + "0");
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    paths.add(this.rootPath.resolve(result.getString(1)));
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Writes documents in a single transaction.
+     *
+     * @param documents The documents by path
+     * @param replace Whether existing documents are replaced
+     */
+    public synchronized void write(Map<Path, ? extends ConfigurationNode> documents, boolean replace) throws SQLException, IOException {
+        try {
+            for (Map.Entry<Path, ? extends ConfigurationNode> entry : documents.entrySet()) {
+                if (!replace && this.exists(entry.getKey())) {
+                    continue;
+                }
+                this.writeDocument(entry.getKey(), entry.getValue());
+            }
+            this.connection.commit();
+        } catch (SQLException | IOException e) {
+            this.connection.rollback();
+            throw e;
+        }
+    }
+
+    public synchronized void delete(Path path) throws SQLException {
+        try {
+            this.deleteDocument(path);
+            this.connection.commit();
+        } catch (SQLException e) {
+            this.connection.rollback();
+            throw e;
+        }
+    }
+
+    public synchronized void move(Path from, Path to) throws SQLException, IOException {
+        final String data = this.read(from);
+        if (data == null) {
+            return;
+        }
+        try {
+            this.deleteDocument(from);
+            this.writeDocument(to, parse(data));
+            this.connection.commit();
+        } catch (SQLException | IOException e) {
+            this.connection.rollback();
+            throw e;
+        }
+    }
+
+    private void writeDocument(Path path, ConfigurationNode root) throws SQLException, IOException {
+        final String key = this.getKey(path);
+        final String data = serialize(root);
+        if (data.equals(this.read(path))) {
+            return;
+        }
+        if (isPlayerPath(path)) {
+            try (PreparedStatement statement = this.connection.prepareStatement("INSERT OR REPLACE INTO players (path, player_id, data) VALUES (?, ?, ?)")) {
+                statement.setString(1, key);
+                statement.setString(2, path.getFileName().toString());
+                statement.setString(3, data);
+                statement.executeUpdate();
+            }
+            return;
+        }
+
+        final ConfigurationNode claimNode = root.getNode(GriefDefenderPlugin.MOD_ID);
+        try (PreparedStatement statement = this.connection.prepareStatement("INSERT OR REPLACE INTO claims (path, claim_id, world_id, owner_id, parent_id, type, data) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            statement.setString(1, key);
+            statement.setString(2, path.getFileName().toString());
+            statement.setString(3, claimNode.getNode(ClaimStorageData.MAIN_WORLD_UUID).getString());
+            statement.setString(4, claimNode.getNode(ClaimStorageData.MAIN_OWNER_UUID).getString());
+            statement.setString(5, claimNode.getNode("parent").getString());
+            statement.setString(6, claimNode.getNode(ClaimStorageData.MAIN_CLAIM_TYPE).getString());
+            statement.setString(7, data);
+            statement.executeUpdate();
+        }
+
+        this.writeTrust(key, claimNode);
+
+        final ConfigurationNode economyNode = claimNode.getNode("economyData");
+        try (PreparedStatement statement = this.connection.prepareStatement("INSERT OR REPLACE INTO claim_economy (path, for_sale, sale_price, tax_balance, tax_past_due_date) VALUES (?, ?, ?, ?, ?)")) {
+            statement.setString(1, key);
+            statement.setInt(2, economyNode.getNode(ClaimStorageData.MAIN_CLAIM_FOR_SALE).getBoolean() ? 1 : 0);
+            statement.setDouble(3, economyNode.getNode(ClaimStorageData.MAIN_CLAIM_SALE_PRICE).getDouble());
+            statement.setDouble(4, economyNode.getNode(ClaimStorageData.MAIN_TAX_BALANCE).getDouble());
+            statement.setString(5, economyNode.getNode(ClaimStorageData.MAIN_TAX_PAST_DUE_DATE).getString());
+            statement.executeUpdate();
+        }
+    }
+
+    private void writeTrust(String key, ConfigurationNode claimNode) throws SQLException {
+        final Set<TrustRow> rows = new HashSet<>();
+        for (String trustKey : TRUST_KEYS) {
+            for (ConfigurationNode subject : claimNode.getNode(trustKey).getChildrenList()) {
+                final String value = subject.getString();
+                if (value != null) {
+                    rows.add(new TrustRow(trustKey, value));
+                }
+            }
+        }
+
+        final Set<TrustRow> existing = new HashSet<>();
+        final Set<TrustRow> removed = new HashSet<>();
+        try (PreparedStatement statement = this.connection.prepareStatement("SELECT trust_type, subject FROM claim_trust WHERE path = ?")) {
+            statement.setString(1, key);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    final TrustRow row = new TrustRow(result.getString(1), result.getString(2));
+                    if (!existing.add(row)) {
+                        // Duplicate row, delete all copies and insert it once if still trusted
+                        removed.add(row);
+                    }
+                }
+            }
+        }
+        for (TrustRow row : existing) {
+            if (!rows.contains(row)) {
+                removed.add(row);
+            } else if (!removed.contains(row)) {
+                rows.remove(row);
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            try (PreparedStatement statement = this.connection.prepareStatement("DELETE FROM claim_trust WHERE path = ? AND trust_type = ? AND subject = ?")) {
+                for (TrustRow row : removed) {
+                    statement.setString(1, key);
+                    statement.setString(2, row.trustType);
+                    statement.setString(3, row.subject);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        if (!rows.isEmpty()) {
+            try (PreparedStatement statement = this.connection.prepareStatement("INSERT INTO claim_trust (path, trust_type, subject) VALUES (?, ?, ?)")) {
+                for (TrustRow row : rows) {
+                    statement.setString(1, key);
+                    statement.setString(2, row.trustType);
+                    statement.setString(3, row.subject);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private void deleteDocument(Path path) throws SQLException {
+        final String key = this.getKey(path);
+        if (isPlayerPath(path)) {
+            try (PreparedStatement statement = this.connection.prepareStatement("DELETE FROM players WHERE path = ?")) {
+                statement.setString(1, key);
+                statement.executeUpdate();
+            }
+            return;
+        }
+        for (String table : new String[] {"claims", "claim_trust", "claim_economy"}) {
+            try (PreparedStatement statement = this.connection.prepareStatement("DELETE FROM " + table + " WHERE path = ?")) {
+                statement.setString(1, key);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private String getKey(Path path) {
+        final Path absolutePath = path.toAbsolutePath().normalize();
+        final Path keyPath = absolutePath.startsWith(this.rootPath) ? this.rootPath.relativize(absolutePath) : absolutePath;
+        return keyPath.toString().replace('\\', '/');
+    }
+
+    private static String getTable(Path path) {
+        return isPlayerPath(path) ? "players" : "claims";
+    }
+
+    public static boolean isPlayerPath(Path path) {
+        for (Path element : path) {
+            final String name = element.toString();
+            if (name.equals("PlayerData") || name.equals("GlobalPlayerData")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static String serialize(ConfigurationNode root) throws IOException {
+        final StringWriter writer = new StringWriter();
+        HoconConfigurationLoader.builder().setSink(() -> new BufferedWriter(writer)).build().save(root);
+        return writer.toString();
+    }
+
+    public static CommentedConfigurationNode parse(String data) throws IOException {
+        return HoconConfigurationLoader.builder().setSource(() -> new BufferedReader(new StringReader(data))).build().load();
+    }
+
+    private static final class TrustRow {
+
+        private final String trustType;
+        private final String subject;
+
+        TrustRow(String trustType, String subject) {
+            this.trustType = trustType;
+            this.subject = subject;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TrustRow)) {
+                return false;
+            }
+            final TrustRow other = (TrustRow) o;
+            return this.trustType.equals(other.trustType) && this.subject.equals(other.subject);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.trustType.hashCode() + this.subject.hashCode();
+        }
+    }
+}
@@ -25,132 +25,89 @@
 package com.griefdefender.task;
 
 import com.google.common.collect.ImmutableMap;
-import com.google.common.reflect.TypeToken;
 import com.griefdefender.GDBootstrap;
 import com.griefdefender.GDPlayerData;
 import com.griefdefender.GriefDefenderPlugin;
-import com.griefdefender.api.claim.Claim;
-import com.griefdefender.api.permission.option.Options;
+import com.griefdefender.claim.ClaimExpiryQueue;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.claim.GDClaimManager;
 import com.griefdefender.configuration.GriefDefenderConfig;
 import com.griefdefender.configuration.MessageStorage;
 import com.griefdefender.internal.util.BlockUtil;
-import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.permission.GDPermissionUser;
 import com.griefdefender.util.PermissionUtil;
 
 import net.kyori.text.Component;
 import net.kyori.text.serializer.plain.PlainComponentSerializer;
 
-import org.bukkit.Bukkit;
-import org.bukkit.World;
 import org.bukkit.scheduler.BukkitRunnable;
 
-import java.time.Duration;
 import java.time.Instant;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
 
+/**
+ * Deletes claims whose expiry has passed.
+ *
+ * <p>Runs every tick but only pops claims that are due from the
+ * {@link ClaimExpiryQueue}, stopping once the configured time budget is spent.
+ * All loaded claims are recomputed once per cleanup interval to pick up
+ * changes the queue was not told about.</p>
+ */
 public class ClaimCleanupTask extends BukkitRunnable {
 
+    private final long rescanTicks;
+    private long ticks = 0;
+
     public ClaimCleanupTask(int interval) {
-        this.runTaskTimer(GDBootstrap.getInstance(), 1L, interval);
+        this.rescanTicks = interval * 1200L;
+        this.runTaskTimer(GDBootstrap.getInstance(), 1L, 1L);
     }
 
     @Override
     public void run() {
-        for (World world : Bukkit.getServer().getWorlds()) {
-            GDClaimManager claimManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(world.getUID());
-            Set<Claim> claimList = claimManager.getWorldClaims();
-            if (claimList.size() == 0) {
-                continue;
-            }
-
-            final GriefDefenderConfig<?> activeConfig = GriefDefenderPlugin.getActiveConfig(world);
-            final boolean schematicRestore = activeConfig.getConfig().claim.claimAutoSchematicRestore;
-            Iterator<Claim> iterator = new HashSet<>(claimList).iterator();
-            while (iterator.hasNext()) {
-                GDClaim claim = (GDClaim) iterator.next();
-                final GDPlayerData playerData = claim.getOwnerPlayerData();
-                if (claim.isAdminClaim() || !claim.getInternalClaimData().allowExpiration() || playerData == null) {
-                    continue;
-                }
-
-                if (!playerData.dataInitialized) {
-                    continue;
-                }
-
-                int areaOfDefaultClaim = 0;
-                if (activeConfig.getConfig().claim.autoChestClaimBlockRadius >= 0) {
-                    areaOfDefaultClaim = (int) Math.pow(activeConfig.getConfig().claim.autoChestClaimBlockRadius * 2 + 1, 2);
-                }
-
-                final GDPermissionUser subject = playerData.getSubject();
-                Instant claimLastActive = claim.getInternalClaimData().getDateLastActive();
+        if (++this.ticks >= this.rescanTicks) {
+            this.ticks = 0;
+            ClaimExpiryQueue.getInstance().requestRescan();
+        }
 
-                final int claimExpirationChest = playerData.getChestClaimExpiration();
-                if (claim.getArea() <= areaOfDefaultClaim && claimExpirationChest > 0) {
-                    if (claimLastActive.plus(Duration.ofDays(claimExpirationChest))
-                        .isBefore(Instant.now())) {
-                        playerData.useRestoreSchematic = schematicRestore;
-                        claimManager.deleteClaim(claim);
-                        playerData.useRestoreSchematic = false;
-                        final Component message = GriefDefenderPlugin.getInstance().messageData.getMessage(MessageStorage.CLAIM_EXPIRED_INACTIVITY,
-                                ImmutableMap.of(
-                                "player", subject.getFriendlyName(),
-                                "uuid", claim.getUniqueId().toString()));
-                        GriefDefenderPlugin.getInstance().getLogger().info(PlainComponentSerializer.INSTANCE.serialize(message));
-                        if (!schematicRestore && activeConfig.getConfig().claim.claimAutoNatureRestore) {
-                            BlockUtil.getInstance().restoreClaim(claim);
-                        }
-                        // remove all context permissions
-                        PermissionUtil.getInstance().clearPermissions(claim);
-                    }
-                    return;
-                }
+        final long budget = Math.max(0, GriefDefenderPlugin.getGlobalConfig().getConfig().thread.cleanupTickBudget) * 1000L;
+        final long deadline = System.nanoTime() + budget;
+        final ClaimExpiryQueue expiryQueue = ClaimExpiryQueue.getInstance();
+        if (!expiryQueue.processPending(deadline)) {
+            return;
+        }
 
-                if (!claim.isBasicClaim()) {
-                    continue;
-                }
-                final int optionValue = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Integer.class), subject, Options.EXPIRATION, claim);
-                final int optionClaimExpirationBasic = optionValue;
-                if (optionClaimExpirationBasic > 0) {
-                    final Instant localNow = Instant.now();
-                    final boolean claimNotActive = claimLastActive.plus(Duration.ofDays(optionClaimExpirationBasic)).isBefore(localNow);
-                    if (!claimNotActive) {
-                        final boolean taxEnabled = activeConfig.getConfig().claim.bankTaxSystem;
-                        if (!taxEnabled || !claim.getData().isExpired()) {
-                            continue;
-                        }
-                        final Instant taxPastDueDate = claim.getEconomyData().getTaxPastDueDate().orElse(null);
-                        if (taxPastDueDate == null) {
-                            continue;
-                        }
+        final Instant now = Instant.now();
+        // Always expire at least one due claim so a tight budget cannot stall cleanup
+        boolean first = true;
+        while (first || System.nanoTime() < deadline) {
+            final GDClaim claim = expiryQueue.pollExpired(now);
+            if (claim == null) {
+                return;
+            }
+            this.expireClaim(claim);
+            first = false;
+        }
+    }
 
-                        final int taxExpirationDays = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Integer.class), subject, Options.TAX_EXPIRATION, claim).intValue();
-                        final int expireDaysToKeep = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Integer.class), subject, Options.TAX_EXPIRATION_DAYS_KEEP, claim).intValue();
-                        if (!taxPastDueDate.plus(Duration.ofDays(taxExpirationDays + expireDaysToKeep)).isBefore(localNow)) {
-                            continue;
-                        }
-                    }
+    private void expireClaim(GDClaim claim) {
+        final GDPlayerData playerData = claim.getOwnerPlayerData();
+        final GDClaimManager claimManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(claim.getWorldUniqueId());
+        final GriefDefenderConfig<?> activeConfig = GriefDefenderPlugin.getActiveConfig(claim.getWorldUniqueId());
+        final boolean schematicRestore = activeConfig.getConfig().claim.claimAutoSchematicRestore;
+        final GDPermissionUser subject = playerData.getSubject();
 
-                    playerData.useRestoreSchematic = schematicRestore;
-                    claimManager.deleteClaim(claim);
-                    playerData.useRestoreSchematic = false;
-                    final Component message = GriefDefenderPlugin.getInstance().messageData.getMessage(MessageStorage.CLAIM_EXPIRED_INACTIVITY,
-                            ImmutableMap.of(
-                            "player", subject.getFriendlyName(),
-                            "uuid", claim.getUniqueId().toString()));
-                    GriefDefenderPlugin.getInstance().getLogger().info(PlainComponentSerializer.INSTANCE.serialize(message));
-                    if (!schematicRestore && activeConfig.getConfig().claim.claimAutoNatureRestore) {
-                        BlockUtil.getInstance().restoreClaim(claim);
-                    }
-                    // remove all context permissions
-                    PermissionUtil.getInstance().clearPermissions(claim);
-                }
-            }
+        playerData.useRestoreSchematic = schematicRestore;
+        claimManager.deleteClaim(claim);
+        playerData.useRestoreSchematic = false;
+        final Component message = GriefDefenderPlugin.getInstance().messageData.getMessage(MessageStorage.CLAIM_EXPIRED_INACTIVITY,
+                ImmutableMap.of(
+                "player", subject.getFriendlyName(),
+                "uuid", claim.getUniqueId().toString()));
+        GriefDefenderPlugin.getInstance().getLogger().info(PlainComponentSerializer.INSTANCE.serialize(message));
+        if (!schematicRestore && activeConfig.getConfig().claim.claimAutoNatureRestore) {
+            BlockUtil.getInstance().restoreClaim(claim);
         }
+        // remove all context permissions
+        PermissionUtil.getInstance().clearPermissions(claim);
     }
 }
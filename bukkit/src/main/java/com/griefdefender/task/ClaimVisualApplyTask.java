@@ -27,7 +27,6 @@
 import com.griefdefender.GDBootstrap;
 import com.griefdefender.GDPlayerData;
 import com.griefdefender.internal.block.BlockSnapshot;
-import com.griefdefender.internal.util.NMSUtil;
 import com.griefdefender.internal.visual.ClaimVisual;
 
 import org.bukkit.Bukkit;
@@ -64,7 +63,7 @@ public void run() {
 
         for (int i = 0; i < this.visualization.visualTransactions.size(); i++) {
             BlockSnapshot snapshot = this.visualization.visualTransactions.get(i).getFinal();
-            NMSUtil.getInstance().sendBlockChange(this.player, snapshot);
+            this.playerData.visualTransport.show(this.player, snapshot);
         }
 
         if (this.visualization.getClaim() != null) {
@@ -79,7 +78,7 @@ public void run() {
         }
 
         if (playerData.lastShovelLocation == null) {
-            this.playerData.visualRevertTask = Bukkit.getServer().getScheduler().runTaskLaterAsynchronously(GDBootstrap.getInstance(), new ClaimVisualRevertTask(this.player, this.playerData), 1200);
+            this.playerData.visualRevertTask = Bukkit.getServer().getScheduler().runTaskLater(GDBootstrap.getInstance(), new ClaimVisualRevertTask(this.player, this.playerData), 1200);
         }
     }
 }
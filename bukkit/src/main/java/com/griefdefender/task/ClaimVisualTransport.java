@@ -0,0 +1,215 @@
+/*
+ * This file is part of GriefDefender, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) bloodmc
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.griefdefender.task;
+
+import com.griefdefender.GDBootstrap;
+import com.griefdefender.GriefDefenderPlugin;
+import com.griefdefender.internal.block.BlockSnapshot;
+import com.griefdefender.internal.util.NMSUtil;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Iterator;
+import java.util.UUID;
+
+/**
+ * Sends fake visual blocks to a single player.
+ *
+ * <p>Changes are not sent immediately. They are collected per chunk section
+ * and flushed from the next tick, so a visual that is reverted and shown again
+ * in the same tick only sends the positions whose block actually changed.
+ * Each flush sends at most {@code visual.blocks-per-tick} blocks, section by
+ * section, and carries the rest over to the following ticks.</p>
+ *
+ * <p>Positions are only tracked for a single world. Queuing a change for
+ * another world, or the player changing worlds, drops the previous state
+ * since the client discards those blocks anyway.</p>
+ */
+public class ClaimVisualTransport {
+
+    // Blocks last sent to the client, keyed by packed position
+    private final Long2ObjectOpenHashMap<BlockSnapshot> shown = new Long2ObjectOpenHashMap<>();
+    // Pending changes keyed by packed chunk section, then by packed position
+    private final Long2ObjectLinkedOpenHashMap<Long2ObjectOpenHashMap<Change>> pending = new Long2ObjectLinkedOpenHashMap<>();
+    private int pendingCount;
+    private BukkitTask flushTask;
+    // World of the tracked positions
+    private UUID worldUniqueId;
+
+    private static final class Change {
+
+        private final BlockSnapshot snapshot;
+        private final boolean revert;
+
+        private Change(BlockSnapshot snapshot, boolean revert) {
+            this.snapshot = snapshot;
+            this.revert = revert;
+        }
+    }
+
+    public void show(Player player, BlockSnapshot snapshot) {
+        this.checkWorld(snapshot.getLocation());
+        final long pos = packPosition(snapshot.getLocation());
+        if (isSameBlock(this.shown.get(pos), snapshot)) {
+            // Client already sees this block, drop any queued revert
+            this.removePending(snapshot.getLocation(), pos);
+            return;
+        }
+        this.addPending(player, snapshot, pos, false);
+    }
+
+    public void revert(Player player, BlockSnapshot original) {
+        this.checkWorld(original.getLocation());
+        final long pos = packPosition(original.getLocation());
+        if (!this.shown.containsKey(pos)) {
+            this.removePending(original.getLocation(), pos);
+            return;
+        }
+        this.addPending(player, original, pos, true);
+    }
+
+    /**
+     * Forgets a position without sending anything, used when the world
+     * block has changed and the client already received the real block.
+     *
+     * @param location The block location
+     */
+    public void forget(Location location) {
+        if (!location.getWorld().getUID().equals(this.worldUniqueId)) {
+            return;
+        }
+        final long pos = packPosition(location);
+        this.shown.remove(pos);
+        this.removePending(location, pos);
+    }
+
+    public void clear() {
+        this.worldUniqueId = null;
+        this.shown.clear();
+        this.pending.clear();
+        this.pendingCount = 0;
+        if (this.flushTask != null) {
+            this.flushTask.cancel();
+            this.flushTask = null;
+        }
+    }
+
+    private void checkWorld(Location location) {
+        final UUID worldUniqueId = location.getWorld().getUID();
+        if (!worldUniqueId.equals(this.worldUniqueId)) {
+            this.clear();
+            this.worldUniqueId = worldUniqueId;
+        }
+    }
+
+    public int getPendingCount() {
+        return this.pendingCount;
+    }
+
+    private void addPending(Player player, BlockSnapshot snapshot, long pos, boolean revert) {
+        final Location location = snapshot.getLocation();
+        final long section = packSection(location.getBlockX() >> 4, location.getBlockY() >> 4, location.getBlockZ() >> 4);
+        Long2ObjectOpenHashMap<Change> changes = this.pending.get(section);
+        if (changes == null) {
+            changes = new Long2ObjectOpenHashMap<>();
+            this.pending.put(section, changes);
+        }
+        if (changes.put(pos, new Change(snapshot, revert)) == null) {
+            this.pendingCount++;
+        }
+        if (this.flushTask == null) {
+            this.flushTask = Bukkit.getServer().getScheduler().runTaskTimer(GDBootstrap.getInstance(), () -> this.flush(player), 0L, 1L);
+        }
+    }
+
+    private void removePending(Location location, long pos) {
+        final long section = packSection(location.getBlockX() >> 4, location.getBlockY() >> 4, location.getBlockZ() >> 4);
+        final Long2ObjectOpenHashMap<Change> changes = this.pending.get(section);
+        if (changes != null && changes.remove(pos) != null) {
+            this.pendingCount--;
+            if (changes.isEmpty()) {
+                this.pending.remove(section);
+            }
+        }
+    }
+
+    private void flush(Player player) {
+        if (!player.isOnline() || !player.getWorld().getUID().equals(this.worldUniqueId)) {
+            // Blocks queued for the previous world must not be sent to the new one
+            this.clear();
+            return;
+        }
+
+        final int limit = GriefDefenderPlugin.getActiveConfig(player.getWorld().getUID()).getConfig().visual.blocksPerTick;
+        int sent = 0;
+        while (!this.pending.isEmpty() && (limit <= 0 || sent < limit)) {
+            final long section = this.pending.firstLongKey();
+            final Long2ObjectOpenHashMap<Change> changes = this.pending.get(section);
+            final Iterator<Long2ObjectMap.Entry<Change>> iterator = changes.long2ObjectEntrySet().fastIterator();
+            while (iterator.hasNext() && (limit <= 0 || sent < limit)) {
+                final Long2ObjectMap.Entry<Change> entry = iterator.next();
+                final long pos = entry.getLongKey();
+                final Change change = entry.getValue();
+                iterator.remove();
+                this.pendingCount--;
+                if (!change.snapshot.getLocation().getWorld().getUID().equals(this.worldUniqueId)) {
+                    continue;
+                }
+                NMSUtil.getInstance().sendBlockChange(player, change.snapshot);
+                if (change.revert) {
+                    this.shown.remove(pos);
+                } else {
+                    this.shown.put(pos, change.snapshot);
+                }
+                sent++;
+            }
+            if (changes.isEmpty()) {
+                this.pending.removeFirst();
+            }
+        }
+
+        if (this.pending.isEmpty()) {
+            this.flushTask.cancel();
+            this.flushTask = null;
+        }
+    }
+
+    private static boolean isSameBlock(BlockSnapshot shown, BlockSnapshot snapshot) {
+        return shown != null && (shown == snapshot || shown.equals(snapshot));
+    }
+
+    private static long packPosition(Location location) {
+        return ((long) (location.getBlockX() & 0x3FFFFFF) << 38) | ((long) (location.getBlockZ() & 0x3FFFFFF) << 12) | (location.getBlockY() & 0xFFF);
+    }
+
+    private static long packSection(int sectionX, int sectionY, int sectionZ) {
+        return ((long) (sectionX & 0x3FFFFF) << 42) | ((long) (sectionZ & 0x3FFFFF) << 20) | (sectionY & 0xFFFFF);
+    }
+}
@@ -33,6 +33,7 @@
 import com.griefdefender.cache.MessageCache;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.configuration.MessageStorage;
+import com.griefdefender.metrics.GDMetrics;
 import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.text.action.GDCallbackHolder;
 
@@ -42,65 +43,165 @@
 import net.kyori.text.event.HoverEvent;
 import net.kyori.text.format.TextColor;
 
-import java.util.function.Consumer;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
-import org.bukkit.World;
-import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 
+/**
+ * Handles timed per-player work such as health regen and teleport delays.
+ *
+ * <p>Online players are spread across {@link #BUCKET_COUNT} buckets so each
+ * player is visited once per second on its own tick. A visit only does work
+ * when the player has a pending teleport or is missing health, and the time
+ * spent per tick is capped by the configured budget. Players left over when
+ * the budget runs out are handled first on the next tick.</p>
+ */
 public class PlayerTickTask extends BukkitRunnable {
 
+    // One visit per player every 20 ticks
+    private static final int BUCKET_COUNT = 20;
+    // Health regen applies every 5th visit, every 100 ticks
+    private static final int REGEN_VISIT_INTERVAL = 5;
+
+    private final List<List<UUID>> buckets = new ArrayList<>(BUCKET_COUNT);
+    private final Map<UUID, TickState> players = new Object2ObjectOpenHashMap<>();
+    private final Deque<TickState> pending = new ArrayDeque<>();
+    private int tick = 0;
+
+    private static final class TickState {
+
+        private final UUID uniqueId;
+        private final int bucket;
+        private int visits = 0;
+        private boolean queued = false;
+
+        private TickState(UUID uniqueId, int bucket) {
+            this.uniqueId = uniqueId;
+            this.bucket = bucket;
+        }
+    }
+
     public PlayerTickTask() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            this.buckets.add(new ArrayList<>());
+        }
         this.runTaskTimer(GDBootstrap.getInstance(), 1L, 1L);
     }
 
     @Override
     public void run() {
-        for (World world : Bukkit.getServer().getWorlds()) {
-            for (Player player : world.getPlayers()) {
-                if (player.isDead()) {
-                    continue;
-                }
-                final GDPlayerData playerData = GriefDefenderPlugin.getInstance().dataStore.getOrCreatePlayerData(player.getWorld(), player.getUniqueId());
-                final GDClaim claim = GriefDefenderPlugin.getInstance().dataStore.getClaimAtPlayer(playerData, player.getLocation());
-                // health regen
-                if (world.getFullTime() % 100 == 0L) {
-                    final GameMode gameMode = player.getGameMode();
-                    // Handle player health regen
-                    if (gameMode != GameMode.CREATIVE && gameMode != GameMode.SPECTATOR) {
-                        final double maxHealth = player.getMaxHealth();
-                        if (player.getHealth() < maxHealth) {
-                            final double regenAmount = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Double.class), playerData.getSubject(), Options.PLAYER_HEALTH_REGEN, claim);
-                            if (regenAmount > 0) {
-                                final double newHealth = player.getHealth() + regenAmount;
-                                if (newHealth > maxHealth) {
-                                    player.setHealth(maxHealth);
-                                } else {
-                                    player.setHealth(newHealth);
-                                }
-                            }
-                        }
-                    }
-                }
-                // teleport delay
-                if (world.getFullTime() % 20 == 0L) {
-                    if (playerData.teleportDelay > 0) {
-                        final int delay = playerData.teleportDelay - 1;
-                        if (delay == 0) {
-                            player.teleport(playerData.teleportLocation);
-                            playerData.teleportDelay = 0;
-                            playerData.teleportLocation = null;
-                            playerData.teleportSourceLocation = null;
-                            continue;
-                        }
-                        TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.TELEPORT_DELAY_NOTICE, 
-                                ImmutableMap.of("delay", TextComponent.of(delay, TextColor.GOLD))));
-                        playerData.teleportDelay = delay;
+        GDMetrics.nextTick();
+        final int bucketIndex = this.tick++ % BUCKET_COUNT;
+        if (bucketIndex == 0) {
+            this.updatePlayers();
+        }
+
+        for (UUID uuid : this.buckets.get(bucketIndex)) {
+            final TickState state = this.players.get(uuid);
+            if (!state.queued) {
+                state.queued = true;
+                this.pending.add(state);
+            }
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(GriefDefenderPlugin.getGlobalConfig().getConfig().thread.playerTickBudget);
+        TickState state;
+        while ((state = this.pending.poll()) != null) {
+            state.queued = false;
+            final Player player = Bukkit.getPlayer(state.uniqueId);
+            if (player != null) {
+                this.tickPlayer(player, state);
+            }
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+    }
+
+    // Assigns joined players to the least loaded bucket and drops players that left
+    private void updatePlayers() {
+        final Map<UUID, Player> online = new Object2ObjectOpenHashMap<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            online.put(player.getUniqueId(), player);
+        }
+
+        final Iterator<Map.Entry<UUID, TickState>> iterator = this.players.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final TickState state = iterator.next().getValue();
+            if (!online.containsKey(state.uniqueId)) {
+                this.buckets.get(state.bucket).remove(state.uniqueId);
+                iterator.remove();
+            }
+        }
+        for (UUID uuid : online.keySet()) {
+            if (!this.players.containsKey(uuid)) {
+                int bucket = 0;
+                for (int i = 1; i < BUCKET_COUNT; i++) {
+                    if (this.buckets.get(i).size() < this.buckets.get(bucket).size()) {
+                        bucket = i;
                     }
                 }
+                this.buckets.get(bucket).add(uuid);
+                this.players.put(uuid, new TickState(uuid, bucket));
+            }
+        }
+    }
+
+    private void tickPlayer(Player player, TickState state) {
+        if (player.isDead()) {
+            return;
+        }
+
+        final GDPlayerData playerData = GriefDefenderPlugin.getInstance().dataStore.getOrCreatePlayerData(player.getWorld(), player.getUniqueId());
+        // teleport delay
+        if (playerData.teleportDelay > 0) {
+            final int delay = playerData.teleportDelay - 1;
+            if (delay == 0) {
+                player.teleport(playerData.teleportLocation);
+                playerData.teleportDelay = 0;
+                playerData.teleportLocation = null;
+                playerData.teleportSourceLocation = null;
+                return;
+            }
+            TextAdapter.sendComponent(player, MessageStorage.MESSAGE_DATA.getMessage(MessageStorage.TELEPORT_DELAY_NOTICE, 
+                    ImmutableMap.of("delay", TextComponent.of(delay, TextColor.GOLD))));
+            playerData.teleportDelay = delay;
+        }
+
+        // health regen
+        if (++state.visits % REGEN_VISIT_INTERVAL != 0) {
+            return;
+        }
+        final GameMode gameMode = player.getGameMode();
+        if (gameMode == GameMode.CREATIVE || gameMode == GameMode.SPECTATOR) {
+            return;
+        }
+        final double maxHealth = player.getMaxHealth();
+        if (player.getHealth() >= maxHealth) {
+            return;
+        }
+
+        // Only resolve the claim once there is health to regen
+        final GDClaim claim = GriefDefenderPlugin.getInstance().dataStore.getClaimAtPlayer(playerData, player.getLocation());
+        final double regenAmount = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Double.class), playerData.getSubject(), Options.PLAYER_HEALTH_REGEN, claim);
+        if (regenAmount > 0) {
+            final double newHealth = player.getHealth() + regenAmount;
+            if (newHealth > maxHealth) {
+                player.setHealth(maxHealth);
+            } else {
+                player.setHealth(newHealth);
             }
         }
     }
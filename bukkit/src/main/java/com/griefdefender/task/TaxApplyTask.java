@@ -32,6 +32,7 @@
 import com.griefdefender.api.claim.Claim;
 import com.griefdefender.api.economy.BankTransactionType;
 import com.griefdefender.api.permission.option.Options;
+import com.griefdefender.claim.ClaimExpiryQueue;
 import com.griefdefender.claim.GDClaim;
 import com.griefdefender.claim.GDClaimManager;
 import com.griefdefender.configuration.GriefDefenderConfig;
@@ -40,49 +41,215 @@
 import com.griefdefender.event.GDTaxClaimEvent;
 import com.griefdefender.permission.GDPermissionManager;
 import com.griefdefender.permission.GDPermissionUser;
+import com.griefdefender.storage.BaseStorage;
 import com.griefdefender.util.TaskUtil;
 import net.milkbowl.vault.economy.Economy;
 import net.milkbowl.vault.economy.EconomyResponse;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.scheduler.BukkitRunnable;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
+/**
+ * Collects claim taxes for a world once a day at the configured tax hour.
+ *
+ * <p>A run snapshots the taxable claims on the main thread, resolves tax
+ * options on the plugin executor and then applies economy transactions in
+ * batches bounded by {@code thread.tax-tick-budget}. Every charged claim is
+ * appended to a per world journal as soon as its transaction completes, so a
+ * run interrupted by a restart resumes on the next start without charging
+ * those claims again.</p>
+ */
 public class TaxApplyTask extends BukkitRunnable {
 
+    private static final Path JOURNAL_FOLDER = BaseStorage.dataLayerFolderPath.resolve("TaxRuns");
+    private static final String JOURNAL_HEADER = "run ";
+
     private final UUID worldUniqueId;
     final Economy economy;
     final GriefDefenderConfig<?> activeConfig;
     private int bankTransactionLogLimit = 60;
+    private final Path journalPath;
+    private Instant nextRun;
+    private TaxRun activeRun;
+
+    private static final class TaxCharge {
+
+        private final GDClaim claim;
+        private final GDPlayerData playerData;
+        private final boolean inTown;
+        private double taxRate;
+        private int taxExpirationDays;
+
+        private TaxCharge(GDClaim claim, GDPlayerData playerData, boolean inTown) {
+            this.claim = claim;
+            this.playerData = playerData;
+            this.inTown = inTown;
+        }
+    }
+
+    private static final class TaxRun {
+
+        private final BufferedWriter journal;
+        // Set once tax options are resolved off-thread
+        private volatile ArrayDeque<TaxCharge> charges;
+        private volatile boolean failed;
+
+        private TaxRun(BufferedWriter journal) {
+            this.journal = journal;
+        }
+    }
 
     public TaxApplyTask(UUID worldUniqueId) {
         this.worldUniqueId = worldUniqueId;
         this.economy = GriefDefenderPlugin.getInstance().getVaultProvider().getApi();
         this.activeConfig = GriefDefenderPlugin.getActiveConfig(this.worldUniqueId);
-        int taxHour = GriefDefenderPlugin.getActiveConfig(worldUniqueId).getConfig().claim.taxApplyHour;
-        long delay = TaskUtil.computeDelay(taxHour, 0, 0);
-        this.runTaskTimer(GDBootstrap.getInstance(), delay, 1728000L);
+        this.journalPath = JOURNAL_FOLDER.resolve(worldUniqueId.toString());
+        this.nextRun = this.getNextRun();
+        this.resumeRun();
+        this.runTaskTimer(GDBootstrap.getInstance(), 1L, 1L);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public void run() {
-        // don't do anything when there are no claims
-        GDClaimManager claimManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(this.worldUniqueId);
-        ArrayList<Claim> claimList = (ArrayList<Claim>) new ArrayList<>(claimManager.getWorldClaims());
-        if (claimList.size() == 0) {
+        if (this.activeRun == null) {
+            if (Instant.now().isBefore(this.nextRun)) {
+                return;
+            }
+            this.nextRun = this.getNextRun();
+            this.startRun(LocalDate.now().toString(), new HashSet<>());
+            return;
+        }
+
+        final TaxRun run = this.activeRun;
+        if (run.failed) {
+            // Journal is kept so the run resumes on next start
+            this.closeJournal(run);
+            this.activeRun = null;
+            return;
+        }
+        final ArrayDeque<TaxCharge> charges = run.charges;
+        if (charges == null) {
+            return;
+        }
+
+        final GDClaimManager claimManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(this.worldUniqueId);
+        final long budget = Math.max(0, GriefDefenderPlugin.getGlobalConfig().getConfig().thread.taxTickBudget) * 1000L;
+        final long deadline = System.nanoTime() + budget;
+        // Always apply at least one charge so a slow economy cannot stall the run
+        boolean first = true;
+        while (!charges.isEmpty() && (first || System.nanoTime() < deadline)) {
+            final TaxCharge charge = charges.poll();
+            // Claims deleted since the snapshot are skipped
+            if (claimManager.getClaimByUUID(charge.claim.getUniqueId()).isPresent()) {
+                this.handleClaimTax(charge);
+            }
+            this.markCharged(run, charge.claim);
+            first = false;
+        }
+
+        if (charges.isEmpty()) {
+            this.closeJournal(run);
+            try {
+                Files.deleteIfExists(this.journalPath);
+            } catch (IOException e) {
+                GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to delete tax journal " + this.journalPath, e);
+            }
+            this.activeRun = null;
+        }
+    }
+
+    private Instant getNextRun() {
+        return TaskUtil.getNextTargetZoneDate(this.activeConfig.getConfig().claim.taxApplyHour, 0, 0).toInstant();
+    }
+
+    private void resumeRun() {
+        if (!Files.exists(this.journalPath)) {
             return;
         }
 
+        try {
+            final List<String> lines = Files.readAllLines(this.journalPath, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).startsWith(JOURNAL_HEADER)) {
+                Files.delete(this.journalPath);
+                return;
+            }
+            final Set<UUID> charged = new HashSet<>();
+            for (int i = 1; i < lines.size(); i++) {
+                final String line = lines.get(i).trim();
+                if (!line.isEmpty()) {
+                    charged.add(UUID.fromString(line));
+                }
+            }
+            final String runId = lines.get(0).substring(JOURNAL_HEADER.length());
+            GriefDefenderPlugin.getInstance().getLogger().info("Resuming tax run " + runId + " for world " + this.worldUniqueId + " with " + charged.size() + " claims already charged.");
+            this.startRun(runId, charged);
+        } catch (IOException | IllegalArgumentException e) {
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to read tax journal " + this.journalPath, e);
+        }
+    }
+
+    private void startRun(String runId, Set<UUID> charged) {
         this.bankTransactionLogLimit = this.activeConfig.getConfig().claim.bankTransactionLogLimit;
-        Iterator<GDClaim> iterator = ((ArrayList) claimList.clone()).iterator();
-        while (iterator.hasNext()) {
-            GDClaim claim = iterator.next();
+        final List<TaxCharge> charges = this.collectCharges(charged);
+        if (charges.isEmpty() && charged.isEmpty()) {
+            return;
+        }
+
+        final BufferedWriter journal;
+        try {
+            Files.createDirectories(JOURNAL_FOLDER);
+            if (charged.isEmpty()) {
+                journal = Files.newBufferedWriter(this.journalPath, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                journal.write(JOURNAL_HEADER + runId);
+                journal.newLine();
+                journal.flush();
+            } else {
+                journal = Files.newBufferedWriter(this.journalPath, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+            }
+        } catch (IOException e) {
+            // Without a journal a restart could charge claims twice
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to open tax journal " + this.journalPath + ", skipping tax run.", e);
+            return;
+        }
+
+        final TaxRun run = new TaxRun(journal);
+        this.activeRun = run;
+        CompletableFuture.runAsync(() -> {
+            for (TaxCharge charge : charges) {
+                final GDPermissionUser user = charge.playerData.getSubject();
+                charge.taxRate = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Double.class), user, Options.TAX_RATE, charge.claim);
+                charge.taxExpirationDays = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Integer.class), user, Options.TAX_EXPIRATION, charge.claim).intValue();
+            }
+            run.charges = new ArrayDeque<>(charges);
+        }, GriefDefenderPlugin.getInstance().executor).exceptionally(t -> {
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to compute taxes for tax run " + runId, t);
+            run.failed = true;
+            return null;
+        });
+    }
+
+    private List<TaxCharge> collectCharges(Set<UUID> charged) {
+        final List<TaxCharge> charges = new ArrayList<>();
+        final GDClaimManager claimManager = GriefDefenderPlugin.getInstance().dataStore.getClaimWorldManager(this.worldUniqueId);
+        for (Claim worldClaim : new ArrayList<>(claimManager.getWorldClaims())) {
+            final GDClaim claim = (GDClaim) worldClaim;
             final GDPlayerData playerData = claim.getOwnerPlayerData();
             if (claim.isWilderness()) {
                 continue;
@@ -100,25 +267,51 @@ public void run() {
                 final Set<Claim> children = claim.getChildren(false);
                 for (Claim child : children) {
                     if (child.isTown()) {
-                        handleTownTax((GDClaim) child, playerData);
+                        this.collectTownCharges(charges, charged, (GDClaim) child, playerData);
                     } else if (child.isBasicClaim()) {
-                        handleClaimTax((GDClaim) child, playerData, false);
+                        this.addCharge(charges, charged, (GDClaim) child, playerData, false);
                     }
                 }
             } else {
                 if (claim.isTown()) {
-                    handleTownTax(claim, playerData);
+                    this.collectTownCharges(charges, charged, claim, playerData);
                 } else if (claim.isBasicClaim()){
-                    handleClaimTax(claim, playerData, false);
+                    this.addCharge(charges, charged, claim, playerData, false);
                 }
             }
         }
+        return charges;
     }
 
-    private void handleClaimTax(GDClaim claim, GDPlayerData playerData, boolean inTown) {
-        final GDPermissionUser user = playerData.getSubject();
+    private void collectTownCharges(List<TaxCharge> charges, Set<UUID> charged, GDClaim town, GDPlayerData playerData) {
+        final UUID townAccountId = town.getEconomyAccountId().orElse(null);
+        if (townAccountId == null) {
+            // Virtual Accounts not supported by Economy Plugin so ignore
+            return;
+        }
+        Set<Claim> children = town.getChildren(true);
+        for (Claim child : children) {
+            // resident tax
+            if (child.isBasicClaim()) {
+                this.addCharge(charges, charged, (GDClaim) child, playerData, true);
+            }
+        }
+        if (town.getOwnerUniqueId().equals(playerData.playerID)) {
+            this.addCharge(charges, charged, town, playerData, false);
+        }
+    }
+
+    private void addCharge(List<TaxCharge> charges, Set<UUID> charged, GDClaim claim, GDPlayerData playerData, boolean inTown) {
+        if (!charged.contains(claim.getUniqueId())) {
+            charges.add(new TaxCharge(claim, playerData, inTown));
+        }
+    }
+
+    private void handleClaimTax(TaxCharge charge) {
+        final GDClaim claim = charge.claim;
+        final GDPermissionUser user = charge.playerData.getSubject();
         final OfflinePlayer player = user.getOfflinePlayer();
-        double taxRate = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Double.class), user, Options.TAX_RATE, claim);
+        double taxRate = charge.taxRate;
         double taxOwed = claim.getEconomyData().getTaxBalance() + (claim.getClaimBlocks() * taxRate);
         GDCauseStackManager.getInstance().pushCause(player);
         GDTaxClaimEvent event = new GDTaxClaimEvent(claim, taxRate, taxOwed);
@@ -136,7 +329,7 @@ private void handleClaimTax(GDClaim claim, GDPlayerData playerData, boolean inTo
             if (taxPastDueDate == null) {
                 claim.getEconomyData().setTaxPastDueDate(Instant.now());
             } else {
-                final int taxExpirationDays = GDPermissionManager.getInstance().getInternalOptionValue(TypeToken.of(Integer.class), user, Options.TAX_EXPIRATION, claim).intValue();
+                final int taxExpirationDays = charge.taxExpirationDays;
                 if (taxExpirationDays > 0) {
                     claim.getInternalClaimData().setExpired(true);
                     if (taxExpirationDays == 0) {
@@ -157,7 +350,7 @@ private void handleClaimTax(GDClaim claim, GDPlayerData playerData, boolean inTo
             claim.getEconomyData().setTaxBalance(0);
             claim.getInternalClaimData().setExpired(false);
 
-            if (inTown) {
+            if (charge.inTown) {
                 final GDClaim town = claim.getTownClaim();
                 town.getData()
                     .getEconomyData()
@@ -166,23 +359,26 @@ private void handleClaimTax(GDClaim claim, GDPlayerData playerData, boolean inTo
             }
             claim.getData().save();
         }
+        // expired state and past due date feed the claim's expiry
+        ClaimExpiryQueue.getInstance().schedule(claim);
     }
 
-    private void handleTownTax(GDClaim town, GDPlayerData playerData) {
-        final UUID townAccountId = town.getEconomyAccountId().orElse(null);
-        if (townAccountId == null) {
-            // Virtual Accounts not supported by Economy Plugin so ignore
-            return;
+    private void markCharged(TaxRun run, GDClaim claim) {
+        try {
+            run.journal.write(claim.getUniqueId().toString());
+            run.journal.newLine();
+            // Flushed per claim so a crash loses at most the charge in flight
+            run.journal.flush();
+        } catch (IOException e) {
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to write tax journal " + this.journalPath, e);
         }
-        Set<Claim> children = town.getChildren(true);
-        for (Claim child : children) {
-            // resident tax
-            if (child.isBasicClaim()) {
-                handleClaimTax((GDClaim) child, playerData, true);
-            }
-        }
-        if (town.getOwnerUniqueId().equals(playerData.playerID)) {
-            handleClaimTax(town, playerData, false);
+    }
+
+    private void closeJournal(TaxRun run) {
+        try {
+            run.journal.close();
+        } catch (IOException e) {
+            GriefDefenderPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to close tax journal " + this.journalPath, e);
         }
     }
 }